@@ -1,6 +1,7 @@
 package com.bankanalytics.config;
 
 import com.bankanalytics.entity.Division;
+import com.bankanalytics.entity.NameNormalizer;
 import com.bankanalytics.entity.User;
 import com.bankanalytics.repository.DivisionRepository;
 import com.bankanalytics.repository.UserRepository;
@@ -17,6 +18,8 @@ import java.util.Arrays;
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
 
+    private static final String HEAD_OFFICE = "Головной офис";
+
     private final UserRepository userRepository;
     private final DivisionRepository divisionRepository;
     private final PasswordEncoder passwordEncoder;
@@ -47,7 +50,7 @@ public class DataInitializer implements CommandLineRunner {
         log.info("Creating sample divisions...");
         
         Division headOffice = new Division();
-        headOffice.setName("Головной офис");
+        headOffice.setName(HEAD_OFFICE);
         headOffice.setBlocks(Arrays.asList(
             "Департамент стратегического планирования",
             "Департамент финансового контроля",
@@ -61,8 +64,7 @@ public class DataInitializer implements CommandLineRunner {
     private void createAdminUser() {
         log.info("Creating admin user...");
         
-        Division headOffice = divisionRepository.findByNameContaining("Головной").stream()
-                .findFirst()
+        Division headOffice = divisionRepository.findByNormalizedName(NameNormalizer.normalize(HEAD_OFFICE))
                 .orElse(null);
         
         User admin = new User();
@@ -79,8 +81,7 @@ public class DataInitializer implements CommandLineRunner {
     private void createEmployee() {
         log.info("Creating employee user...");
 
-        Division headOffice = divisionRepository.findByNameContaining("Головной").stream()
-                .findFirst()
+        Division headOffice = divisionRepository.findByNormalizedName(NameNormalizer.normalize(HEAD_OFFICE))
                 .orElse(null);
 
         User employee = new User();
@@ -0,0 +1,66 @@
+package com.bankanalytics.config;
+
+import com.bankanalytics.service.TableVersions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Result caches for the read methods of {@code GoalService}, {@code TaskService} and {@code ReportService}.
+ * Each cache lists the tables its queries read, including the joined ones whose names end up in the DTOs.
+ * Entries are keyed by method and arguments. Caching runs outside the service transaction, so a hit
+ * does not open one.
+ */
+@Configuration
+@RequiredArgsConstructor
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class QueryCacheConfig implements CachingConfigurer {
+
+    public static final String GOAL_QUERIES = "goal-queries";
+    public static final String TASK_QUERIES = "task-queries";
+    public static final String REPORT_QUERIES = "report-queries";
+
+    private final TableVersions tableVersions;
+
+    @Value("${app.analytics.query-cache-size}")
+    private int maxEntries;
+
+    @Value("${app.analytics.cache-ttl}")
+    private long ttlSeconds;
+
+    @Bean
+    @Override
+    public CacheManager cacheManager() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                cache(GOAL_QUERIES, TableVersions.GOALS, TableVersions.DIVISIONS),
+                cache(TASK_QUERIES, TableVersions.TASKS, TableVersions.GOALS, TableVersions.USERS),
+                cache(REPORT_QUERIES, TableVersions.REPORTS, TableVersions.DIVISIONS, TableVersions.USERS)));
+        return cacheManager;
+    }
+
+    @Override
+    public KeyGenerator keyGenerator() {
+        return (target, method, params) -> {
+            Object[] key = new Object[params.length + 1];
+            key[0] = method;
+            System.arraycopy(params, 0, key, 1, params.length);
+            return new SimpleKey(key);
+        };
+    }
+
+    private VersionedQueryCache cache(String name, String... tables) {
+        return new VersionedQueryCache(name, tables, tableVersions, maxEntries, Duration.ofSeconds(ttlSeconds));
+    }
+}
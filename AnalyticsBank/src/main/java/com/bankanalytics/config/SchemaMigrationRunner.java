@@ -0,0 +1,114 @@
+package com.bankanalytics.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the versioned scripts {@code db/migration/V<version>__<description>.sql} in version order
+ * and records each one in {@code schema_migrations}, so every script runs once per database.
+ * <p>
+ * Tables and columns still come from Hibernate's schema update, which runs before this; the scripts
+ * own what the entity mapping cannot express: indexes with a method, operator class or predicate,
+ * composite indexes, extensions and generated columns whose type the schema update cannot compare. A script runs in its own transaction together with its
+ * bookkeeping row, and the table lock keeps two instances starting at once from running it twice.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaMigrationRunner implements CommandLineRunner {
+
+    private static final String LOCATION = "classpath:db/migration/V*__*.sql";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(String... args) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                "version INTEGER PRIMARY KEY, " +
+                "description VARCHAR(255) NOT NULL, " +
+                "checksum BIGINT NOT NULL, " +
+                "applied_at TIMESTAMP NOT NULL DEFAULT now())");
+
+        int applied = 0;
+        for (Migration migration : load()) {
+            Boolean ran = transactionTemplate.execute(status -> apply(migration));
+            if (Boolean.TRUE.equals(ran)) {
+                applied++;
+            }
+        }
+        log.info("Schema migrations checked, {} applied", applied);
+    }
+
+    private boolean apply(Migration migration) {
+        jdbcTemplate.execute("LOCK TABLE schema_migrations IN EXCLUSIVE MODE");
+        List<Long> checksums = jdbcTemplate.queryForList(
+                "SELECT checksum FROM schema_migrations WHERE version = ?", Long.class, migration.version());
+        if (!checksums.isEmpty()) {
+            if (checksums.get(0) != migration.checksum()) {
+                // Применённый скрипт не переписывают: изменения схемы идут следующей версией
+                log.warn("Migration V{} ({}) was changed after it had been applied", migration.version(),
+                        migration.description());
+            }
+            return false;
+        }
+
+        long start = System.currentTimeMillis();
+        jdbcTemplate.execute(migration.sql());
+        jdbcTemplate.update("INSERT INTO schema_migrations (version, description, checksum) VALUES (?, ?, ?)",
+                migration.version(), migration.description(), migration.checksum());
+        log.info("Applied migration V{} ({}) in {} ms", migration.version(), migration.description(),
+                System.currentTimeMillis() - start);
+        return true;
+    }
+
+    private static List<Migration> load() {
+        try {
+            List<Migration> migrations = new ArrayList<>();
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                Matcher matcher = FILE_NAME.matcher(resource.getFilename());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                String sql = resource.getContentAsString(StandardCharsets.UTF_8);
+                CRC32 crc = new CRC32();
+                crc.update(sql.getBytes(StandardCharsets.UTF_8));
+                migrations.add(new Migration(Integer.parseInt(matcher.group(1)),
+                        matcher.group(2).replace('_', ' '), sql, crc.getValue()));
+            }
+            migrations.sort(Comparator.comparingInt(Migration::version));
+
+            for (int i = 1; i < migrations.size(); i++) {
+                if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                    throw new IllegalStateException("Duplicate migration version V" + migrations.get(i).version());
+                }
+            }
+            return migrations;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read migrations from " + LOCATION, e);
+        }
+    }
+
+    private record Migration(int version, String description, String sql, long checksum) {
+    }
+}
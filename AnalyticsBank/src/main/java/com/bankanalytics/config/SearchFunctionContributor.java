@@ -0,0 +1,90 @@
+package com.bankanalytics.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+import static org.hibernate.query.sqm.produce.function.StandardArgumentsValidators.exactly;
+import static org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers.invariant;
+
+/**
+ * Full-text and trigram search functions for JPQL, registered through
+ * {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}:
+ * <ul>
+ *     <li>{@code fts_match(t.id, :query)} - {@code search_vector @@ websearch_to_tsquery(...)} on the table
+ *     of {@code t}, served by the GIN index on the column</li>
+ *     <li>{@code fts_rank(t.id, :query)} - {@code ts_rank_cd} for ordering the matches</li>
+ *     <li>{@code trgm_match(nameNormalized, :name)} - {@code :name <% name_normalized}, pg_trgm word
+ *     similarity above {@code pg_trgm.word_similarity_threshold}, served by the trigram GIN index</li>
+ *     <li>{@code trgm_rank(nameNormalized, :name)} - {@code word_similarity} for ordering the candidates</li>
+ * </ul>
+ * The query is parsed with {@code websearch_to_tsquery}, so user input ("кредит -ипотека",
+ * quoted phrases) never causes a syntax error. The generated {@code search_vector} columns are not
+ * mapped on the entities, so loading an entity never reads them: the fts functions take any column of
+ * the searched row and read {@code search_vector} from the same table alias.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    private static final String CONFIG = "russian";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().register("fts_match",
+                new SearchVectorFunction("fts_match", "(", " @@ websearch_to_tsquery('" + CONFIG + "', ", "))",
+                        types.resolve(StandardBasicTypes.BOOLEAN)));
+        functionContributions.getFunctionRegistry().register("fts_rank",
+                new SearchVectorFunction("fts_rank", "ts_rank_cd(", ", websearch_to_tsquery('" + CONFIG + "', ", "))",
+                        types.resolve(StandardBasicTypes.DOUBLE)));
+        functionContributions.getFunctionRegistry().registerPattern("trgm_match",
+                "(?2 <% ?1)", types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern("trgm_rank",
+                "word_similarity(?2, ?1)", types.resolve(StandardBasicTypes.DOUBLE));
+    }
+
+    /**
+     * Renders {@code <prefix>alias.search_vector<infix>?2<suffix>}, where {@code alias} is the table
+     * alias of the column passed as the first argument.
+     */
+    private static class SearchVectorFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+
+        private final String prefix;
+        private final String infix;
+        private final String suffix;
+
+        SearchVectorFunction(String name, String prefix, String infix, String suffix, BasicType<?> returnType) {
+            super(name, exactly(2), invariant(returnType), null);
+            this.prefix = prefix;
+            this.infix = infix;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> sqlAstArguments,
+                           SqlAstTranslator<?> walker) {
+            ColumnReference row = ((Expression) sqlAstArguments.get(0)).getColumnReference();
+            if (row == null) {
+                throw new IllegalArgumentException(getName() + " expects a column of the searched entity, e.g. t.id");
+            }
+            sqlAppender.appendSql(prefix);
+            if (row.getQualifier() != null) {
+                sqlAppender.appendSql(row.getQualifier());
+                sqlAppender.appendSql('.');
+            }
+            sqlAppender.appendSql("search_vector");
+            sqlAppender.appendSql(infix);
+            sqlAstArguments.get(1).accept(walker);
+            sqlAppender.appendSql(suffix);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.bankanalytics.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes hits, misses, puts and the hit ratio of every Hibernate second-level cache region
+ * ({@code /actuator/metrics/hibernate.cache.hit.ratio?tag=region:users}).
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            if (statistics.getCacheRegionStatistics(region) == null) {
+                continue;
+            }
+            // Статистика региона берётся при каждом чтении: Statistics.clear() заменяет её новой,
+            // и метрика, привязанная к прежнему объекту, застыла бы
+            FunctionCounter.builder("hibernate.cache.requests", statistics,
+                            s -> count(s, region, CacheRegionStatistics::getHitCount))
+                    .tags("region", region, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.cache.requests", statistics,
+                            s -> count(s, region, CacheRegionStatistics::getMissCount))
+                    .tags("region", region, "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.cache.puts", statistics,
+                            s -> count(s, region, CacheRegionStatistics::getPutCount))
+                    .tags("region", region)
+                    .register(registry);
+            Gauge.builder("hibernate.cache.hit.ratio", statistics, s -> hitRatio(s.getCacheRegionStatistics(region)))
+                    .tags("region", region)
+                    .register(registry);
+        }
+    }
+
+    private static double count(Statistics statistics, String region, ToLongFunction<CacheRegionStatistics> counter) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? 0 : counter.applyAsLong(regionStatistics);
+    }
+
+    private static double hitRatio(CacheRegionStatistics statistics) {
+        if (statistics == null) {
+            return Double.NaN;
+        }
+        long hits = statistics.getHitCount();
+        long requests = hits + statistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) hits / requests;
+    }
+}
@@ -0,0 +1,57 @@
+package com.bankanalytics.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Сдвигает pooled-последовательности id за значения, выданные прежними IDENTITY-колонками,
+ * чтобы существующие базы продолжали работать после перехода. Выполняется раньше
+ * {@link DataInitializer} и любых других записей при старте.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class SequenceInitializer implements CommandLineRunner {
+
+    // Должно совпадать с allocationSize в @SequenceGenerator сущностей
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "divisions", "divisions_seq",
+            "users", "users_seq",
+            "goals", "goals_seq",
+            "tasks", "tasks_seq",
+            "reports", "reports_seq",
+            "task_reports", "task_reports_seq",
+            "imported_files", "imported_files_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        SEQUENCES.forEach(this::alignSequence);
+    }
+
+    private void alignSequence(String table, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+        if (maxId == null || lastValue == null || maxId == 0) {
+            return;
+        }
+        // Pooled-оптимизатор выдаёт id из диапазона (nextval - allocationSize, nextval]
+        long required = maxId + ALLOCATION_SIZE;
+        if (lastValue < required) {
+            jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', ?)", Long.class, required);
+            log.info("Sequence {} moved to {} (max id in {} is {})", sequence, required, table, maxId);
+        }
+    }
+}
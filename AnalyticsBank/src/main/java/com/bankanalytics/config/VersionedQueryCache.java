@@ -0,0 +1,116 @@
+package com.bankanalytics.config;
+
+import com.bankanalytics.service.TableVersions;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Query results stamped with the {@link TableVersions} counters of the tables they were read from.
+ * An entry is a hit only while none of those tables has changed and its time to live has not run out;
+ * the least recently used entries are dropped once the cache holds {@code maxEntries}.
+ * <p>
+ * Entries are stored only by {@link #get(Object, Callable)}, which takes the stamp before the query
+ * runs, so the cached methods use {@code @Cacheable(sync = true)}.
+ */
+class VersionedQueryCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final String[] tables;
+    private final TableVersions tableVersions;
+    private final long ttlNanos;
+    private final Map<Object, Entry> entries;
+
+    VersionedQueryCache(String name, String[] tables, TableVersions tableVersions, int maxEntries, Duration ttl) {
+        super(true);
+        this.name = name;
+        this.tables = tables;
+        this.tableVersions = tableVersions;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return entries;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        // Транзакция, которая уже писала в эти таблицы, должна видеть свои изменения
+        if (tableVersions.writtenInCurrentTransaction(tables)) {
+            return null;
+        }
+        long[] stamp = tableVersions.current(tables);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (!Arrays.equals(entry.stamp(), stamp) || System.nanoTime() - entry.storedAt() > ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        long[] stamp = tableVersions.current(tables);
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (!tableVersions.writtenInCurrentTransaction(tables)) {
+            synchronized (entries) {
+                entries.put(key, new Entry(toStoreValue(value), stamp, System.nanoTime()));
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        // Без отметки, снятой до запроса, нельзя доказать, что значение не устарело: не кэшируем
+    }
+
+    @Override
+    public void evict(Object key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private record Entry(Object value, long[] stamp, long storedAt) {
+    }
+}
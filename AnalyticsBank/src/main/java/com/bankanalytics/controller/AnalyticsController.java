@@ -0,0 +1,33 @@
+package com.bankanalytics.controller;
+
+import com.bankanalytics.dto.DashboardDto;
+import com.bankanalytics.service.AnalyticsService;
+import com.bankanalytics.service.RollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+    
+    private final AnalyticsService analyticsService;
+    private final RollupService rollupService;
+    
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardDto> getDashboard() {
+        log.info("GET /analytics/dashboard - Fetching dashboard");
+        return ResponseEntity.ok(analyticsService.getDashboard());
+    }
+    
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Void> rebuildRollups() {
+        log.info("POST /analytics/rollups/rebuild - Rebuilding rollups");
+        rollupService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.bankanalytics.controller;
+
+import com.bankanalytics.dto.LoginRequest;
+import com.bankanalytics.dto.LoginResponse;
+import com.bankanalytics.service.AuthService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/auth")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class AuthController {
+
+    private final AuthService authService;
+
+    @PostMapping("/login")
+    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request) {
+        log.info("POST /auth/login - Login attempt for {}", request.getEmail());
+        try {
+            return ResponseEntity.ok(authService.login(request.getEmail(), request.getPassword()));
+        } catch (AuthenticationException e) {
+            log.warn("Login failed for {}: {}", request.getEmail(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bankanalytics.controller;
+
+import com.bankanalytics.dto.ResourceVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET: the validator is read first, and when it matches {@code If-None-Match} or
+ * {@code If-Modified-Since} the response is a bodyless 304 and the data is neither read nor serialized.
+ * Responses carry {@code Cache-Control: no-cache, private}, so the browser keeps them and revalidates
+ * on every dashboard refresh instead of dropping them as Spring Security's default {@code no-store} would.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> ifModified(WebRequest request, ResourceVersion version,
+                                            Supplier<ResponseEntity<T>> response) {
+        long lastModified = version.lastModified() != null ? version.lastModified().toEpochMilli() : -1;
+        if (request.checkNotModified(version.etag(), lastModified)) {
+            // Статус 304 и заголовки уже выставлены
+            return null;
+        }
+        // Валидатор прочитан до данных: если они успели измениться, клиент получит новое тело
+        // со старым ETag и просто перезапросит его при следующем опросе
+        ResponseEntity<T> entity = response.get();
+        return ResponseEntity.status(entity.getStatusCode())
+                .headers(entity.getHeaders())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(entity.getBody());
+    }
+
+    /**
+     * For single-row endpoints: without a row there is nothing to validate and the request goes on to its 404.
+     */
+    static <T> ResponseEntity<T> ifModified(WebRequest request, Optional<ResourceVersion> version,
+                                            Supplier<ResponseEntity<T>> response) {
+        if (version.isEmpty()) {
+            return response.get();
+        }
+        return ifModified(request, version.get(), response);
+    }
+}
@@ -1,13 +1,17 @@
 package com.bankanalytics.controller;
 
 import com.bankanalytics.dto.DivisionDto;
+import com.bankanalytics.dto.DivisionSummaryDto;
+import com.bankanalytics.dto.ResourceVersion;
 import com.bankanalytics.service.DivisionService;
+import com.bankanalytics.service.TableVersions;
 import com.bankanalytics.entity.Division;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -21,23 +25,27 @@ import java.util.stream.Collectors;
 public class DivisionController {
     
     private final DivisionService divisionService;
+    private final SerializedResponseCache responseCache;
     
     @GetMapping
-    public ResponseEntity<List<DivisionDto>> getAllDivisions() {
+    public ResponseEntity<byte[]> getAllDivisions(WebRequest request) {
         log.info("GET /divisions - Fetching all divisions");
-        List<Division> divisions = divisionService.getAllDivisions();
-        List<DivisionDto> result = divisions.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        ResourceVersion version = divisionService.getAllDivisionsVersion();
+        return ConditionalResponses.ifModified(request, version,
+                () -> responseCache.ok(request, "/divisions", version,
+                        () -> divisionService.getAllDivisions().stream()
+                                .map(this::toDto)
+                                .collect(Collectors.toList()),
+                        TableVersions.DIVISIONS));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<DivisionDto> getDivisionById(@PathVariable Long id) {
+    public ResponseEntity<DivisionDto> getDivisionById(@PathVariable Long id, WebRequest request) {
         log.info("GET /divisions/{} - Fetching division by id", id);
-        return divisionService.getDivisionById(id)
-                .map(division -> ResponseEntity.ok(toDto(division)))
-                .orElse(ResponseEntity.notFound().build());
+        return ConditionalResponses.ifModified(request, divisionService.getDivisionVersion(id),
+                () -> divisionService.getDivisionById(id)
+                        .map(division -> ResponseEntity.ok(toDto(division)))
+                        .orElse(ResponseEntity.notFound().build()));
     }
     
     @GetMapping("/search")
@@ -50,6 +58,28 @@ public class DivisionController {
         return ResponseEntity.ok(result);
     }
     
+    @GetMapping("/lookup")
+    public ResponseEntity<DivisionDto> getDivisionByName(@RequestParam String name) {
+        log.info("GET /divisions/lookup?name={} - Fetching division by exact name", name);
+        return divisionService.getDivisionByName(name)
+                .map(division -> ResponseEntity.ok(toDto(division)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/summary")
+    public ResponseEntity<List<DivisionSummaryDto>> getAllDivisionSummaries() {
+        log.info("GET /divisions/summary - Fetching summaries of all divisions");
+        return ResponseEntity.ok(divisionService.getAllDivisionSummaries());
+    }
+    
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<DivisionSummaryDto> getDivisionSummary(@PathVariable Long id) {
+        log.info("GET /divisions/{}/summary - Fetching division summary", id);
+        return divisionService.getDivisionSummary(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/{id}/users/count")
     public ResponseEntity<Long> getUserCountByDivision(@PathVariable Long id) {
         log.info("GET /divisions/{}/users/count - Getting user count", id);
@@ -74,8 +104,13 @@ public class DivisionController {
     @PostMapping
     public ResponseEntity<DivisionDto> createDivision(@Valid @RequestBody Division division) {
         log.info("POST /divisions - Creating new division: {}", division.getName());
-        Division createdDivision = divisionService.createDivision(division);
-        return ResponseEntity.status(HttpStatus.CREATED).body(toDto(createdDivision));
+        try {
+            Division createdDivision = divisionService.createDivision(division);
+            return ResponseEntity.status(HttpStatus.CREATED).body(toDto(createdDivision));
+        } catch (IllegalArgumentException e) {
+            log.error("Error creating division: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @PutMapping("/{id}")
@@ -85,6 +120,9 @@ public class DivisionController {
         try {
             Division updatedDivision = divisionService.updateDivision(id, divisionDetails);
             return ResponseEntity.ok(toDto(updatedDivision));
+        } catch (IllegalArgumentException e) {
+            log.error("Error updating division: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             log.error("Error updating division: {}", e.getMessage());
             return ResponseEntity.notFound().build();
@@ -2,18 +2,21 @@ package com.bankanalytics.controller;
 
 import com.bankanalytics.entity.Goal;
 import com.bankanalytics.dto.GoalDto;
+import com.bankanalytics.dto.GoalSummaryDto;
+import com.bankanalytics.dto.ResourceVersion;
 import com.bankanalytics.service.GoalService;
+import com.bankanalytics.service.TableVersions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/goals")
@@ -23,53 +26,65 @@ import java.util.stream.Collectors;
 public class GoalController {
     
     private final GoalService goalService;
+    private final SerializedResponseCache responseCache;
     
     @GetMapping
-    public ResponseEntity<List<GoalDto>> getAllGoals() {
-        log.info("GET /goals - Fetching all goals");
-        List<Goal> goals = goalService.getAllGoals();
-        List<GoalDto> result = goals.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+    public ResponseEntity<List<GoalDto>> getGoals(
+            @RequestParam(required = false) Long divisionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        log.info("GET /goals - Fetching goals after {} (limit {})", after, limit);
+        return ConditionalResponses.ifModified(request,
+                goalService.findGoalsVersion(divisionId, from, to, after, limit),
+                () -> KeysetResponses.ok(goalService.findGoals(divisionId, from, to, after, limit)));
+    }
+    
+    @GetMapping("/summary")
+    public ResponseEntity<List<GoalSummaryDto>> getGoalSummaries(
+            @RequestParam(required = false) Long divisionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        log.info("GET /goals/summary - Fetching goal summaries after {} (limit {})", after, limit);
+        return ConditionalResponses.ifModified(request,
+                goalService.findGoalsVersion(divisionId, from, to, after, limit),
+                () -> KeysetResponses.ok(goalService.findGoalSummaries(divisionId, from, to, after, limit)));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<GoalDto> getGoalById(@PathVariable Long id) {
+    public ResponseEntity<GoalDto> getGoalById(@PathVariable Long id, WebRequest request) {
         log.info("GET /goals/{} - Fetching goal by id", id);
-        return goalService.getGoalById(id)
-                .map(goal -> ResponseEntity.ok(toDto(goal)))
-                .orElse(ResponseEntity.notFound().build());
+        return ConditionalResponses.ifModified(request, goalService.getGoalVersion(id),
+                () -> goalService.getGoalDto(id)
+                        .map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.notFound().build()));
     }
     
     @GetMapping("/division/{divisionId}")
-    public ResponseEntity<List<GoalDto>> getGoalsByDivision(@PathVariable Long divisionId) {
+    public ResponseEntity<byte[]> getGoalsByDivision(@PathVariable Long divisionId, WebRequest request) {
         log.info("GET /goals/division/{} - Fetching goals by division", divisionId);
-        List<Goal> goals = goalService.getGoalsByDivision(divisionId);
-        List<GoalDto> result = goals.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        ResourceVersion version = goalService.getGoalsByDivisionVersion(divisionId);
+        return ConditionalResponses.ifModified(request, version,
+                () -> responseCache.ok(request, "/goals/division/" + divisionId, version,
+                        () -> goalService.getGoalDtosByDivision(divisionId),
+                        TableVersions.GOALS, TableVersions.DIVISIONS));
     }
     
     @GetMapping("/overdue")
     public ResponseEntity<List<GoalDto>> getOverdueGoals() {
         log.info("GET /goals/overdue - Fetching overdue goals");
-        List<Goal> goals = goalService.getOverdueGoals();
-        List<GoalDto> result = goals.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(goalService.getOverdueGoalDtos());
     }
     
     @GetMapping("/completed")
     public ResponseEntity<List<GoalDto>> getCompletedGoals() {
         log.info("GET /goals/completed - Fetching completed goals");
-        List<Goal> goals = goalService.getCompletedGoals();
-        List<GoalDto> result = goals.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(goalService.getCompletedGoalDtos());
     }
     
     @GetMapping("/date-range")
@@ -77,11 +92,7 @@ public class GoalController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         log.info("GET /goals/date-range - Fetching goals between {} and {}", startDate, endDate);
-        List<Goal> goals = goalService.getGoalsByDateRange(startDate, endDate);
-        List<GoalDto> result = goals.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(goalService.getGoalDtosByDateRange(startDate, endDate));
     }
     
     @GetMapping("/division/{divisionId}/date-range")
@@ -91,21 +102,13 @@ public class GoalController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         log.info("GET /goals/division/{}/date-range - Fetching goals for division between {} and {}", 
                 divisionId, startDate, endDate);
-        List<Goal> goals = goalService.getGoalsByDivisionAndDateRange(divisionId, startDate, endDate);
-        List<GoalDto> result = goals.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(goalService.getGoalDtosByDivisionAndDateRange(divisionId, startDate, endDate));
     }
     
     @GetMapping("/search")
     public ResponseEntity<List<GoalDto>> searchGoals(@RequestParam String keyword) {
         log.info("GET /goals/search?keyword={} - Searching goals", keyword);
-        List<Goal> goals = goalService.searchGoals(keyword);
-        List<GoalDto> result = goals.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(goalService.searchGoalDtos(keyword));
     }
     
     @GetMapping("/division/{divisionId}/count")
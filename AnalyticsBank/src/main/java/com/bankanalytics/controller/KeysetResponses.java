@@ -0,0 +1,26 @@
+package com.bankanalytics.controller;
+
+import com.bankanalytics.dto.KeysetPage;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * List endpoints keep returning a JSON array; the cursor for the next page is sent in the
+ * {@value #NEXT_AFTER_HEADER} header and is absent on the last page.
+ */
+final class KeysetResponses {
+
+    static final String NEXT_AFTER_HEADER = "X-Next-After";
+
+    private KeysetResponses() {
+    }
+
+    static <T> ResponseEntity<List<T>> ok(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextAfter() != null) {
+            response.header(NEXT_AFTER_HEADER, page.getNextAfter().toString());
+        }
+        return response.body(page.getItems());
+    }
+}
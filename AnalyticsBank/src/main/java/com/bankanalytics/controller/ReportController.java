@@ -2,6 +2,7 @@ package com.bankanalytics.controller;
 
 import com.bankanalytics.entity.Report;
 import com.bankanalytics.dto.ReportDto;
+import com.bankanalytics.dto.ReportSummaryDto;
 import com.bankanalytics.service.ReportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,11 +10,11 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/reports")
@@ -25,22 +26,45 @@ public class ReportController {
     private final ReportService reportService;
     
     @GetMapping
-    public ResponseEntity<List<ReportDto>> getAllReports() {
-        List<Report> reports = reportService.getAllReports();
-        return ResponseEntity.ok(reports.stream().map(this::toDto).collect(Collectors.toList()));
+    public ResponseEntity<List<ReportDto>> getReports(
+            @RequestParam(required = false) Long divisionId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return ConditionalResponses.ifModified(request,
+                reportService.findReportsVersion(divisionId, userId, from, to, after, limit),
+                () -> KeysetResponses.ok(reportService.findReports(divisionId, userId, from, to, after, limit)));
+    }
+    
+    @GetMapping("/summary")
+    public ResponseEntity<List<ReportSummaryDto>> getReportSummaries(
+            @RequestParam(required = false) Long divisionId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return ConditionalResponses.ifModified(request,
+                reportService.findReportsVersion(divisionId, userId, from, to, after, limit),
+                () -> KeysetResponses.ok(
+                        reportService.findReportSummaries(divisionId, userId, from, to, after, limit)));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ReportDto> getReportById(@PathVariable Long id) {
-        return reportService.getReportById(id)
-                .map(report -> ResponseEntity.ok(toDto(report)))
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ReportDto> getReportById(@PathVariable Long id, WebRequest request) {
+        return ConditionalResponses.ifModified(request, reportService.getReportVersion(id),
+                () -> reportService.getReportDto(id)
+                        .map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.notFound().build()));
     }
     
     @GetMapping("/division/{divisionId}")
     public ResponseEntity<List<ReportDto>> getReportsByDivision(@PathVariable Long divisionId) {
-        List<Report> reports = reportService.getReportsByDivision(divisionId);
-        return ResponseEntity.ok(reports.stream().map(this::toDto).collect(Collectors.toList()));
+        return ResponseEntity.ok(reportService.getReportDtosByDivision(divisionId));
     }
     
     @PostMapping
@@ -0,0 +1,44 @@
+package com.bankanalytics.controller;
+
+import com.bankanalytics.dto.SearchHitDto;
+import com.bankanalytics.dto.SearchPage;
+import com.bankanalytics.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class SearchController {
+    
+    static final String NEXT_OFFSET_HEADER = "X-Next-Offset";
+    
+    private final SearchService searchService;
+    
+    @GetMapping
+    public ResponseEntity<List<SearchHitDto>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Set<SearchHitDto.Type> types,
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /search?q={} - Searching {} from {} (limit {})", q, types, offset, limit);
+        try {
+            SearchPage page = searchService.search(q, types, offset, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextOffset() != null) {
+                response.header(NEXT_OFFSET_HEADER, page.getNextOffset().toString());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid search request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
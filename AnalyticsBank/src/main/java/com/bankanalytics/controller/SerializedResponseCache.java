@@ -0,0 +1,158 @@
+package com.bankanalytics.controller;
+
+import com.bankanalytics.dto.ResourceVersion;
+import com.bankanalytics.service.TableVersions;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Finished response bodies of hot read endpoints: the JSON bytes and their gzip form, per endpoint and scope.
+ * An entry is served while the {@link TableVersions} counters of its tables and the endpoint's validator are
+ * unchanged, so writes through the services and changes made around them both replace it. A hit is written
+ * out as is by the byte array converter: no entities, no mapping, no Jackson and no compression.
+ */
+@Component
+class SerializedResponseCache {
+
+    // Меньше этого gzip не окупает заголовок и лишний шаг распаковки у клиента
+    private static final int MIN_GZIP_SIZE = 1024;
+    // Тело - готовые байты: конвертер не допишет кодировку сам, а без неё клиенты вправе читать ISO-8859-1
+    private static final MediaType JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8);
+
+    private final TableVersions tableVersions;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    SerializedResponseCache(TableVersions tableVersions, ObjectMapper objectMapper,
+                            @Value("${app.analytics.response-cache-size}") int maxEntries,
+                            @Value("${app.analytics.cache-ttl}") long ttlSeconds) {
+        this.tableVersions = tableVersions;
+        this.objectMapper = objectMapper;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 200 response with the body of {@code key}; {@code body} is called and serialized only on a miss.
+     *
+     * @param version validator of the same data, read before the body
+     * @param tables  tables the body is read from, including joined ones
+     */
+    ResponseEntity<byte[]> ok(WebRequest request, String key, ResourceVersion version, Supplier<?> body,
+                              String... tables) {
+        long[] stamp = tableVersions.current(tables);
+        Entry entry = lookup(key, stamp, version.etag());
+        if (entry == null) {
+            entry = serialize(body.get(), stamp, version.etag());
+            synchronized (entries) {
+                entries.put(key, entry);
+            }
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(JSON_UTF8)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (entry.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(entry.gzip().length)
+                    .body(entry.gzip());
+        }
+        return response.contentLength(entry.json().length).body(entry.json());
+    }
+
+    void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private Entry lookup(String key, long[] stamp, String validator) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (!Arrays.equals(entry.stamp(), stamp) || !entry.validator().equals(validator)
+                    || System.nanoTime() - entry.storedAt() > ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private Entry serialize(Object body, long[] stamp, String validator) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize response body", e);
+        }
+        return new Entry(json, json.length >= MIN_GZIP_SIZE ? gzip(json) : null, stamp, validator, System.nanoTime());
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            // gzip;q=0 - явный отказ
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(parameter.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Entry(byte[] json, byte[] gzip, long[] stamp, String validator, long storedAt) {
+    }
+}
@@ -1,9 +1,10 @@
 package com.bankanalytics.controller;
 
 import com.bankanalytics.entity.Task;
+import com.bankanalytics.dto.ImportJobDto;
 import com.bankanalytics.dto.TaskDto;
-import com.bankanalytics.entity.TaskImportResult;
-import com.bankanalytics.service.TaskImportService;
+import com.bankanalytics.dto.TaskSummaryDto;
+import com.bankanalytics.service.ImportJobService;
 import com.bankanalytics.service.TaskService;
 import com.bankanalytics.mapper.DtoMapper;
 import lombok.RequiredArgsConstructor;
@@ -12,12 +13,15 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/tasks")
@@ -27,65 +31,76 @@ import java.util.stream.Collectors;
 public class TaskController {
     
     private final TaskService taskService;
-    private final TaskImportService taskImportService;
+    private final ImportJobService importJobService;
     private final DtoMapper dtoMapper;
     
     @GetMapping
-    public ResponseEntity<List<TaskDto>> getAllTasks() {
-        log.info("GET /tasks - Fetching all tasks");
-        List<Task> tasks = taskService.getAllTasks();
-        List<TaskDto> result = tasks.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+    public ResponseEntity<List<TaskDto>> getTasks(
+            @RequestParam(required = false) Long divisionId,
+            @RequestParam(required = false) Long goalId,
+            @RequestParam(required = false) Task.TaskStatus status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        log.info("GET /tasks - Fetching tasks after {} (limit {})", after, limit);
+        return ConditionalResponses.ifModified(request,
+                taskService.findTasksVersion(divisionId, goalId, status, userId, from, to, after, limit),
+                () -> KeysetResponses.ok(
+                        taskService.findTasks(divisionId, goalId, status, userId, from, to, after, limit)));
+    }
+    
+    @GetMapping("/summary")
+    public ResponseEntity<List<TaskSummaryDto>> getTaskSummaries(
+            @RequestParam(required = false) Long divisionId,
+            @RequestParam(required = false) Long goalId,
+            @RequestParam(required = false) Task.TaskStatus status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        log.info("GET /tasks/summary - Fetching task summaries after {} (limit {})", after, limit);
+        return ConditionalResponses.ifModified(request,
+                taskService.findTasksVersion(divisionId, goalId, status, userId, from, to, after, limit),
+                () -> KeysetResponses.ok(
+                        taskService.findTaskSummaries(divisionId, goalId, status, userId, from, to, after, limit)));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDto> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<TaskDto> getTaskById(@PathVariable Long id, WebRequest request) {
         log.info("GET /tasks/{} - Fetching task by id", id);
-        return taskService.getTaskById(id)
-                .map(task -> ResponseEntity.ok(dtoMapper.toDto(task)))
-                .orElse(ResponseEntity.notFound().build());
+        return ConditionalResponses.ifModified(request, taskService.getTaskVersion(id),
+                () -> taskService.getTaskDto(id)
+                        .map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.notFound().build()));
     }
     
     @GetMapping("/goal/{goalId}")
     public ResponseEntity<List<TaskDto>> getTasksByGoal(@PathVariable Long goalId) {
         log.info("GET /tasks/goal/{} - Fetching tasks by goal", goalId);
-        List<Task> tasks = taskService.getTasksByGoal(goalId);
-        List<TaskDto> result = tasks.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(taskService.getTaskDtosByGoal(goalId));
     }
     
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<TaskDto>> getTasksByUser(@PathVariable Long userId) {
         log.info("GET /tasks/user/{} - Fetching tasks by user", userId);
-        List<Task> tasks = taskService.getTasksByUser(userId);
-        List<TaskDto> result = tasks.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(taskService.getTaskDtosByUser(userId));
     }
     
     @GetMapping("/status/{status}")
     public ResponseEntity<List<TaskDto>> getTasksByStatus(@PathVariable Task.TaskStatus status) {
         log.info("GET /tasks/status/{} - Fetching tasks by status", status);
-        List<Task> tasks = taskService.getTasksByStatus(status);
-        List<TaskDto> result = tasks.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(taskService.getTaskDtosByStatus(status));
     }
     
     @GetMapping("/overdue")
     public ResponseEntity<List<TaskDto>> getOverdueTasks() {
         log.info("GET /tasks/overdue - Fetching overdue tasks");
-        List<Task> tasks = taskService.getOverdueTasks();
-        List<TaskDto> result = tasks.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(taskService.getOverdueTaskDtos());
     }
     
     @GetMapping("/date-range")
@@ -93,43 +108,27 @@ public class TaskController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         log.info("GET /tasks/date-range - Fetching tasks between {} and {}", startDate, endDate);
-        List<Task> tasks = taskService.getTasksByDateRange(startDate, endDate);
-        List<TaskDto> result = tasks.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(taskService.getTaskDtosByDateRange(startDate, endDate));
     }
     
     @GetMapping("/goal/{goalId}/status/{status}")
     public ResponseEntity<List<TaskDto>> getTasksByGoalAndStatus(@PathVariable Long goalId, 
                                                             @PathVariable Task.TaskStatus status) {
         log.info("GET /tasks/goal/{}/status/{} - Fetching tasks by goal and status", goalId, status);
-        List<Task> tasks = taskService.getTasksByGoalAndStatus(goalId, status);
-        List<TaskDto> result = tasks.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(taskService.getTaskDtosByGoalAndStatus(goalId, status));
     }
     
     @GetMapping("/user/{userId}/status/{status}")
     public ResponseEntity<List<TaskDto>> getTasksByUserAndStatus(@PathVariable Long userId, 
                                                             @PathVariable Task.TaskStatus status) {
         log.info("GET /tasks/user/{}/status/{} - Fetching tasks by user and status", userId, status);
-        List<Task> tasks = taskService.getTasksByUserAndStatus(userId, status);
-        List<TaskDto> result = tasks.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(taskService.getTaskDtosByUserAndStatus(userId, status));
     }
     
     @GetMapping("/search")
     public ResponseEntity<List<TaskDto>> searchTasks(@RequestParam String keyword) {
         log.info("GET /tasks/search?keyword={} - Searching tasks", keyword);
-        List<Task> tasks = taskService.searchTasks(keyword);
-        List<TaskDto> result = tasks.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(taskService.searchTaskDtos(keyword));
     }
     
     @GetMapping("/goal/{goalId}/count")
@@ -159,10 +158,30 @@ public class TaskController {
     }
 
     @PostMapping("/import")
-    public ResponseEntity<TaskImportResult> importTasks(@RequestParam("file") MultipartFile file) {
-        log.info("POST /tasks/import - Importing tasks from Excel: {}", file.getOriginalFilename());
-        TaskImportResult result = taskImportService.importFromExcel(file);
-        return ResponseEntity.ok(result);
+    public ResponseEntity<ImportJobDto> importTasks(@RequestParam("file") MultipartFile file,
+                                                    @RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun) {
+        log.info("POST /tasks/import - Importing tasks from Excel: {} (dryRun={})", file.getOriginalFilename(), dryRun);
+        try {
+            ImportJobDto job = importJobService.submit(file, dryRun);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (MaxUploadSizeExceededException e) {
+            log.warn("Rejecting {}: {} bytes exceeds the import limit", file.getOriginalFilename(), file.getSize());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejecting {}: {}", file.getOriginalFilename(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (IOException e) {
+            log.error("Error storing uploaded file: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobDto> getImportJob(@PathVariable String jobId) {
+        log.info("GET /tasks/import/{} - Fetching import job", jobId);
+        return importJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
     
     @PutMapping("/{id}")
@@ -1,6 +1,9 @@
 package com.bankanalytics.controller;
 
+import com.bankanalytics.dto.KeysetPage;
+import com.bankanalytics.dto.TaskReportDto;
 import com.bankanalytics.entity.TaskReport;
+import com.bankanalytics.mapper.DtoMapper;
 import com.bankanalytics.service.TaskReportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/task-reports")
@@ -20,56 +24,77 @@ import java.util.List;
 public class TaskReportController {
     
     private final TaskReportService taskReportService;
+    private final DtoMapper dtoMapper;
     
     @GetMapping
-    public ResponseEntity<List<TaskReport>> getAllTaskReports() {
-        log.info("GET /task-reports - Fetching all task reports");
-        List<TaskReport> taskReports = taskReportService.getAllTaskReports();
-        return ResponseEntity.ok(taskReports);
+    public ResponseEntity<List<TaskReportDto>> getTaskReports(
+            @RequestParam(required = false) Long taskId,
+            @RequestParam(required = false) Long reportId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /task-reports - Fetching task reports after {} (limit {})", after, limit);
+        KeysetPage<TaskReportDto> page = taskReportService.findTaskReports(taskId, reportId, after, limit)
+                .map(dtoMapper::toDto);
+        return KeysetResponses.ok(page);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<TaskReport> getTaskReportById(@PathVariable Long id) {
+    public ResponseEntity<TaskReportDto> getTaskReportById(@PathVariable Long id) {
         log.info("GET /task-reports/{} - Fetching task report by id", id);
         return taskReportService.getTaskReportById(id)
-                .map(taskReport -> ResponseEntity.ok(taskReport))
+                .map(taskReport -> ResponseEntity.ok(dtoMapper.toDto(taskReport)))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/task/{taskId}")
-    public ResponseEntity<List<TaskReport>> getTaskReportsByTask(@PathVariable Long taskId) {
+    public ResponseEntity<List<TaskReportDto>> getTaskReportsByTask(@PathVariable Long taskId) {
         log.info("GET /task-reports/task/{} - Fetching task reports by task", taskId);
         List<TaskReport> taskReports = taskReportService.getTaskReportsByTask(taskId);
-        return ResponseEntity.ok(taskReports);
+        List<TaskReportDto> result = taskReports.stream()
+                .map(dtoMapper::toDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(result);
     }
     
     @GetMapping("/report/{reportId}")
-    public ResponseEntity<List<TaskReport>> getTaskReportsByReport(@PathVariable Long reportId) {
+    public ResponseEntity<List<TaskReportDto>> getTaskReportsByReport(@PathVariable Long reportId) {
         log.info("GET /task-reports/report/{} - Fetching task reports by report", reportId);
         List<TaskReport> taskReports = taskReportService.getTaskReportsByReport(reportId);
-        return ResponseEntity.ok(taskReports);
+        List<TaskReportDto> result = taskReports.stream()
+                .map(dtoMapper::toDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(result);
     }
     
     @GetMapping("/task/{taskId}/report/{reportId}")
-    public ResponseEntity<List<TaskReport>> getTaskReportsByTaskAndReport(@PathVariable Long taskId, 
+    public ResponseEntity<List<TaskReportDto>> getTaskReportsByTaskAndReport(@PathVariable Long taskId, 
                                                                         @PathVariable Long reportId) {
         log.info("GET /task-reports/task/{}/report/{} - Fetching task reports by task and report", taskId, reportId);
         List<TaskReport> taskReports = taskReportService.getTaskReportsByTaskAndReport(taskId, reportId);
-        return ResponseEntity.ok(taskReports);
+        List<TaskReportDto> result = taskReports.stream()
+                .map(dtoMapper::toDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(result);
     }
     
     @GetMapping("/progress/{minProgress}")
-    public ResponseEntity<List<TaskReport>> getTaskReportsByMinProgress(@PathVariable BigDecimal minProgress) {
+    public ResponseEntity<List<TaskReportDto>> getTaskReportsByMinProgress(@PathVariable BigDecimal minProgress) {
         log.info("GET /task-reports/progress/{} - Fetching task reports with min progress", minProgress);
         List<TaskReport> taskReports = taskReportService.getTaskReportsByMinProgress(minProgress);
-        return ResponseEntity.ok(taskReports);
+        List<TaskReportDto> result = taskReports.stream()
+                .map(dtoMapper::toDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(result);
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<TaskReport>> searchTaskReports(@RequestParam String keyword) {
+    public ResponseEntity<List<TaskReportDto>> searchTaskReports(@RequestParam String keyword) {
         log.info("GET /task-reports/search?keyword={} - Searching task reports", keyword);
         List<TaskReport> taskReports = taskReportService.searchTaskReports(keyword);
-        return ResponseEntity.ok(taskReports);
+        List<TaskReportDto> result = taskReports.stream()
+                .map(dtoMapper::toDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(result);
     }
     
     @GetMapping("/task/{taskId}/count")
@@ -13,10 +13,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/users")
@@ -30,70 +30,63 @@ public class UserController {
     private final DtoMapper dtoMapper;
 
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        log.info("GET /users - Fetching all users");
-        List<User> users = userService.getAllUsers();
-        List<UserDto> result = users.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+    public ResponseEntity<List<UserDto>> getUsers(
+            @RequestParam(required = false) Long divisionId,
+            @RequestParam(required = false) User.UserRole role,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        log.info("GET /users - Fetching users after {} (limit {})", after, limit);
+        return ConditionalResponses.ifModified(request, userService.findUsersVersion(divisionId, role, after, limit),
+                () -> KeysetResponses.ok(userService.findUsers(divisionId, role, after, limit)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long id, WebRequest request) {
         log.info("GET /users/{} - Fetching user by id", id);
-        return userService.getUserById(id)
-                .map(user -> ResponseEntity.ok(dtoMapper.toDto(user)))
-                .orElse(ResponseEntity.notFound().build());
+        return ConditionalResponses.ifModified(request, userService.getUserVersion(id),
+                () -> userService.getUserDto(id)
+                        .map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.notFound().build()));
     }
 
     @GetMapping("/email/{email}")
     public ResponseEntity<UserDto> getUserByEmail(@PathVariable String email) {
         log.info("GET /users/email/{} - Fetching user by email", email);
-        return userService.getUserByEmail(email)
-                .map(user -> ResponseEntity.ok(dtoMapper.toDto(user)))
+        return userService.getUserDtoByEmail(email)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/role/{role}")
     public ResponseEntity<List<UserDto>> getUsersByRole(@PathVariable User.UserRole role) {
         log.info("GET /users/role/{} - Fetching users by role", role);
-        List<User> users = userService.getUsersByRole(role);
-        List<UserDto> result = users.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(userService.getUserDtosByRole(role));
     }
 
     @GetMapping("/division/{divisionId}")
     public ResponseEntity<List<UserDto>> getUsersByDivision(@PathVariable Long divisionId) {
         log.info("GET /users/division/{} - Fetching users by division", divisionId);
-        List<User> users = userService.getUsersByDivision(divisionId);
-        List<UserDto> result = users.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(userService.getUserDtosByDivision(divisionId));
     }
 
     @GetMapping("/division/{divisionId}/role/{role}")
     public ResponseEntity<List<UserDto>> getUsersByDivisionAndRole(@PathVariable Long divisionId,
                                                                 @PathVariable User.UserRole role) {
         log.info("GET /users/division/{}/role/{} - Fetching users by division and role", divisionId, role);
-        List<User> users = userService.getUsersByDivisionAndRole(divisionId, role);
-        List<UserDto> result = users.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(userService.getUserDtosByDivisionAndRole(divisionId, role));
     }
 
     @GetMapping("/search")
     public ResponseEntity<List<UserDto>> searchUsersByName(@RequestParam String name) {
         log.info("GET /users/search?name={} - Searching users by name", name);
-        List<User> users = userService.searchUsersByName(name);
-        List<UserDto> result = users.stream()
-                .map(dtoMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(userService.searchUserDtosByName(name));
+    }
+
+    @GetMapping("/lookup")
+    public ResponseEntity<List<UserDto>> getUsersByName(@RequestParam String name) {
+        log.info("GET /users/lookup?name={} - Fetching users by exact name", name);
+        return ResponseEntity.ok(userService.getUserDtosByName(name));
     }
 
     @GetMapping("/division/{divisionId}/count")
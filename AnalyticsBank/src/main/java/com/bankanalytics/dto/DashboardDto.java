@@ -0,0 +1,23 @@
+package com.bankanalytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Dashboard totals and per-division breakdown. Divisions without goals (or tasks) are not listed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDto {
+    private long totalGoals;
+    private long completedGoals;
+    private long totalTasks;
+    private long completedTasks;
+    private long pendingTasks;
+    private List<DivisionCompletionDto> goalsByDivision;
+    private List<DivisionCompletionDto> tasksByDivision;
+}
@@ -0,0 +1,18 @@
+package com.bankanalytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of goals or tasks of one division and how many of them are completed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DivisionCompletionDto {
+    private Long divisionId;
+    private String divisionName;
+    private Long total;
+    private Long completed;
+}
@@ -0,0 +1,25 @@
+package com.bankanalytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Headcount, goal, task and report counters of one division. Goal and task counters come from
+ * {@code division_rollups}, so a goal is completed at progress 100, as on the dashboard.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DivisionSummaryDto {
+    private Long divisionId;
+    private String divisionName;
+    private Long userCount;
+    private Long goalCount;
+    private Long completedGoals;
+    private Long overdueGoals;
+    private Long taskCount;
+    private Long completedTasks;
+    private Long overdueTasks;
+    private Long reportCount;
+}
@@ -0,0 +1,25 @@
+package com.bankanalytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * List view of a goal: {@link GoalDto} without the description.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoalSummaryDto {
+    private Long id;
+    private String title;
+    private BigDecimal targetValue;
+    private BigDecimal currentValue;
+    private LocalDate deadline;
+    private Integer progress;
+    private Long divisionId;
+    private String divisionName;
+}
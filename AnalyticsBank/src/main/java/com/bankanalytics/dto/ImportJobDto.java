@@ -0,0 +1,33 @@
+package com.bankanalytics.dto;
+
+import com.bankanalytics.entity.TaskImportResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDto {
+    private String jobId;
+    private String fileName;
+    private boolean dryRun;
+    private ImportJobStatus status;
+    private int rowsProcessed;
+    private int successCount;
+    private int errorCount;
+    private double rowsPerSecond;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private TaskImportResult result;
+
+    public enum ImportJobStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,22 @@
+package com.bankanalytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a list ordered by id. {@code nextAfter} is the id to pass as {@code after}
+ * to get the next page, or {@code null} when this is the last page.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private List<T> items;
+    private Long nextAfter;
+
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new KeysetPage<>(items.stream().<R>map(mapper).toList(), nextAfter);
+    }
+}
@@ -0,0 +1,26 @@
+package com.bankanalytics.dto;
+
+import com.bankanalytics.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Access token for the {@code Authorization: Bearer ...} header and the user it was issued to.
+ * After {@code expiresAt} the client has to log in again.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginResponse {
+    private String token;
+    private String tokenType;
+    private Instant expiresAt;
+    private Long userId;
+    private String email;
+    private String fullName;
+    private User.UserRole role;
+    private Long divisionId;
+}
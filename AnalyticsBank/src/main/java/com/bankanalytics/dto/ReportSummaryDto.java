@@ -0,0 +1,23 @@
+package com.bankanalytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * List view of a report: {@link ReportDto} without the content.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportSummaryDto {
+    private Long id;
+    private String title;
+    private LocalDate reportDate;
+    private Long userId;
+    private String userName;
+    private Long divisionId;
+    private String divisionName;
+}
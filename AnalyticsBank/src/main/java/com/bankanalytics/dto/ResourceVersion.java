@@ -0,0 +1,57 @@
+package com.bankanalytics.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Validators of a GET response: a weak ETag over the ids and {@code updated_at} values the response
+ * is built from and, for a single row, its latest {@code updated_at} as Last-Modified. A list has no
+ * Last-Modified ({@code null}): deleting a row does not move the latest {@code updated_at}, so a client
+ * sending only {@code If-Modified-Since} would get a stale 304; the ETag covers the ids and catches it.
+ */
+public record ResourceVersion(String etag, Instant lastModified) {
+
+    public static ResourceVersion of(List<Object[]> rows) {
+        return new ResourceVersion(etag(rows), null);
+    }
+
+    public static ResourceVersion ofRow(List<Object[]> rows) {
+        LocalDateTime latest = null;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                if (value instanceof LocalDateTime time && (latest == null || time.isAfter(latest))) {
+                    latest = time;
+                }
+            }
+        }
+        // updated_at пишется через LocalDateTime.now(), то есть в часовом поясе JVM
+        return new ResourceVersion(etag(rows),
+                latest != null ? latest.atZone(ZoneId.systemDefault()).toInstant() : null);
+    }
+
+    private static String etag(List<Object[]> rows) {
+        MessageDigest digest = sha256();
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            digest.update((byte) '\n');
+        }
+        return "W/\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.bankanalytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One match of {@code GET /search}. {@code headline} is a fragment of the matched text with the
+ * found words wrapped in {@code <b>...</b>}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDto {
+    private Type type;
+    private Long id;
+    private String title;
+    private String headline;
+    private Double rank;
+
+    public enum Type {
+        TASK,
+        GOAL,
+        REPORT,
+        TASK_REPORT
+    }
+}
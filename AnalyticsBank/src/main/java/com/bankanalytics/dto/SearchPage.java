@@ -0,0 +1,16 @@
+package com.bankanalytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of search results ordered by rank. {@code nextOffset} is {@code null} on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class SearchPage {
+    private List<SearchHitDto> items;
+    private Integer nextOffset;
+}
@@ -1,5 +1,6 @@
 package com.bankanalytics.dto;
 
+import com.bankanalytics.entity.Task;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,6 +12,9 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class TaskExcelRowDto {
 
+    //Номер строки в плане (колонка "№")
+    private String rowNumber;
+
     //Наименование блока
     private String divisionName;
 
@@ -29,9 +33,15 @@ public class TaskExcelRowDto {
     //Ожидаемый результат
     private String expectedResult;
 
+    //Целевое значение инициативы
+    private String targetValue;
+
     //Статус исполнения (текстовое значение из Excel)
     private String statusText;
 
+    //Статус исполнения, сопоставленный со статусом задачи
+    private Task.TaskStatus status;
+
     //Прогресс, %
     private Integer progress;
 
@@ -46,4 +56,10 @@ public class TaskExcelRowDto {
 
     //Оценочный эффект на деятельность банка / финансовые показатели
     private String impact;
+
+    //Ключ строки для повторного импорта (№ + блок + инициатива)
+    private String importKey;
+
+    //Хэш содержимого строки, по нему определяются изменённые строки
+    private String importHash;
 }
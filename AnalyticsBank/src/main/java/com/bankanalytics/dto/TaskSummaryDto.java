@@ -0,0 +1,27 @@
+package com.bankanalytics.dto;
+
+import com.bankanalytics.entity.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * List view of a task: {@link TaskDto} without the long text columns.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSummaryDto {
+    private Long id;
+    private String title;
+    private Integer progress;
+    private Task.TaskStatus status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long goalId;
+    private String goalTitle;
+    private Long userId;
+    private String userName;
+}
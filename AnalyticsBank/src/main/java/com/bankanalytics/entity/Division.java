@@ -5,25 +5,37 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "divisions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "divisions")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Division {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "divisions_seq")
+    @SequenceGenerator(name = "divisions_seq", sequenceName = "divisions_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "name", nullable = false, length = 255)
     private String name;
     
+    // Точный поиск и нечёткий (pg_trgm) идут по этой колонке; индексы - в миграции V1__search_indexes.sql
+    @JsonIgnore
+    @Column(name = "name_normalized", insertable = false, updatable = false,
+            columnDefinition = "text GENERATED ALWAYS AS (" + NameNormalizer.SQL + ") STORED")
+    private String nameNormalized;
+    
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "division-blocks")
     @CollectionTable(name = "division_blocks", joinColumns = @JoinColumn(name = "division_id"))
     @Column(name = "block_name")
     private List<String> blocks;
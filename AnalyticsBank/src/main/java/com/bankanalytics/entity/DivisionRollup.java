@@ -0,0 +1,37 @@
+package com.bankanalytics.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed goal and task counters of one division, maintained by {@code RollupService}.
+ */
+@Entity
+@Table(name = "division_rollups")
+@Data
+@NoArgsConstructor
+public class DivisionRollup {
+    
+    @Id
+    @Column(name = "division_id")
+    private Long divisionId;
+    
+    @Column(name = "goal_count", nullable = false)
+    private long goalCount;
+    
+    // Прогресс 100%, как на дашборде
+    @Column(name = "completed_goals", nullable = false)
+    private long completedGoals;
+    
+    @Column(name = "overdue_goals", nullable = false)
+    private long overdueGoals;
+    
+    @Embedded
+    private RollupCounts tasks = new RollupCounts();
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.bankanalytics.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,7 +19,8 @@ import java.util.List;
 public class Goal {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "goals_seq")
+    @SequenceGenerator(name = "goals_seq", sequenceName = "goals_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "title", nullable = false, length = 500)
@@ -39,6 +41,16 @@ public class Goal {
     @Column(name = "progress")
     private Integer progress = 0;
     
+    // Достигнута ли цель; считает база, в загруженной сущности значение не обновляется до перечитывания
+    @JsonIgnore
+    @Column(name = "completed", insertable = false, updatable = false,
+            columnDefinition = "boolean GENERATED ALWAYS AS (coalesce(current_value >= target_value, false)) STORED")
+    private Boolean completed;
+    
+    // Пересчитывается при каждой записи цели; смену даты подхватывает ночной DeadlineRolloverService
+    @Column(name = "overdue", nullable = false, columnDefinition = "boolean not null default false")
+    private boolean overdue;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "division_id", nullable = false)
     private Division division;
@@ -56,10 +68,21 @@ public class Goal {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        overdue = overdueOn(deadline, currentValue, targetValue, LocalDate.now());
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        overdue = overdueOn(deadline, currentValue, targetValue, LocalDate.now());
+    }
+    
+    /**
+     * A goal is overdue once its deadline has passed and the current value is still below the target.
+     */
+    public static boolean overdueOn(LocalDate deadline, BigDecimal currentValue, BigDecimal targetValue,
+                                    LocalDate today) {
+        return deadline != null && deadline.isBefore(today)
+                && currentValue != null && targetValue != null && currentValue.compareTo(targetValue) < 0;
     }
 }
@@ -0,0 +1,27 @@
+package com.bankanalytics.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed task counters of one goal, maintained by {@code RollupService}.
+ */
+@Entity
+@Table(name = "goal_rollups")
+@Data
+@NoArgsConstructor
+public class GoalRollup {
+    
+    @Id
+    @Column(name = "goal_id")
+    private Long goalId;
+    
+    @Embedded
+    private RollupCounts tasks = new RollupCounts();
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,46 @@
+package com.bankanalytics.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "imported_files")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportedFile {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "imported_files_seq")
+    @SequenceGenerator(name = "imported_files_seq", sequenceName = "imported_files_seq", allocationSize = 50)
+    private Long id;
+    
+    // SHA-256 содержимого файла
+    @Column(name = "file_hash", nullable = false, unique = true, length = 64)
+    private String fileHash;
+    
+    @Column(name = "file_name", length = 500)
+    private String fileName;
+    
+    @Column(name = "total_rows", nullable = false)
+    private int totalRows;
+    
+    // Состояние импортированных задач после импорта: файл пропускается, только пока оно прежнее
+    @Column(name = "task_count")
+    private Long taskCount;
+    
+    @Column(name = "tasks_updated_at")
+    private LocalDateTime tasksUpdatedAt;
+    
+    @Column(name = "imported_at", nullable = false)
+    private LocalDateTime importedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        importedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,23 @@
+package com.bankanalytics.entity;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Lower-cased name with runs of whitespace (including the non-breaking spaces Excel leaves behind)
+ * collapsed to one space. {@link #SQL} is the same rule for the generated {@code name_normalized}
+ * columns; the two must stay in sync, or exact lookups miss.
+ */
+public final class NameNormalizer {
+
+    public static final String SQL = "lower(btrim(regexp_replace(name, '[\\s\\u00a0]+', ' ', 'g')))";
+
+    private static final Pattern WHITESPACE = Pattern.compile("[\\s\\u00a0]+");
+
+    private NameNormalizer() {
+    }
+
+    public static String normalize(String name) {
+        return name == null ? "" : WHITESPACE.matcher(name).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+}
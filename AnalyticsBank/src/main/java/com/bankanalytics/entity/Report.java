@@ -17,7 +17,8 @@ import java.util.List;
 public class Report {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reports_seq")
+    @SequenceGenerator(name = "reports_seq", sequenceName = "reports_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "title", nullable = false, length = 500)
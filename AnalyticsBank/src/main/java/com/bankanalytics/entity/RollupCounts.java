@@ -0,0 +1,80 @@
+package com.bankanalytics.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Task counters kept per goal and per division. Used both as the stored row values and as
+ * the delta that is added to them.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+public class RollupCounts {
+    
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+    
+    @Column(name = "not_started_tasks", nullable = false)
+    private long notStartedTasks;
+    
+    @Column(name = "in_progress_tasks", nullable = false)
+    private long inProgressTasks;
+    
+    @Column(name = "completed_tasks", nullable = false)
+    private long completedTasks;
+    
+    @Column(name = "on_hold_tasks", nullable = false)
+    private long onHoldTasks;
+    
+    @Column(name = "cancelled_tasks", nullable = false)
+    private long cancelledTasks;
+    
+    // Срок прошёл, задача не завершена; с течением времени уточняется ночной пересборкой
+    @Column(name = "overdue_tasks", nullable = false)
+    private long overdueTasks;
+    
+    // Сумма прогресса задач: средний прогресс = progressSum / taskCount
+    @Column(name = "progress_sum", nullable = false)
+    private long progressSum;
+    
+    /**
+     * Adds ({@code sign = 1}) or removes ({@code sign = -1}) one task.
+     */
+    public void add(Task.TaskStatus status, Integer progress, LocalDate endDate, LocalDate today, int sign) {
+        taskCount += sign;
+        progressSum += (long) sign * (progress != null ? progress : 0);
+        if (status != null) {
+            switch (status) {
+                case NOT_STARTED -> notStartedTasks += sign;
+                case IN_PROGRESS -> inProgressTasks += sign;
+                case COMPLETED -> completedTasks += sign;
+                case ON_HOLD -> onHoldTasks += sign;
+                case CANCELLED -> cancelledTasks += sign;
+            }
+        }
+        if (Task.overdueOn(status, endDate, today)) {
+            overdueTasks += sign;
+        }
+    }
+    
+    public void add(RollupCounts other, int sign) {
+        taskCount += sign * other.taskCount;
+        notStartedTasks += sign * other.notStartedTasks;
+        inProgressTasks += sign * other.inProgressTasks;
+        completedTasks += sign * other.completedTasks;
+        onHoldTasks += sign * other.onHoldTasks;
+        cancelledTasks += sign * other.cancelledTasks;
+        overdueTasks += sign * other.overdueTasks;
+        progressSum += sign * other.progressSum;
+    }
+    
+    public boolean isZero() {
+        return taskCount == 0 && notStartedTasks == 0 && inProgressTasks == 0 && completedTasks == 0
+                && onHoldTasks == 0 && cancelledTasks == 0 && overdueTasks == 0 && progressSum == 0;
+    }
+}
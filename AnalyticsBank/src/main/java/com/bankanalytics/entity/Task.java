@@ -17,7 +17,8 @@ import java.util.List;
 public class Task {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "title", nullable = false, length = 500)
@@ -48,6 +49,10 @@ public class Task {
     @Column(name = "end_date")
     private LocalDate endDate;
     
+    // Пересчитывается при каждой записи задачи; смену даты подхватывает ночной DeadlineRolloverService
+    @Column(name = "overdue", nullable = false, columnDefinition = "boolean not null default false")
+    private boolean overdue;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "goal_id", nullable = false)
     private Goal goal;
@@ -56,6 +61,13 @@ public class Task {
     @JoinColumn(name = "user_id", nullable = true)
     private User user;
     
+    // Ключ и хэш строки Excel, из которой создана задача; у задач, созданных вручную, пустые
+    @Column(name = "import_key", length = 64, unique = true)
+    private String importKey;
+    
+    @Column(name = "import_hash", length = 64)
+    private String importHash;
+    
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL)
     private List<TaskReport> taskReports;
     
@@ -69,11 +81,20 @@ public class Task {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        overdue = overdueOn(status, endDate, LocalDate.now());
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        overdue = overdueOn(status, endDate, LocalDate.now());
+    }
+    
+    /**
+     * A task is overdue once its end date has passed and it is not completed.
+     */
+    public static boolean overdueOn(TaskStatus status, LocalDate endDate, LocalDate today) {
+        return endDate != null && endDate.isBefore(today) && status != TaskStatus.COMPLETED;
     }
     
     public enum TaskStatus {
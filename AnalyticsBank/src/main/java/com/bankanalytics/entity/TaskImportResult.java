@@ -14,4 +14,25 @@ public class TaskImportResult {
     private int successCount;
     private int errorCount;
     private List<String> errors;
+    // Не мешают импорту строк: например, новое подразделение с названием, похожим на существующее
+    private List<String> warnings = List.of();
+    private int insertedCount;
+    private int updatedCount;
+    private int unchangedCount;
+    private boolean alreadyImported;
+    // Файл не прочитан до конца: не открылся, нет строки заголовков или чтение оборвалось
+    private boolean failed;
+    // В режиме проверки счётчики означают, сколько строк и сущностей было бы добавлено или изменено
+    private boolean dryRun;
+    private int createdDivisionCount;
+    private int createdGoalCount;
+    private long cacheHits;
+    private long cacheMisses;
+
+    public TaskImportResult(int totalRows, int successCount, int errorCount, List<String> errors) {
+        this.totalRows = totalRows;
+        this.successCount = successCount;
+        this.errorCount = errorCount;
+        this.errors = errors;
+    }
 }
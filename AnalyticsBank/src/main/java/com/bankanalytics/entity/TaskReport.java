@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class TaskReport {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_reports_seq")
+    @SequenceGenerator(name = "task_reports_seq", sequenceName = "task_reports_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
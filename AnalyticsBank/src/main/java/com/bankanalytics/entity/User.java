@@ -5,24 +5,39 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "user-emails")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "name", nullable = false, length = 255)
     private String name;
     
+    @JsonIgnore
+    @Column(name = "name_normalized", insertable = false, updatable = false,
+            columnDefinition = "text GENERATED ALWAYS AS (" + NameNormalizer.SQL + ") STORED")
+    private String nameNormalized;
+    
+    // Вход по email идёт через кэш natural id, см. UserNaturalIdRepository
+    @NaturalId(mutable = true)
     @Column(name = "email", nullable = false, unique = true, length = 255)
     private String email;
     
@@ -1,5 +1,6 @@
 package com.bankanalytics.repository;
 
+import com.bankanalytics.dto.DivisionSummaryDto;
 import com.bankanalytics.entity.Division;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -7,19 +8,63 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DivisionRepository extends JpaRepository<Division, Long> {
     
-    @Query("SELECT d FROM Division d WHERE d.name LIKE %:name%")
-    List<Division> findByNameContaining(@Param("name") String name);
+    @Query("SELECT DISTINCT d FROM Division d LEFT JOIN FETCH d.blocks")
+    List<Division> findAllWithBlocks();
     
-    @Query("SELECT COUNT(u) FROM User u WHERE u.division.id = :divisionId")
-    long countUsersByDivisionId(@Param("divisionId") Long divisionId);
+    // Валидатор для findAllWithBlocks: удаление меняет число строк, вставка и правка - max(updated_at)
+    @Query("SELECT COUNT(d), MAX(d.updatedAt) FROM Division d")
+    List<Object[]> findVersion();
     
-    @Query("SELECT COUNT(g) FROM Goal g WHERE g.division.id = :divisionId")
-    long countGoalsByDivisionId(@Param("divisionId") Long divisionId);
+    @Query("SELECT d FROM Division d LEFT JOIN FETCH d.blocks WHERE d.nameNormalized = :name")
+    Optional<Division> findByNormalizedName(@Param("name") String normalizedName);
     
-    @Query("SELECT COUNT(r) FROM Report r WHERE r.division.id = :divisionId")
-    long countReportsByDivisionId(@Param("divisionId") Long divisionId);
+    // Лимит во вложенном запросе: fetch join блоков размножает строки, и LIMIT снаружи резал бы их
+    @Query("SELECT d FROM Division d LEFT JOIN FETCH d.blocks WHERE d.id IN (" +
+           "SELECT s.id FROM Division s WHERE trgm_match(s.nameNormalized, :name) = true " +
+           "ORDER BY trgm_rank(s.nameNormalized, :name) DESC, s.id LIMIT :limit) " +
+           "ORDER BY trgm_rank(d.nameNormalized, :name) DESC, d.id")
+    List<Division> findSimilar(@Param("name") String normalizedName, @Param("limit") int limit);
+    
+    /**
+     * Closest division with an id up to {@code maxId}, named in an import warning when a file creates a
+     * division with a similar name; {@code %} keeps the scan on the trigram index, {@code minSimilarity}
+     * should not be below {@code pg_trgm.similarity_threshold} (0.3).
+     */
+    @Query(value = "SELECT d.id FROM divisions d WHERE d.name_normalized % :name " +
+                   "AND similarity(d.name_normalized, :name) >= :minSimilarity AND d.id <= :maxId " +
+                   "ORDER BY similarity(d.name_normalized, :name) DESC, d.id LIMIT 1",
+           nativeQuery = true)
+    Optional<Long> findMostSimilarId(@Param("name") String normalizedName,
+                                     @Param("minSimilarity") double minSimilarity,
+                                     @Param("maxId") long maxId);
+    
+    /**
+     * Whether any goal, user or report still refers to the division; empty when the division does not exist.
+     * Reads the base tables, not {@code division_rollups}: the guard before a delete must be exact.
+     */
+    @Query("SELECT CASE WHEN EXISTS (SELECT 1 FROM Goal g WHERE g.division.id = d.id) " +
+           "OR EXISTS (SELECT 1 FROM User u WHERE u.division.id = d.id) " +
+           "OR EXISTS (SELECT 1 FROM Report rp WHERE rp.division.id = d.id) THEN true ELSE false END " +
+           "FROM Division d WHERE d.id = :id")
+    Optional<Boolean> findInUseById(@Param("id") Long id);
+    
+    // Счётчики целей и задач - из division_rollups, сотрудники и отчёты - счётом по индексам division_id
+    String SUMMARY_SELECT = "SELECT new com.bankanalytics.dto.DivisionSummaryDto(d.id, d.name, " +
+            "(SELECT COUNT(u) FROM User u WHERE u.division.id = d.id), " +
+            "COALESCE(r.goalCount, 0L), COALESCE(r.completedGoals, 0L), COALESCE(r.overdueGoals, 0L), " +
+            "COALESCE(r.tasks.taskCount, 0L), COALESCE(r.tasks.completedTasks, 0L), " +
+            "COALESCE(r.tasks.overdueTasks, 0L), " +
+            "(SELECT COUNT(rp) FROM Report rp WHERE rp.division.id = d.id)) " +
+            "FROM Division d LEFT JOIN DivisionRollup r ON r.divisionId = d.id ";
+    
+    @Query(SUMMARY_SELECT + "WHERE d.id = :id")
+    Optional<DivisionSummaryDto> findSummaryById(@Param("id") Long id);
+    
+    @Query(SUMMARY_SELECT + "ORDER BY d.id")
+    List<DivisionSummaryDto> findAllSummaries();
 }
@@ -0,0 +1,107 @@
+package com.bankanalytics.repository;
+
+import com.bankanalytics.dto.DivisionCompletionDto;
+import com.bankanalytics.entity.DivisionRollup;
+import com.bankanalytics.entity.RollupCounts;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static com.bankanalytics.repository.GoalRollupRepository.ADD_COUNTS;
+import static com.bankanalytics.repository.GoalRollupRepository.COUNT_COLUMNS;
+import static com.bankanalytics.repository.GoalRollupRepository.COUNT_DELTA;
+import static com.bankanalytics.repository.GoalRollupRepository.SET_COUNTS;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface DivisionRollupRepository extends JpaRepository<DivisionRollup, Long> {
+    
+    String COLUMNS = "division_id, goal_count, completed_goals, overdue_goals, " + COUNT_COLUMNS + ", updated_at";
+    
+    String ADD = "goal_count = r.goal_count + EXCLUDED.goal_count, " +
+            "completed_goals = r.completed_goals + EXCLUDED.completed_goals, " +
+            "overdue_goals = r.overdue_goals + EXCLUDED.overdue_goals, " + ADD_COUNTS;
+    
+    // Цели считаются по таблице goals, задачи - суммой уже посчитанных строк goal_rollups
+    String AGGREGATE_GOALS = "SELECT d.id, COUNT(g.id), " +
+            "COUNT(g.id) FILTER (WHERE g.progress = 100), " +
+            "COUNT(g.id) FILTER (WHERE g.deadline < :today AND g.current_value < g.target_value), " +
+            "COALESCE(SUM(gr.task_count), 0), COALESCE(SUM(gr.not_started_tasks), 0), " +
+            "COALESCE(SUM(gr.in_progress_tasks), 0), COALESCE(SUM(gr.completed_tasks), 0), " +
+            "COALESCE(SUM(gr.on_hold_tasks), 0), COALESCE(SUM(gr.cancelled_tasks), 0), " +
+            "COALESCE(SUM(gr.overdue_tasks), 0), COALESCE(SUM(gr.progress_sum), 0), :now " +
+            "FROM divisions d LEFT JOIN goals g ON g.division_id = d.id " +
+            "LEFT JOIN goal_rollups gr ON gr.goal_id = g.id ";
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "division_rollups"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO division_rollups AS r (" + COLUMNS + ") " +
+                   "VALUES (:divisionId, :goals, :completedGoals, :overdueGoals, " + COUNT_DELTA + ", :now) " +
+                   "ON CONFLICT (division_id) DO UPDATE SET " + ADD,
+           nativeQuery = true)
+    int add(@Param("divisionId") Long divisionId, @Param("goals") long goals,
+            @Param("completedGoals") long completedGoals, @Param("overdueGoals") long overdueGoals,
+            @Param("counts") RollupCounts counts, @Param("now") LocalDateTime now);
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "division_rollups"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO division_rollups AS r (" + COLUMNS + ") " +
+                   "SELECT g.division_id, 0, 0, 0, " + COUNT_DELTA + ", :now FROM goals g WHERE g.id = :goalId " +
+                   "ON CONFLICT (division_id) DO UPDATE SET " + ADD,
+           nativeQuery = true)
+    int addByGoal(@Param("goalId") Long goalId, @Param("counts") RollupCounts counts,
+                  @Param("now") LocalDateTime now);
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "division_rollups"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO division_rollups AS r (" + COLUMNS + ") " +
+                   AGGREGATE_GOALS + "WHERE d.id IN (SELECT division_id FROM goals WHERE id IN (:goalIds)) " +
+                   "GROUP BY d.id " +
+                   "ON CONFLICT (division_id) DO UPDATE SET goal_count = EXCLUDED.goal_count, " +
+                   "completed_goals = EXCLUDED.completed_goals, overdue_goals = EXCLUDED.overdue_goals, " +
+                   SET_COUNTS,
+           nativeQuery = true)
+    int refreshByGoals(@Param("goalIds") Collection<Long> goalIds, @Param("today") LocalDate today,
+                       @Param("now") LocalDateTime now);
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "division_rollups"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO division_rollups (" + COLUMNS + ") " + AGGREGATE_GOALS + "GROUP BY d.id",
+           nativeQuery = true)
+    int insertAll(@Param("today") LocalDate today, @Param("now") LocalDateTime now);
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "division_rollups"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM division_rollups WHERE division_id = :divisionId", nativeQuery = true)
+    int deleteByDivisionId(@Param("divisionId") Long divisionId);
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "division_rollups"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM division_rollups", nativeQuery = true)
+    int deleteAllRows();
+    
+    // Дельты, пришедшие во время пересборки, ждут её окончания и ложатся поверх новых строк
+    @QueryHints({@QueryHint(name = HINT_NATIVE_SPACES, value = "goal_rollups"),
+            @QueryHint(name = HINT_NATIVE_SPACES, value = "division_rollups")})
+    @Modifying
+    @Query(value = "LOCK TABLE goal_rollups, division_rollups IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockTables();
+    
+    @Query("SELECT new com.bankanalytics.dto.DivisionCompletionDto(d.id, d.name, r.goalCount, r.completedGoals) " +
+           "FROM DivisionRollup r JOIN Division d ON d.id = r.divisionId WHERE r.goalCount > 0 ORDER BY d.id")
+    List<DivisionCompletionDto> findGoalCompletion();
+    
+    @Query("SELECT new com.bankanalytics.dto.DivisionCompletionDto(d.id, d.name, r.tasks.taskCount, " +
+           "r.tasks.completedTasks) " +
+           "FROM DivisionRollup r JOIN Division d ON d.id = r.divisionId WHERE r.tasks.taskCount > 0 ORDER BY d.id")
+    List<DivisionCompletionDto> findTaskCompletion();
+}
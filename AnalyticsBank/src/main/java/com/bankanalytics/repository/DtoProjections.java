@@ -0,0 +1,119 @@
+package com.bankanalytics.repository;
+
+import com.bankanalytics.dto.GoalDto;
+import com.bankanalytics.dto.GoalSummaryDto;
+import com.bankanalytics.dto.ReportDto;
+import com.bankanalytics.dto.ReportSummaryDto;
+import com.bankanalytics.dto.TaskDto;
+import com.bankanalytics.dto.TaskSummaryDto;
+import com.bankanalytics.dto.UserDto;
+import com.bankanalytics.entity.Division;
+import com.bankanalytics.entity.Goal;
+import com.bankanalytics.entity.Report;
+import com.bankanalytics.entity.Task;
+import com.bankanalytics.entity.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Criteria versions of the {@code SELECT new ...Dto(...)} queries in the repositories, used by
+ * {@link KeysetPaginator} for the paginated list endpoints. Column order follows the DTO constructors.
+ */
+public final class DtoProjections {
+
+    public static final KeysetPaginator.Projection<Task, TaskDto> TASK =
+            projection(TaskDto.class, TaskDto::getId, (task, cb) -> {
+                Join<Task, Goal> goal = task.join("goal", JoinType.LEFT);
+                Join<Task, User> user = task.join("user", JoinType.LEFT);
+                return new Selection<?>[]{
+                        task.get("id"), task.get("title"), task.get("description"), task.get("expectedResult"),
+                        task.get("actualResult"), task.get("progress"), task.get("impact"), task.get("status"),
+                        task.get("startDate"), task.get("endDate"),
+                        goal.get("id"), goal.get("title"), user.get("id"), user.get("name")};
+            });
+
+    public static final KeysetPaginator.Projection<Task, TaskSummaryDto> TASK_SUMMARY =
+            projection(TaskSummaryDto.class, TaskSummaryDto::getId, (task, cb) -> {
+                Join<Task, Goal> goal = task.join("goal", JoinType.LEFT);
+                Join<Task, User> user = task.join("user", JoinType.LEFT);
+                return new Selection<?>[]{
+                        task.get("id"), task.get("title"), task.get("progress"), task.get("status"),
+                        task.get("startDate"), task.get("endDate"),
+                        goal.get("id"), goal.get("title"), user.get("id"), user.get("name")};
+            });
+
+    public static final KeysetPaginator.Projection<Goal, GoalDto> GOAL =
+            projection(GoalDto.class, GoalDto::getId, (goal, cb) -> {
+                Join<Goal, Division> division = goal.join("division", JoinType.LEFT);
+                return new Selection<?>[]{
+                        goal.get("id"), goal.get("title"), goal.get("description"),
+                        goal.get("targetValue"), goal.get("currentValue"), goal.get("deadline"),
+                        cb.coalesce(goal.<Integer>get("progress"), 0),
+                        division.get("id"), division.get("name")};
+            });
+
+    public static final KeysetPaginator.Projection<Goal, GoalSummaryDto> GOAL_SUMMARY =
+            projection(GoalSummaryDto.class, GoalSummaryDto::getId, (goal, cb) -> {
+                Join<Goal, Division> division = goal.join("division", JoinType.LEFT);
+                return new Selection<?>[]{
+                        goal.get("id"), goal.get("title"),
+                        goal.get("targetValue"), goal.get("currentValue"), goal.get("deadline"),
+                        cb.coalesce(goal.<Integer>get("progress"), 0),
+                        division.get("id"), division.get("name")};
+            });
+
+    public static final KeysetPaginator.Projection<Report, ReportDto> REPORT =
+            projection(ReportDto.class, ReportDto::getId, (report, cb) -> {
+                Join<Report, User> user = report.join("user", JoinType.LEFT);
+                Join<Report, Division> division = report.join("division", JoinType.LEFT);
+                return new Selection<?>[]{
+                        report.get("id"), report.get("title"), report.get("reportDate"), report.get("content"),
+                        user.get("id"), user.get("name"), division.get("id"), division.get("name")};
+            });
+
+    public static final KeysetPaginator.Projection<Report, ReportSummaryDto> REPORT_SUMMARY =
+            projection(ReportSummaryDto.class, ReportSummaryDto::getId, (report, cb) -> {
+                Join<Report, User> user = report.join("user", JoinType.LEFT);
+                Join<Report, Division> division = report.join("division", JoinType.LEFT);
+                return new Selection<?>[]{
+                        report.get("id"), report.get("title"), report.get("reportDate"),
+                        user.get("id"), user.get("name"), division.get("id"), division.get("name")};
+            });
+
+    public static final KeysetPaginator.Projection<User, UserDto> USER =
+            projection(UserDto.class, UserDto::getId, (user, cb) -> {
+                Join<User, Division> division = user.join("division", JoinType.LEFT);
+                return new Selection<?>[]{
+                        user.get("id"), user.get("name"), user.get("email"), user.get("role"),
+                        division.get("id"), division.get("name"), user.get("block")};
+            });
+
+    private DtoProjections() {
+    }
+
+    private static <T, R> KeysetPaginator.Projection<T, R> projection(
+            Class<R> type, Function<R, Long> idOf, BiFunction<Root<T>, CriteriaBuilder, Selection<?>[]> columns) {
+        return new KeysetPaginator.Projection<>() {
+            @Override
+            public Class<R> type() {
+                return type;
+            }
+
+            @Override
+            public Selection<R> select(Root<T> root, CriteriaBuilder cb) {
+                return cb.construct(type, columns.apply(root, cb));
+            }
+
+            @Override
+            public Long idOf(R row) {
+                return idOf.apply(row);
+            }
+        };
+    }
+}
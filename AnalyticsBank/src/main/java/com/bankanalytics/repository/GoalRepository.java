@@ -1,23 +1,36 @@
 package com.bankanalytics.repository;
 
+import com.bankanalytics.dto.GoalDto;
 import com.bankanalytics.entity.Goal;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
 
 @Repository
 public interface GoalRepository extends JpaRepository<Goal, Long> {
     
+    @EntityGraph(attributePaths = "division")
     List<Goal> findByDivisionId(Long divisionId);
     
     List<Goal> findByDeadlineBefore(LocalDate date);
     
+    @EntityGraph(attributePaths = "division")
     List<Goal> findByDeadlineBetween(LocalDate startDate, LocalDate endDate);
     
+    @EntityGraph(attributePaths = "division")
     @Query("SELECT g FROM Goal g WHERE g.division.id = :divisionId AND g.deadline BETWEEN :startDate AND :endDate")
     List<Goal> findByDivisionIdAndDeadlineBetween(@Param("divisionId") Long divisionId,
                                                  @Param("startDate") LocalDate startDate,
@@ -26,12 +39,75 @@ public interface GoalRepository extends JpaRepository<Goal, Long> {
     @Query("SELECT COUNT(g) FROM Goal g WHERE g.division.id = :divisionId")
     long countByDivisionId(@Param("divisionId") Long divisionId);
     
-    @Query("SELECT g FROM Goal g WHERE g.title LIKE %:keyword% OR g.description LIKE %:keyword%")
+    @EntityGraph(attributePaths = "division")
+    @Query("SELECT g FROM Goal g WHERE fts_match(g.id, :keyword) = true " +
+           "ORDER BY fts_rank(g.id, :keyword) DESC, g.id")
     List<Goal> findByKeyword(@Param("keyword") String keyword);
     
-    @Query("SELECT g FROM Goal g WHERE g.currentValue >= g.targetValue")
+    @EntityGraph(attributePaths = "division")
+    // Оба запроса читают только частичные индексы idx_goals_completed и idx_goals_overdue
+    @Query("SELECT g FROM Goal g WHERE g.completed = true ORDER BY g.id")
     List<Goal> findCompletedGoals();
     
-    @Query("SELECT g FROM Goal g WHERE g.deadline < CURRENT_DATE AND g.currentValue < g.targetValue")
+    @EntityGraph(attributePaths = "division")
+    @Query("SELECT g FROM Goal g WHERE g.overdue = true ORDER BY g.id")
     List<Goal> findOverdueGoals();
+    
+    String DTO_SELECT = "SELECT new com.bankanalytics.dto.GoalDto(g.id, g.title, g.description, g.targetValue, " +
+            "g.currentValue, g.deadline, COALESCE(g.progress, 0), d.id, d.name) " +
+            "FROM Goal g LEFT JOIN g.division d ";
+    
+    @Query(DTO_SELECT + "WHERE g.id = :id")
+    Optional<GoalDto> findDtoById(@Param("id") Long id);
+    
+    @Query(DTO_SELECT + "WHERE d.id = :divisionId")
+    List<GoalDto> findDtosByDivisionId(@Param("divisionId") Long divisionId);
+    
+    // Валидатор для findDtosByDivisionId: удаление меняет число целей, правка цели или подразделения - max(updated_at)
+    @Query("SELECT COUNT(g), MAX(g.updatedAt), MAX(d.updatedAt) FROM Goal g JOIN g.division d WHERE d.id = :divisionId")
+    List<Object[]> findVersionByDivisionId(@Param("divisionId") Long divisionId);
+    
+    @Query(DTO_SELECT + "WHERE g.deadline BETWEEN :startDate AND :endDate")
+    List<GoalDto> findDtosByDeadlineBetween(@Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+    
+    @Query(DTO_SELECT + "WHERE d.id = :divisionId AND g.deadline BETWEEN :startDate AND :endDate")
+    List<GoalDto> findDtosByDivisionIdAndDeadlineBetween(@Param("divisionId") Long divisionId,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate);
+    
+    @Query(DTO_SELECT + "WHERE fts_match(g.id, :keyword) = true " +
+           "ORDER BY fts_rank(g.id, :keyword) DESC, g.id")
+    List<GoalDto> findDtosByKeyword(@Param("keyword") String keyword);
+    
+    @Query(DTO_SELECT + "WHERE g.completed = true ORDER BY g.id")
+    List<GoalDto> findCompletedDtos();
+    
+    @Query(DTO_SELECT + "WHERE g.overdue = true ORDER BY g.id")
+    List<GoalDto> findOverdueDtos();
+    
+    // Ночная смена даты, как TaskRepository.markOverdue / clearOverdue
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "goals"))
+    @Modifying
+    @Query(value = "UPDATE goals SET overdue = true " +
+                   "WHERE deadline < :today AND current_value < target_value AND NOT overdue",
+           nativeQuery = true)
+    int markOverdue(@Param("today") LocalDate today);
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "goals"))
+    @Modifying
+    @Query(value = "UPDATE goals SET overdue = false " +
+                   "WHERE overdue AND NOT coalesce(deadline < :today AND current_value < target_value, false)",
+           nativeQuery = true)
+    int clearOverdue(@Param("today") LocalDate today);
+    
+    // Средний прогресс задач (целочисленное деление, как в TaskService) одним запросом для набора целей
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "goals"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE goals g SET progress = s.avg_progress, updated_at = :now " +
+                   "FROM (SELECT t.goal_id, SUM(COALESCE(t.progress, 0)) / COUNT(*) AS avg_progress " +
+                   "      FROM tasks t WHERE t.goal_id IN (:goalIds) GROUP BY t.goal_id) s " +
+                   "WHERE g.id = s.goal_id AND g.progress IS DISTINCT FROM s.avg_progress",
+           nativeQuery = true)
+    int recalculateProgress(@Param("goalIds") Collection<Long> goalIds, @Param("now") LocalDateTime now);
 }
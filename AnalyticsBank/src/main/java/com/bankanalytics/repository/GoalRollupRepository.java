@@ -0,0 +1,96 @@
+package com.bankanalytics.repository;
+
+import com.bankanalytics.entity.GoalRollup;
+import com.bankanalytics.entity.RollupCounts;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+/**
+ * Writes go through native upserts: {@code counter = counter + delta} in a single statement is
+ * atomic per row, so concurrent task changes of the same goal do not lose updates.
+ * <p>
+ * Native writes here and in the other repositories name their table as a query space; without it
+ * Hibernate treats the statement as touching every table and clears the whole second-level cache.
+ */
+@Repository
+public interface GoalRollupRepository extends JpaRepository<GoalRollup, Long> {
+    
+    String COUNT_COLUMNS = "task_count, not_started_tasks, in_progress_tasks, completed_tasks, on_hold_tasks, " +
+            "cancelled_tasks, overdue_tasks, progress_sum";
+    
+    String COUNT_DELTA = ":#{#counts.taskCount}, :#{#counts.notStartedTasks}, :#{#counts.inProgressTasks}, " +
+            ":#{#counts.completedTasks}, :#{#counts.onHoldTasks}, :#{#counts.cancelledTasks}, " +
+            ":#{#counts.overdueTasks}, :#{#counts.progressSum}";
+    
+    // Таблица-цель во всех upsert'ах имеет псевдоним r
+    String ADD_COUNTS = "task_count = r.task_count + EXCLUDED.task_count, " +
+            "not_started_tasks = r.not_started_tasks + EXCLUDED.not_started_tasks, " +
+            "in_progress_tasks = r.in_progress_tasks + EXCLUDED.in_progress_tasks, " +
+            "completed_tasks = r.completed_tasks + EXCLUDED.completed_tasks, " +
+            "on_hold_tasks = r.on_hold_tasks + EXCLUDED.on_hold_tasks, " +
+            "cancelled_tasks = r.cancelled_tasks + EXCLUDED.cancelled_tasks, " +
+            "overdue_tasks = r.overdue_tasks + EXCLUDED.overdue_tasks, " +
+            "progress_sum = r.progress_sum + EXCLUDED.progress_sum, " +
+            "updated_at = EXCLUDED.updated_at";
+    
+    String SET_COUNTS = "task_count = EXCLUDED.task_count, not_started_tasks = EXCLUDED.not_started_tasks, " +
+            "in_progress_tasks = EXCLUDED.in_progress_tasks, completed_tasks = EXCLUDED.completed_tasks, " +
+            "on_hold_tasks = EXCLUDED.on_hold_tasks, cancelled_tasks = EXCLUDED.cancelled_tasks, " +
+            "overdue_tasks = EXCLUDED.overdue_tasks, progress_sum = EXCLUDED.progress_sum, " +
+            "updated_at = EXCLUDED.updated_at";
+    
+    String AGGREGATE_TASKS = "SELECT g.id, COUNT(t.id), " +
+            "COUNT(t.id) FILTER (WHERE t.status = 'NOT_STARTED'), " +
+            "COUNT(t.id) FILTER (WHERE t.status = 'IN_PROGRESS'), " +
+            "COUNT(t.id) FILTER (WHERE t.status = 'COMPLETED'), " +
+            "COUNT(t.id) FILTER (WHERE t.status = 'ON_HOLD'), " +
+            "COUNT(t.id) FILTER (WHERE t.status = 'CANCELLED'), " +
+            "COUNT(t.id) FILTER (WHERE t.end_date < :today AND t.status <> 'COMPLETED'), " +
+            "COALESCE(SUM(t.progress), 0), :now " +
+            "FROM goals g LEFT JOIN tasks t ON t.goal_id = g.id ";
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "goal_rollups"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO goal_rollups AS r (goal_id, " + COUNT_COLUMNS + ", updated_at) " +
+                   "VALUES (:goalId, " + COUNT_DELTA + ", :now) " +
+                   "ON CONFLICT (goal_id) DO UPDATE SET " + ADD_COUNTS,
+           nativeQuery = true)
+    int add(@Param("goalId") Long goalId, @Param("counts") RollupCounts counts, @Param("now") LocalDateTime now);
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "goal_rollups"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO goal_rollups AS r (goal_id, " + COUNT_COLUMNS + ", updated_at) " +
+                   AGGREGATE_TASKS + "WHERE g.id IN (:goalIds) GROUP BY g.id " +
+                   "ON CONFLICT (goal_id) DO UPDATE SET " + SET_COUNTS,
+           nativeQuery = true)
+    int refresh(@Param("goalIds") Collection<Long> goalIds, @Param("today") LocalDate today,
+                @Param("now") LocalDateTime now);
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "goal_rollups"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO goal_rollups (goal_id, " + COUNT_COLUMNS + ", updated_at) " +
+                   AGGREGATE_TASKS + "GROUP BY g.id",
+           nativeQuery = true)
+    int insertAll(@Param("today") LocalDate today, @Param("now") LocalDateTime now);
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "goal_rollups"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM goal_rollups WHERE goal_id = :goalId", nativeQuery = true)
+    int deleteByGoalId(@Param("goalId") Long goalId);
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "goal_rollups"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM goal_rollups", nativeQuery = true)
+    int deleteAllRows();
+}
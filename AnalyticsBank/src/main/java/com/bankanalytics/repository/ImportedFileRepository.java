@@ -0,0 +1,13 @@
+package com.bankanalytics.repository;
+
+import com.bankanalytics.entity.ImportedFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportedFileRepository extends JpaRepository<ImportedFile, Long> {
+    
+    Optional<ImportedFile> findByFileHash(String fileHash);
+}
@@ -0,0 +1,152 @@
+package com.bankanalytics.repository;
+
+import com.bankanalytics.dto.KeysetPage;
+import com.bankanalytics.dto.ResourceVersion;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Keyset (cursor) pagination by primary key: {@code WHERE <filters> AND id > :after ORDER BY id LIMIT n}.
+ * Unlike offset paging the cost of a page does not grow with its position, and no count query is run.
+ */
+@Component
+public class KeysetPaginator {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.pagination.default-limit}")
+    private int defaultLimit;
+
+    @Value("${app.pagination.max-limit}")
+    private int maxLimit;
+
+    /**
+     * @param fetch to-one associations loaded in the same statement, so mapping the page to DTOs
+     *              does not issue one extra select per row
+     */
+    public <T> KeysetPage<T> findAfter(Class<T> type, Specification<T> filter, Long after, Integer limit,
+                                       String... fetch) {
+        int size = pageSize(limit);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        query.select(root);
+        restrict(query, root, cb, filter, after);
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query).setMaxResults(size + 1);
+        if (fetch.length > 0) {
+            EntityGraph<T> graph = entityManager.createEntityGraph(type);
+            graph.addAttributeNodes(fetch);
+            typedQuery.setHint("jakarta.persistence.fetchgraph", graph);
+        }
+        List<T> rows = typedQuery.getResultList();
+        return page(rows, size, row -> (Long) entityManager.getEntityManagerFactory().getPersistenceUnitUtil()
+                .getIdentifier(row));
+    }
+
+    /**
+     * Same page, but selected straight into a DTO: no managed entities, no dirty-checking snapshots,
+     * and only the columns the projection names are read.
+     */
+    public <T, R> KeysetPage<R> findAfter(Class<T> type, Projection<T, R> projection, Specification<T> filter,
+                                          Long after, Integer limit) {
+        int size = pageSize(limit);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(projection.type());
+        Root<T> root = query.from(type);
+        query.select(projection.select(root, cb));
+        restrict(query, root, cb, filter, after);
+
+        List<R> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        return page(rows, size, projection::idOf);
+    }
+
+    /**
+     * Validator of the page {@code findAfter} returns for the same arguments, read without the page itself:
+     * id and {@code updated_at} of each row, plus {@code updated_at} of the {@code joined} associations
+     * whose columns the DTO shows.
+     */
+    public <T> ResourceVersion versionOf(Class<T> type, Specification<T> filter, Long after, Integer limit,
+                                         String... joined) {
+        // Лишняя строка тоже входит: от неё зависит X-Next-After
+        return ResourceVersion.of(versionRows(type, filter, after, pageSize(limit) + 1, joined));
+    }
+
+    /**
+     * Validator of a single row; empty when there is no row with this id.
+     */
+    public <T> Optional<ResourceVersion> versionOf(Class<T> type, Long id, String... joined) {
+        List<Object[]> rows = versionRows(type, (root, query, cb) -> cb.equal(root.get("id"), id), null, 1, joined);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(ResourceVersion.ofRow(rows));
+    }
+
+    private <T> List<Object[]> versionRows(Class<T> type, Specification<T> filter, Long after, int maxRows,
+                                           String... joined) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<T> root = query.from(type);
+        List<Selection<?>> columns = new ArrayList<>(List.of(root.get("id"), root.get("updatedAt")));
+        for (String association : joined) {
+            columns.add(root.join(association, JoinType.LEFT).get("updatedAt"));
+        }
+        query.multiselect(columns);
+        restrict(query, root, cb, filter, after);
+        return entityManager.createQuery(query).setMaxResults(maxRows).getResultList();
+    }
+
+    private int pageSize(Integer limit) {
+        return limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+    }
+
+    private <T> void restrict(CriteriaQuery<?> query, Root<T> root, CriteriaBuilder cb,
+                              Specification<T> filter, Long after) {
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filterPredicate = filter != null ? filter.toPredicate(root, query, cb) : null;
+        if (filterPredicate != null) {
+            predicates.add(filterPredicate);
+        }
+        if (after != null) {
+            predicates.add(cb.greaterThan(root.get("id"), after));
+        }
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("id")));
+    }
+
+    private static <R> KeysetPage<R> page(List<R> rows, int size, Function<R, Long> idOf) {
+        // Одна лишняя строка показывает, есть ли следующая страница
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<R> items = new ArrayList<>(rows.subList(0, size));
+        return new KeysetPage<>(items, idOf.apply(items.get(size - 1)));
+    }
+
+    /**
+     * Constructor expression over the root entity; see {@link DtoProjections}.
+     */
+    public interface Projection<T, R> {
+
+        Class<R> type();
+
+        Selection<R> select(Root<T> root, CriteriaBuilder cb);
+
+        Long idOf(R row);
+    }
+}
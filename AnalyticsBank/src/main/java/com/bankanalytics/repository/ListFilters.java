@@ -0,0 +1,83 @@
+package com.bankanalytics.repository;
+
+import com.bankanalytics.entity.Goal;
+import com.bankanalytics.entity.Report;
+import com.bankanalytics.entity.Task;
+import com.bankanalytics.entity.TaskReport;
+import com.bankanalytics.entity.User;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Server-side filters for the paginated list endpoints. Only the filters that are set
+ * become predicates, so each combination gets its own index-friendly query.
+ */
+public final class ListFilters {
+
+    private ListFilters() {
+    }
+
+    public static Specification<Task> tasks(Long divisionId, Long goalId, Task.TaskStatus status, Long userId,
+                                            LocalDate from, LocalDate to) {
+        return Specification.<Task>where(equal(divisionId, "goal", "division", "id"))
+                .and(equal(goalId, "goal", "id"))
+                .and(equal(status, "status"))
+                .and(equal(userId, "user", "id"))
+                .and(dateBetween("endDate", from, to));
+    }
+
+    public static Specification<Goal> goals(Long divisionId, LocalDate from, LocalDate to) {
+        return Specification.<Goal>where(equal(divisionId, "division", "id"))
+                .and(dateBetween("deadline", from, to));
+    }
+
+    public static Specification<Report> reports(Long divisionId, Long userId, LocalDate from, LocalDate to) {
+        return Specification.<Report>where(equal(divisionId, "division", "id"))
+                .and(equal(userId, "user", "id"))
+                .and(dateBetween("reportDate", from, to));
+    }
+
+    public static Specification<User> users(Long divisionId, User.UserRole role) {
+        return Specification.<User>where(equal(divisionId, "division", "id"))
+                .and(equal(role, "role"));
+    }
+
+    public static Specification<TaskReport> taskReports(Long taskId, Long reportId) {
+        return Specification.<TaskReport>where(equal(taskId, "task", "id"))
+                .and(equal(reportId, "report", "id"));
+    }
+
+    private static <T> Specification<T> equal(Object value, String... attributePath) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(path(root, attributePath), value);
+    }
+
+    private static <T> Specification<T> dateBetween(String attribute, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Path<LocalDate> date = root.get(attribute);
+            if (from == null) {
+                return cb.lessThanOrEqualTo(date, to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(date, from);
+            }
+            return cb.between(date, from, to);
+        };
+    }
+
+    private static Path<Object> path(Root<?> root, String... attributePath) {
+        Path<Object> path = root.get(attributePath[0]);
+        for (int i = 1; i < attributePath.length; i++) {
+            path = path.get(attributePath[i]);
+        }
+        return path;
+    }
+}
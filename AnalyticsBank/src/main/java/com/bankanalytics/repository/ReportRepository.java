@@ -1,6 +1,8 @@
 package com.bankanalytics.repository;
 
+import com.bankanalytics.dto.ReportDto;
 import com.bankanalytics.entity.Report;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,22 +10,29 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReportRepository extends JpaRepository<Report, Long> {
     
+    @EntityGraph(attributePaths = {"user", "division"})
     List<Report> findByUserId(Long userId);
     
+    @EntityGraph(attributePaths = {"user", "division"})
     List<Report> findByDivisionId(Long divisionId);
     
+    @EntityGraph(attributePaths = {"user", "division"})
     List<Report> findByReportDate(LocalDate reportDate);
     
+    @EntityGraph(attributePaths = {"user", "division"})
     List<Report> findByReportDateBetween(LocalDate startDate, LocalDate endDate);
     
+    @EntityGraph(attributePaths = {"user", "division"})
     @Query("SELECT r FROM Report r WHERE r.user.id = :userId AND r.division.id = :divisionId")
     List<Report> findByUserIdAndDivisionId(@Param("userId") Long userId, 
                                           @Param("divisionId") Long divisionId);
     
+    @EntityGraph(attributePaths = {"user", "division"})
     @Query("SELECT r FROM Report r WHERE r.division.id = :divisionId AND r.reportDate BETWEEN :startDate AND :endDate")
     List<Report> findByDivisionIdAndReportDateBetween(@Param("divisionId") Long divisionId,
                                                      @Param("startDate") LocalDate startDate,
@@ -35,9 +44,21 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
     @Query("SELECT COUNT(r) FROM Report r WHERE r.division.id = :divisionId")
     long countByDivisionId(@Param("divisionId") Long divisionId);
     
-    @Query("SELECT r FROM Report r WHERE r.title LIKE %:keyword% OR r.content LIKE %:keyword%")
+    @EntityGraph(attributePaths = {"user", "division"})
+    @Query("SELECT r FROM Report r WHERE fts_match(r.id, :keyword) = true " +
+           "ORDER BY fts_rank(r.id, :keyword) DESC, r.id")
     List<Report> findByKeyword(@Param("keyword") String keyword);
     
+    @EntityGraph(attributePaths = {"user", "division"})
     @Query("SELECT r FROM Report r ORDER BY r.reportDate DESC")
     List<Report> findAllOrderByReportDateDesc();
+    
+    String DTO_SELECT = "SELECT new com.bankanalytics.dto.ReportDto(r.id, r.title, r.reportDate, r.content, " +
+            "u.id, u.name, d.id, d.name) FROM Report r LEFT JOIN r.user u LEFT JOIN r.division d ";
+    
+    @Query(DTO_SELECT + "WHERE r.id = :id")
+    Optional<ReportDto> findDtoById(@Param("id") Long id);
+    
+    @Query(DTO_SELECT + "WHERE d.id = :divisionId")
+    List<ReportDto> findDtosByDivisionId(@Param("divisionId") Long divisionId);
 }
@@ -0,0 +1,65 @@
+package com.bankanalytics.repository;
+
+import com.bankanalytics.dto.SearchHitDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Ranked full-text search over the {@code search_vector} columns of tasks, goals, reports and
+ * task reports in one statement. Every branch is an index scan on its GIN index; branches whose
+ * type is not requested are pruned by the planner ({@code 'TASK' IN (...)} is constant).
+ * {@code ts_headline} is the expensive part, so it runs only for the rows of the requested page.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SearchRepository {
+
+    private static final String SEARCH = """
+            WITH q AS (SELECT websearch_to_tsquery('russian', :query) AS query)
+            SELECT h.type, h.id, h.title, h.rank,
+                   ts_headline('russian', COALESCE(h.body, h.title), q.query,
+                               'MaxFragments=1, MinWords=10, MaxWords=30') AS headline
+            FROM (
+                SELECT 'TASK' AS type, t.id, t.title, t.description AS body,
+                       ts_rank_cd(t.search_vector, q.query) AS rank
+                FROM tasks t, q
+                WHERE 'TASK' IN (:types) AND t.search_vector @@ q.query
+                UNION ALL
+                SELECT 'GOAL', g.id, g.title, g.description, ts_rank_cd(g.search_vector, q.query)
+                FROM goals g, q
+                WHERE 'GOAL' IN (:types) AND g.search_vector @@ q.query
+                UNION ALL
+                SELECT 'REPORT', r.id, r.title, r.content, ts_rank_cd(r.search_vector, q.query)
+                FROM reports r, q
+                WHERE 'REPORT' IN (:types) AND r.search_vector @@ q.query
+                UNION ALL
+                SELECT 'TASK_REPORT', tr.id, t.title, tr.notes, ts_rank_cd(tr.search_vector, q.query)
+                FROM task_reports tr JOIN tasks t ON t.id = tr.task_id, q
+                WHERE 'TASK_REPORT' IN (:types) AND tr.search_vector @@ q.query
+                ORDER BY rank DESC, type, id
+                LIMIT :limit OFFSET :offset
+            ) h, q
+            ORDER BY h.rank DESC, h.type, h.id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<SearchHitDto> search(String query, Collection<SearchHitDto.Type> types, int offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("types", types.stream().map(Enum::name).toList())
+                .addValue("offset", offset)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(SEARCH, params, (rs, rowNum) -> new SearchHitDto(
+                SearchHitDto.Type.valueOf(rs.getString("type")),
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("headline"),
+                rs.getDouble("rank")));
+    }
+}
@@ -1,6 +1,7 @@
 package com.bankanalytics.repository;
 
 import com.bankanalytics.entity.TaskReport;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,14 +13,18 @@ import java.util.List;
 @Repository
 public interface TaskReportRepository extends JpaRepository<TaskReport, Long> {
     
+    @EntityGraph(attributePaths = {"task", "report"})
     List<TaskReport> findByTaskId(Long taskId);
     
+    @EntityGraph(attributePaths = {"task", "report"})
     List<TaskReport> findByReportId(Long reportId);
     
+    @EntityGraph(attributePaths = {"task", "report"})
     @Query("SELECT tr FROM TaskReport tr WHERE tr.task.id = :taskId AND tr.report.id = :reportId")
     List<TaskReport> findByTaskIdAndReportId(@Param("taskId") Long taskId, 
                                            @Param("reportId") Long reportId);
     
+    @EntityGraph(attributePaths = {"task", "report"})
     @Query("SELECT tr FROM TaskReport tr WHERE tr.progress >= :minProgress")
     List<TaskReport> findByProgressGreaterThanEqual(@Param("minProgress") BigDecimal minProgress);
     
@@ -32,6 +37,8 @@ public interface TaskReportRepository extends JpaRepository<TaskReport, Long> {
     @Query("SELECT AVG(tr.progress) FROM TaskReport tr WHERE tr.task.id = :taskId")
     BigDecimal getAverageProgressByTaskId(@Param("taskId") Long taskId);
     
-    @Query("SELECT tr FROM TaskReport tr WHERE tr.notes LIKE %:keyword%")
+    @EntityGraph(attributePaths = {"task", "report"})
+    @Query("SELECT tr FROM TaskReport tr WHERE fts_match(tr.id, :keyword) = true " +
+           "ORDER BY fts_rank(tr.id, :keyword) DESC, tr.id")
     List<TaskReport> findByNotesContaining(@Param("keyword") String keyword);
 }
@@ -1,15 +1,24 @@
 package com.bankanalytics.repository;
 
+import com.bankanalytics.dto.TaskDto;
 import com.bankanalytics.entity.Task;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     
@@ -19,20 +28,26 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Override
     Optional<Task> findById(Long id);
     
+    @EntityGraph(attributePaths = {"goal", "user"})
     List<Task> findByGoalId(Long goalId);
     
+    @EntityGraph(attributePaths = {"goal", "user"})
     List<Task> findByUserId(Long userId);
     
+    @EntityGraph(attributePaths = {"goal", "user"})
     List<Task> findByStatus(Task.TaskStatus status);
     
     List<Task> findByEndDateBefore(LocalDate date);
     
+    @EntityGraph(attributePaths = {"goal", "user"})
     List<Task> findByEndDateBetween(LocalDate startDate, LocalDate endDate);
     
+    @EntityGraph(attributePaths = {"goal", "user"})
     @Query("SELECT t FROM Task t WHERE t.goal.id = :goalId AND t.status = :status")
     List<Task> findByGoalIdAndStatus(@Param("goalId") Long goalId, 
                                     @Param("status") Task.TaskStatus status);
     
+    @EntityGraph(attributePaths = {"goal", "user"})
     @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.status = :status")
     List<Task> findByUserIdAndStatus(@Param("userId") Long userId, 
                                     @Param("status") Task.TaskStatus status);
@@ -43,9 +58,92 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT COUNT(t) FROM Task t WHERE t.user.id = :userId")
     long countByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT t FROM Task t WHERE t.title LIKE %:keyword% OR t.description LIKE %:keyword%")
+    @EntityGraph(attributePaths = {"goal", "user"})
+    @Query("SELECT t FROM Task t WHERE fts_match(t.id, :keyword) = true " +
+           "ORDER BY fts_rank(t.id, :keyword) DESC, t.id")
     List<Task> findByKeyword(@Param("keyword") String keyword);
     
-    @Query("SELECT t FROM Task t WHERE t.endDate < CURRENT_DATE AND t.status != 'COMPLETED'")
+    @EntityGraph(attributePaths = {"goal", "user"})
+    // Читает только частичный индекс idx_tasks_overdue
+    @Query("SELECT t FROM Task t WHERE t.overdue = true ORDER BY t.id")
     List<Task> findOverdueTasks();
+    
+    // Чтение сразу в DTO: без управляемых сущностей и снимков для dirty checking
+    String DTO_SELECT = "SELECT new com.bankanalytics.dto.TaskDto(t.id, t.title, t.description, t.expectedResult, " +
+            "t.actualResult, t.progress, t.impact, t.status, t.startDate, t.endDate, g.id, g.title, u.id, u.name) " +
+            "FROM Task t LEFT JOIN t.goal g LEFT JOIN t.user u ";
+    
+    @Query(DTO_SELECT + "WHERE t.id = :id")
+    Optional<TaskDto> findDtoById(@Param("id") Long id);
+    
+    @Query(DTO_SELECT + "WHERE g.id = :goalId")
+    List<TaskDto> findDtosByGoalId(@Param("goalId") Long goalId);
+    
+    @Query(DTO_SELECT + "WHERE u.id = :userId")
+    List<TaskDto> findDtosByUserId(@Param("userId") Long userId);
+    
+    @Query(DTO_SELECT + "WHERE t.status = :status")
+    List<TaskDto> findDtosByStatus(@Param("status") Task.TaskStatus status);
+    
+    @Query(DTO_SELECT + "WHERE t.endDate BETWEEN :startDate AND :endDate")
+    List<TaskDto> findDtosByEndDateBetween(@Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate);
+    
+    @Query(DTO_SELECT + "WHERE g.id = :goalId AND t.status = :status")
+    List<TaskDto> findDtosByGoalIdAndStatus(@Param("goalId") Long goalId,
+                                            @Param("status") Task.TaskStatus status);
+    
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND t.status = :status")
+    List<TaskDto> findDtosByUserIdAndStatus(@Param("userId") Long userId,
+                                            @Param("status") Task.TaskStatus status);
+    
+    // Полнотекстовый поиск с русской морфологией, см. SearchFunctionContributor
+    @Query(DTO_SELECT + "WHERE fts_match(t.id, :keyword) = true " +
+           "ORDER BY fts_rank(t.id, :keyword) DESC, t.id")
+    List<TaskDto> findDtosByKeyword(@Param("keyword") String keyword);
+    
+    @Query(DTO_SELECT + "WHERE t.overdue = true ORDER BY t.id")
+    List<TaskDto> findOverdueDtos();
+    
+    // Ночная смена даты: флаг overdue у задач, срок которых прошёл без записи в них
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tasks"))
+    @Modifying
+    @Query(value = "UPDATE tasks SET overdue = true " +
+                   "WHERE end_date < :today AND status <> 'COMPLETED' AND NOT overdue",
+           nativeQuery = true)
+    int markOverdue(@Param("today") LocalDate today);
+    
+    // Обратное нужно только после правок в обход приложения
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tasks"))
+    @Modifying
+    @Query(value = "UPDATE tasks SET overdue = false " +
+                   "WHERE overdue AND NOT coalesce(end_date < :today AND status <> 'COMPLETED', false)",
+           nativeQuery = true)
+    int clearOverdue(@Param("today") LocalDate today);
+    
+    List<ImportFingerprint> findByImportKeyIn(Collection<String> importKeys);
+    
+    // Удаление импортированной задачи меняет число, вставка и правка - max(updated_at)
+    @Query("SELECT count(t) AS count, max(t.updatedAt) AS lastUpdatedAt FROM Task t WHERE t.importKey IS NOT NULL")
+    ImportedTasksState findImportedTasksState();
+    
+    /**
+     * Key and content hash of a task created by the Excel import.
+     */
+    interface ImportFingerprint {
+        Long getId();
+        
+        String getImportKey();
+        
+        String getImportHash();
+    }
+    
+    /**
+     * Count and latest {@code updated_at} of the imported tasks, compared before an identical file is skipped.
+     */
+    interface ImportedTasksState {
+        long getCount();
+        
+        LocalDateTime getLastUpdatedAt();
+    }
 }
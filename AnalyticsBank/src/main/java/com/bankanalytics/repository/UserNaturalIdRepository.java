@@ -0,0 +1,14 @@
+package com.bankanalytics.repository;
+
+import com.bankanalytics.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Lookups by the {@code email} natural id. They go through the natural-id and entity caches,
+ * so repeated logins of the same user do not reach the database.
+ */
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByEmail(String email);
+}
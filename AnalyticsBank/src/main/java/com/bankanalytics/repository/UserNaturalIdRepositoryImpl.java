@@ -0,0 +1,22 @@
+package com.bankanalytics.repository;
+
+import com.bankanalytics.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Без транзакции unwrap у общего EntityManager вернул бы уже закрытую сессию
+@Transactional(readOnly = true)
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(email);
+    }
+}
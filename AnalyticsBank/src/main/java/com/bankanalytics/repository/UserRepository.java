@@ -1,6 +1,8 @@
 package com.bankanalytics.repository;
 
+import com.bankanalytics.dto.UserDto;
 import com.bankanalytics.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,23 +12,52 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
     
+    @EntityGraph(attributePaths = "division")
     List<User> findByRole(User.UserRole role);
     
+    @EntityGraph(attributePaths = "division")
     List<User> findByDivisionId(Long divisionId);
     
-    @Query("SELECT u FROM User u WHERE u.name LIKE %:name%")
-    List<User> findByNameContaining(@Param("name") String name);
+    @EntityGraph(attributePaths = "division")
+    @Query("SELECT u FROM User u WHERE trgm_match(u.nameNormalized, :name) = true " +
+           "ORDER BY trgm_rank(u.nameNormalized, :name) DESC, u.id LIMIT :limit")
+    List<User> findSimilar(@Param("name") String normalizedName, @Param("limit") int limit);
     
     @Query("SELECT COUNT(u) FROM User u WHERE u.division.id = :divisionId")
     long countByDivisionId(@Param("divisionId") Long divisionId);
     
+    @EntityGraph(attributePaths = "division")
     @Query("SELECT u FROM User u WHERE u.division.id = :divisionId AND u.role = :role")
     List<User> findByDivisionIdAndRole(@Param("divisionId") Long divisionId, 
                                       @Param("role") User.UserRole role);
     
+    String DTO_SELECT = "SELECT new com.bankanalytics.dto.UserDto(u.id, u.name, u.email, u.role, " +
+            "d.id, d.name, u.block) FROM User u LEFT JOIN u.division d ";
+    
+    @Query(DTO_SELECT + "WHERE u.id = :id")
+    Optional<UserDto> findDtoById(@Param("id") Long id);
+    
+    @Query(DTO_SELECT + "WHERE u.email = :email")
+    Optional<UserDto> findDtoByEmail(@Param("email") String email);
+    
+    @Query(DTO_SELECT + "WHERE u.role = :role")
+    List<UserDto> findDtosByRole(@Param("role") User.UserRole role);
+    
+    @Query(DTO_SELECT + "WHERE d.id = :divisionId")
+    List<UserDto> findDtosByDivisionId(@Param("divisionId") Long divisionId);
+    
+    @Query(DTO_SELECT + "WHERE d.id = :divisionId AND u.role = :role")
+    List<UserDto> findDtosByDivisionIdAndRole(@Param("divisionId") Long divisionId,
+                                              @Param("role") User.UserRole role);
+    
+    @Query(DTO_SELECT + "WHERE trgm_match(u.nameNormalized, :name) = true " +
+           "ORDER BY trgm_rank(u.nameNormalized, :name) DESC, u.id LIMIT :limit")
+    List<UserDto> findSimilarDtos(@Param("name") String normalizedName, @Param("limit") int limit);
+    
+    @Query(DTO_SELECT + "WHERE u.nameNormalized = :name ORDER BY u.id")
+    List<UserDto> findDtosByNormalizedName(@Param("name") String normalizedName);
+    
     boolean existsByEmail(String email);
 }
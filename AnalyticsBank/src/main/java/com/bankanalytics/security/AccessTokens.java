@@ -0,0 +1,109 @@
+package com.bankanalytics.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Signed access tokens issued by {@code POST /auth/login}: {@code base64url(userId:expiresAt).base64url(HMAC-SHA256)}.
+ * Checking one needs neither the database nor BCrypt, only the key in {@code app.security.token-secret}.
+ * Without a configured key a random one is generated, so tokens do not survive a restart and are not
+ * accepted by other instances.
+ */
+@Component
+@Slf4j
+public class AccessTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public AccessTokens(@Value("${app.security.token-secret}") String secret,
+                        @Value("${app.security.token-ttl}") Duration ttl) {
+        this(secret, ttl, Clock.systemUTC());
+    }
+
+    AccessTokens(String secret, Duration ttl, Clock clock) {
+        this.key = new SecretKeySpec(keyBytes(secret), ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public Issued issue(Long userId) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        String payload = ENCODER.encodeToString(
+                (userId + ":" + expiresAt.getEpochSecond()).getBytes(StandardCharsets.US_ASCII));
+        return new Issued(payload + "." + ENCODER.encodeToString(sign(payload)), expiresAt);
+    }
+
+    /**
+     * Returns the user id of a token with a valid signature that has not expired yet.
+     */
+    public Optional<Long> verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, dot);
+        try {
+            if (!MessageDigest.isEqual(sign(payload), DECODER.decode(token.substring(dot + 1)))) {
+                return Optional.empty();
+            }
+            String[] parts = new String(DECODER.decode(payload), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 2 || Long.parseLong(parts[1]) <= clock.instant().getEpochSecond()) {
+                return Optional.empty();
+            }
+            return Optional.of(Long.valueOf(parts[0]));
+        } catch (IllegalArgumentException e) {
+            // Не base64 или не число: токен испорчен
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            // Mac не потокобезопасен, экземпляр на каждую подпись
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign access token", e);
+        }
+    }
+
+    private static byte[] keyBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("app.security.token-secret is not set, access tokens are signed with a random key " +
+                    "and become invalid after restart");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] bytes = Base64.getDecoder().decode(secret.trim());
+        if (bytes.length < 32) {
+            throw new IllegalStateException("app.security.token-secret must be at least 32 bytes (base64)");
+        }
+        return bytes;
+    }
+
+    public record Issued(String token, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.bankanalytics.security;
+
+import com.bankanalytics.dto.UserDto;
+import com.bankanalytics.entity.User;
+
+import java.security.Principal;
+
+/**
+ * Principal of a request authenticated with an access token: what the filter and the controllers
+ * need to know about the user without loading the entity.
+ */
+public record AuthenticatedUser(Long id, String email, String name, User.UserRole role, Long divisionId)
+        implements Principal {
+
+    public static AuthenticatedUser of(UserDto user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getName(), user.getRole(),
+                user.getDivisionId());
+    }
+
+    // Только внутри транзакции: подразделение пользователя - ленивая связь
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getName(), user.getRole(),
+                user.getDivision() != null ? user.getDivision().getId() : null);
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
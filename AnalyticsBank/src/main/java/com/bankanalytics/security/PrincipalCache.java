@@ -0,0 +1,80 @@
+package com.bankanalytics.security;
+
+import com.bankanalytics.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Role and division of token holders by user id. A token only proves who the user is; what they may
+ * see is read from here, so the database is queried once per user and {@code app.security.principal-cache-ttl}
+ * rather than on every request. {@code UserService} evicts a user when it is changed or deleted,
+ * the time to live covers changes made around it.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${app.security.principal-cache-size}") int maxEntries,
+                          @Value("${app.security.principal-cache-ttl}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Optional<AuthenticatedUser> get(Long userId) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && System.nanoTime() - entry.loadedAt() <= ttlNanos) {
+                return Optional.of(entry.user());
+            }
+        }
+        // Удалённый пользователь не попадает в кэш, и его токен перестаёт приниматься
+        Optional<AuthenticatedUser> user = userRepository.findDtoById(userId).map(AuthenticatedUser::of);
+        user.ifPresent(this::put);
+        return user;
+    }
+
+    public void put(AuthenticatedUser user) {
+        synchronized (entries) {
+            entries.put(user.id(), new Entry(user, System.nanoTime()));
+        }
+    }
+
+    public void evict(Long userId) {
+        remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Запрос, пришедший до фиксации изменений, мог снова закэшировать старую роль
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    private void remove(Long userId) {
+        synchronized (entries) {
+            entries.remove(userId);
+        }
+    }
+
+    private record Entry(AuthenticatedUser user, long loadedAt) {
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -29,21 +30,28 @@ import java.util.Collections;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AccessTokens accessTokens,
+                                           PrincipalCache principalCache) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/actuator/**").permitAll()
+                .requestMatchers("/auth/login").permitAll()
                 .requestMatchers("/users/**").authenticated()
                 .requestMatchers("/divisions/**").authenticated()
                 .requestMatchers("/goals/**").authenticated()
                 .requestMatchers("/tasks/**").authenticated()
                 .requestMatchers("/reports/**").authenticated()
                 .requestMatchers("/task-reports/**").authenticated()
+                .requestMatchers("/analytics/**").authenticated()
+                .requestMatchers("/search/**").authenticated()
                 .anyRequest().authenticated()
             )
+            // Клиенты ходят с токеном из /auth/login; Basic оставлен для скриптов, но каждый такой запрос - BCrypt
+            .addFilterBefore(new TokenAuthenticationFilter(accessTokens, principalCache),
+                BasicAuthenticationFilter.class)
             .httpBasic(Customizer.withDefaults());
 
         return http.build();
@@ -55,6 +63,8 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // Курсор следующей страницы списков и смещение следующей страницы поиска
+        configuration.setExposedHeaders(Arrays.asList("X-Next-After", "X-Next-Offset"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
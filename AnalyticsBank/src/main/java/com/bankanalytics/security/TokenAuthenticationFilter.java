@@ -0,0 +1,51 @@
+package com.bankanalytics.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <token>}. The token is checked by its
+ * signature and expiry and the role comes from {@link PrincipalCache}, so a request costs no BCrypt
+ * and, while the user is cached, no query. An invalid or expired token leaves the request anonymous
+ * and it gets the usual 401.
+ */
+@RequiredArgsConstructor
+class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final AccessTokens accessTokens;
+    private final PrincipalCache principalCache;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            accessTokens.verify(header.substring(BEARER.length()).trim())
+                    .flatMap(principalCache::get)
+                    .ifPresent(TokenAuthenticationFilter::authenticate);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static void authenticate(AuthenticatedUser user) {
+        UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                user, null, List.of(new SimpleGrantedAuthority("ROLE_" + user.role().name())));
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+    }
+}
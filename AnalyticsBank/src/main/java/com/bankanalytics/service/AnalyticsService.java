@@ -0,0 +1,49 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.dto.DashboardDto;
+import com.bankanalytics.dto.DivisionCompletionDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AnalyticsService {
+    
+    private final RollupService rollupService;
+    
+    /**
+     * Reads the precomputed division rollups, one row per division; every goal has a division and
+     * every task a goal, so the totals are the sums of the division rows.
+     */
+    public DashboardDto getDashboard() {
+        log.debug("Reading dashboard rollups");
+        List<DivisionCompletionDto> goals = rollupService.getGoalCompletionByDivision();
+        List<DivisionCompletionDto> tasks = rollupService.getTaskCompletionByDivision();
+        
+        long totalTasks = sumTotal(tasks);
+        long completedTasks = sumCompleted(tasks);
+        return new DashboardDto(
+            sumTotal(goals),
+            sumCompleted(goals),
+            totalTasks,
+            completedTasks,
+            totalTasks - completedTasks,
+            goals,
+            tasks
+        );
+    }
+    
+    private static long sumTotal(List<DivisionCompletionDto> rows) {
+        return rows.stream().mapToLong(DivisionCompletionDto::getTotal).sum();
+    }
+    
+    private static long sumCompleted(List<DivisionCompletionDto> rows) {
+        return rows.stream().mapToLong(DivisionCompletionDto::getCompleted).sum();
+    }
+}
@@ -0,0 +1,46 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.dto.LoginResponse;
+import com.bankanalytics.entity.User;
+import com.bankanalytics.repository.UserRepository;
+import com.bankanalytics.security.AccessTokens;
+import com.bankanalytics.security.AuthenticatedUser;
+import com.bankanalytics.security.PrincipalCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AuthService {
+    
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final AccessTokens accessTokens;
+    private final PrincipalCache principalCache;
+    
+    /**
+     * Checks the password once and issues an access token; requests with the token skip BCrypt.
+     */
+    public LoginResponse login(String email, String password) {
+        if (email == null || password == null) {
+            throw new BadCredentialsException("Email and password are required");
+        }
+        User user = userRepository.findByEmail(email)
+                .filter(found -> passwordEncoder.matches(password, found.getPasswordHash()))
+                .orElseThrow(() -> new BadCredentialsException("Invalid email or password"));
+        
+        AuthenticatedUser principal = AuthenticatedUser.of(user);
+        principalCache.put(principal);
+        AccessTokens.Issued issued = accessTokens.issue(user.getId());
+        log.info("Issued access token for user {} until {}", user.getId(), issued.expiresAt());
+        
+        return new LoginResponse(issued.token(), "Bearer", issued.expiresAt(), user.getId(), user.getEmail(),
+                user.getName(), user.getRole(), principal.divisionId());
+    }
+}
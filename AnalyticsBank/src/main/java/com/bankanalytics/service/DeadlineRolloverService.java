@@ -0,0 +1,42 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.repository.GoalRepository;
+import com.bankanalytics.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Moves the {@code overdue} flags of tasks and goals to the new date. The flags are set on every
+ * write of the row; this job picks up rows whose deadline passed without one. It runs shortly after
+ * midnight and on startup, in case the application was down at midnight.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class DeadlineRolloverService {
+
+    private final TaskRepository taskRepository;
+    private final GoalRepository goalRepository;
+    private final TableVersions tableVersions;
+
+    @Scheduled(cron = "${app.analytics.deadline-rollover-cron}")
+    @EventListener(ApplicationReadyEvent.class)
+    public void rollOver() {
+        LocalDate today = LocalDate.now();
+        int tasksMarked = taskRepository.markOverdue(today);
+        int tasksCleared = taskRepository.clearOverdue(today);
+        int goalsMarked = goalRepository.markOverdue(today);
+        int goalsCleared = goalRepository.clearOverdue(today);
+        tableVersions.bump(TableVersions.TASKS, TableVersions.GOALS);
+        log.info("Overdue flags rolled over to {}: tasks +{} -{}, goals +{} -{}", today,
+                tasksMarked, tasksCleared, goalsMarked, goalsCleared);
+    }
+}
@@ -1,12 +1,18 @@
 package com.bankanalytics.service;
 
+import com.bankanalytics.dto.DivisionSummaryDto;
+import com.bankanalytics.dto.ResourceVersion;
 import com.bankanalytics.entity.Division;
+import com.bankanalytics.entity.NameNormalizer;
 import com.bankanalytics.repository.DivisionRepository;
+import com.bankanalytics.repository.KeysetPaginator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,10 +23,26 @@ import java.util.Optional;
 public class DivisionService {
     
     private final DivisionRepository divisionRepository;
+    private final RollupService rollupService;
+    private final TableVersions tableVersions;
+    private final KeysetPaginator keysetPaginator;
+    
+    @Value("${app.search.name-limit}")
+    private int nameLimit;
     
     public List<Division> getAllDivisions() {
         log.debug("Fetching all divisions");
-        return divisionRepository.findAll();
+        return divisionRepository.findAllWithBlocks();
+    }
+    
+    @Transactional(readOnly = true)
+    public ResourceVersion getAllDivisionsVersion() {
+        return ResourceVersion.of(divisionRepository.findVersion());
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getDivisionVersion(Long id) {
+        return keysetPaginator.versionOf(Division.class, id);
     }
     
     public Optional<Division> getDivisionById(Long id) {
@@ -30,7 +52,10 @@ public class DivisionService {
     
     public Division createDivision(Division division) {
         log.info("Creating new division: {}", division.getName());
-        return divisionRepository.save(division);
+        checkNameIsFree(division.getName(), null);
+        Division savedDivision = divisionRepository.save(division);
+        tableVersions.bump(TableVersions.DIVISIONS);
+        return savedDivision;
     }
     
     public Division updateDivision(Long id, Division divisionDetails) {
@@ -39,47 +64,78 @@ public class DivisionService {
         Division division = divisionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Division not found with id: " + id));
         
+        checkNameIsFree(divisionDetails.getName(), id);
         division.setName(divisionDetails.getName());
         division.setBlocks(divisionDetails.getBlocks());
+        // Правка одних блоков не делает строку грязной, а по updated_at считается ETag
+        division.setUpdatedAt(LocalDateTime.now());
         
-        return divisionRepository.save(division);
+        Division savedDivision = divisionRepository.save(division);
+        // Название подразделения есть в DTO целей и отчётов
+        tableVersions.bump(TableVersions.DIVISIONS);
+        return savedDivision;
     }
     
     public void deleteDivision(Long id) {
         log.info("Deleting division with id: {}", id);
         
-        if (!divisionRepository.existsById(id)) {
-            throw new RuntimeException("Division not found with id: " + id);
-        }
-
-        long userCount = divisionRepository.countUsersByDivisionId(id);
-        long goalCount = divisionRepository.countGoalsByDivisionId(id);
-        long reportCount = divisionRepository.countReportsByDivisionId(id);
+        boolean inUse = divisionRepository.findInUseById(id)
+                .orElseThrow(() -> new RuntimeException("Division not found with id: " + id));
         
-        if (userCount > 0 || goalCount > 0 || reportCount > 0) {
+        // Сводка из division_rollups догоняет изменения с задержкой, поэтому проверка - по самим таблицам
+        if (inUse) {
             throw new IllegalStateException("Cannot delete division with associated users, goals, or reports");
         }
         
         divisionRepository.deleteById(id);
+        rollupService.divisionRemoved(id);
+        tableVersions.bump(TableVersions.DIVISIONS);
     }
     
+    /**
+     * Trigram similarity search, best matches first; tolerates typos and partial names.
+     */
     public List<Division> searchDivisionsByName(String name) {
         log.debug("Searching divisions by name: {}", name);
-        return divisionRepository.findByNameContaining(name);
+        return divisionRepository.findSimilar(NameNormalizer.normalize(name), nameLimit);
+    }
+    
+    public Optional<Division> getDivisionByName(String name) {
+        log.debug("Fetching division by exact name: {}", name);
+        return divisionRepository.findByNormalizedName(NameNormalizer.normalize(name));
+    }
+    
+    // Имена сравниваются без учёта регистра и пробелов, как в уникальном индексе
+    private void checkNameIsFree(String name, Long id) {
+        divisionRepository.findByNormalizedName(NameNormalizer.normalize(name))
+                .filter(existing -> !existing.getId().equals(id))
+                .ifPresent(existing -> {
+                    throw new IllegalArgumentException("Division already exists: " + existing.getName());
+                });
+    }
+    
+    public Optional<DivisionSummaryDto> getDivisionSummary(Long divisionId) {
+        log.debug("Fetching summary of division: {}", divisionId);
+        return divisionRepository.findSummaryById(divisionId);
+    }
+    
+    public List<DivisionSummaryDto> getAllDivisionSummaries() {
+        log.debug("Fetching summaries of all divisions");
+        return divisionRepository.findAllSummaries();
     }
     
     public long getUserCountByDivision(Long divisionId) {
         log.debug("Getting user count for division: {}", divisionId);
-        return divisionRepository.countUsersByDivisionId(divisionId);
+        return getDivisionSummary(divisionId).map(DivisionSummaryDto::getUserCount).orElse(0L);
     }
     
     public long getGoalCountByDivision(Long divisionId) {
         log.debug("Getting goal count for division: {}", divisionId);
-        return divisionRepository.countGoalsByDivisionId(divisionId);
+        return rollupService.getGoalCountByDivision(divisionId);
     }
     
     public long getReportCountByDivision(Long divisionId) {
         log.debug("Getting report count for division: {}", divisionId);
-        return divisionRepository.countReportsByDivisionId(divisionId);
+        return getDivisionSummary(divisionId).map(DivisionSummaryDto::getReportCount).orElse(0L);
     }
 }
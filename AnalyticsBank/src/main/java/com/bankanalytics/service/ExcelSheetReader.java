@@ -0,0 +1,236 @@
+package com.bankanalytics.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Iterator;
+
+/**
+ * Reads the first sheet of an Excel workbook row by row.
+ * .xlsx files are opened as a random-access zip and parsed with the XSSF event model (SAX),
+ * so heap use does not grow with the number of rows; legacy .xls files fall back to the
+ * workbook model.
+ */
+@Component
+@Slf4j
+public class ExcelSheetReader {
+
+    public static final int COLUMN_COUNT = 14; // A..N
+
+    private static final String HEADER_MARKER = "№";
+    private static final int HEADER_SCAN_ROWS = 20;
+
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * Called for every non-empty row below the header row.
+         *
+         * @param rowIndex 0-based sheet row index
+         * @param cells    cell values of columns A..N, {@code null} for empty cells
+         */
+        void onRow(int rowIndex, String[] cells);
+    }
+
+    /**
+     * @return 0-based index of the header row, or -1 if no header ("№" in column A)
+     * was found within the first rows of the sheet
+     */
+    public int read(File file, RowHandler handler) throws IOException {
+        SheetCursor cursor = new SheetCursor(handler);
+        if (FileMagic.valueOf(file) == FileMagic.OOXML) {
+            readStreaming(file, cursor);
+        } else {
+            readWorkbook(file, cursor);
+        }
+        return cursor.headerRowIndex;
+    }
+
+    private void readStreaming(File file, SheetCursor cursor) throws IOException {
+        OPCPackage pkg = null;
+        try {
+            // Открытие из файла читает zip с произвольным доступом, без копии пакета в памяти
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, strings, new StreamingRowCollector(cursor), new ImportDataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            } catch (StopReading e) {
+                log.debug("Чтение листа остановлено: заголовок не найден в первых {} строках", HEADER_SCAN_ROWS + 1);
+            }
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            if (pkg != null) {
+                pkg.revert();
+            }
+        }
+    }
+
+    private void readWorkbook(File file, SheetCursor cursor) throws IOException {
+        DataFormatter formatter = new ImportDataFormatter();
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            for (int i = 0; i <= sheet.getLastRowNum(); i++) {
+                Row row = sheet.getRow(i);
+                if (row == null) {
+                    continue;
+                }
+                String[] cells = new String[COLUMN_COUNT];
+                for (int c = 0; c < COLUMN_COUNT; c++) {
+                    cells[c] = getCellValue(row.getCell(c), formatter);
+                }
+                if (!cursor.accept(i, cells)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private String getCellValue(Cell cell, DataFormatter formatter) {
+        if (cell == null) {
+            return null;
+        }
+        // У формулы берём сохранённый результат, как и потоковый разбор .xlsx
+        CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+        switch (type) {
+            case STRING:
+                return cell.getStringCellValue();
+            case NUMERIC:
+                CellStyle style = cell.getCellStyle();
+                return formatter.formatRawCellContents(cell.getNumericCellValue(),
+                        style.getDataFormat(), style.getDataFormatString());
+            case BOOLEAN:
+                return cell.getBooleanCellValue() ? "TRUE" : "FALSE";
+            default:
+                return null;
+        }
+    }
+
+    private static int columnIndex(String cellReference) {
+        int column = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char ch = cellReference.charAt(i);
+            if (ch < 'A' || ch > 'Z') {
+                break;
+            }
+            column = column * 26 + (ch - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    /**
+     * Tracks header detection and forwards data rows to the handler.
+     */
+    private static final class SheetCursor {
+        private final RowHandler handler;
+        private int headerRowIndex = -1;
+
+        private SheetCursor(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        /**
+         * @return false when the header was not found and reading should stop
+         */
+        private boolean accept(int rowIndex, String[] cells) {
+            if (headerRowIndex == -1) {
+                if (rowIndex > HEADER_SCAN_ROWS) {
+                    return false;
+                }
+                if (cells[0] != null && cells[0].trim().equals(HEADER_MARKER)) {
+                    headerRowIndex = rowIndex;
+                    log.info("Найдена строка заголовков на позиции: {}", rowIndex + 1);
+                }
+                return true;
+            }
+            handler.onRow(rowIndex, cells);
+            return true;
+        }
+    }
+
+    private static final class StreamingRowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final SheetCursor cursor;
+        private String[] cells;
+        private int column;
+
+        private StreamingRowCollector(SheetCursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new String[COLUMN_COUNT];
+            column = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!cursor.accept(rowNum, cells)) {
+                throw new StopReading();
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            column = cellReference != null ? columnIndex(cellReference) : column + 1;
+            if (column >= 0 && column < COLUMN_COUNT) {
+                cells[column] = formattedValue;
+            }
+        }
+    }
+
+    /**
+     * Renders date cells as ISO dates and other numbers without grouping or exponent,
+     * so both readers hand the same strings to the row mapping.
+     */
+    private static final class ImportDataFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    private static final class StopReading extends RuntimeException {
+        private StopReading() {
+            super(null, null, false, false);
+        }
+    }
+}
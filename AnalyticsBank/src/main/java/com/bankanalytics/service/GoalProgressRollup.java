@@ -0,0 +1,28 @@
+package com.bankanalytics.service;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Collects goals touched by a bulk ingest so that their progress is recalculated
+ * once at the end of the batch instead of after every created task.
+ */
+public class GoalProgressRollup {
+
+    private final Set<Long> goalIds = new LinkedHashSet<>();
+
+    public void touch(Long goalId) {
+        if (goalId != null) {
+            goalIds.add(goalId);
+        }
+    }
+
+    public Set<Long> getGoalIds() {
+        return Collections.unmodifiableSet(goalIds);
+    }
+
+    public boolean isEmpty() {
+        return goalIds.isEmpty();
+    }
+}
@@ -2,8 +2,17 @@ package com.bankanalytics.service;
 
 import com.bankanalytics.entity.Goal;
 import com.bankanalytics.repository.GoalRepository;
+import com.bankanalytics.dto.GoalDto;
+import com.bankanalytics.dto.GoalSummaryDto;
+import com.bankanalytics.dto.KeysetPage;
+import com.bankanalytics.dto.ResourceVersion;
+import com.bankanalytics.repository.DtoProjections;
+import com.bankanalytics.repository.KeysetPaginator;
+import com.bankanalytics.repository.ListFilters;
+import com.bankanalytics.config.QueryCacheConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,12 +27,88 @@ import java.util.Optional;
 public class GoalService {
     
     private final GoalRepository goalRepository;
+    private final KeysetPaginator keysetPaginator;
+    private final RollupService rollupService;
+    private final TableVersions tableVersions;
     
     public List<Goal> getAllGoals() {
         log.debug("Fetching all goals");
         return goalRepository.findAll();
     }
     
+    @Cacheable(cacheNames = QueryCacheConfig.GOAL_QUERIES, sync = true)
+    public KeysetPage<GoalDto> findGoals(Long divisionId, LocalDate from, LocalDate to, Long after, Integer limit) {
+        log.debug("Fetching goals page after {} (limit {})", after, limit);
+        return keysetPaginator.findAfter(Goal.class, DtoProjections.GOAL, ListFilters.goals(divisionId, from, to),
+                after, limit);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.GOAL_QUERIES, sync = true)
+    public KeysetPage<GoalSummaryDto> findGoalSummaries(Long divisionId, LocalDate from, LocalDate to,
+                                                        Long after, Integer limit) {
+        log.debug("Fetching goal summaries page after {} (limit {})", after, limit);
+        return keysetPaginator.findAfter(Goal.class, DtoProjections.GOAL_SUMMARY,
+                ListFilters.goals(divisionId, from, to), after, limit);
+    }
+    
+    @Transactional(readOnly = true)
+    public ResourceVersion findGoalsVersion(Long divisionId, LocalDate from, LocalDate to,
+                                            Long after, Integer limit) {
+        return keysetPaginator.versionOf(Goal.class, ListFilters.goals(divisionId, from, to), after, limit, "division");
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getGoalVersion(Long id) {
+        return keysetPaginator.versionOf(Goal.class, id, "division");
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.GOAL_QUERIES, sync = true)
+    public Optional<GoalDto> getGoalDto(Long id) {
+        log.debug("Fetching goal dto by id: {}", id);
+        return goalRepository.findDtoById(id);
+    }
+    
+    @Transactional(readOnly = true)
+    public ResourceVersion getGoalsByDivisionVersion(Long divisionId) {
+        return ResourceVersion.of(goalRepository.findVersionByDivisionId(divisionId));
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.GOAL_QUERIES, sync = true)
+    public List<GoalDto> getGoalDtosByDivision(Long divisionId) {
+        log.debug("Fetching goal dtos for division: {}", divisionId);
+        return goalRepository.findDtosByDivisionId(divisionId);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.GOAL_QUERIES, sync = true)
+    public List<GoalDto> getOverdueGoalDtos() {
+        log.debug("Fetching overdue goal dtos");
+        return goalRepository.findOverdueDtos();
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.GOAL_QUERIES, sync = true)
+    public List<GoalDto> getCompletedGoalDtos() {
+        log.debug("Fetching completed goal dtos");
+        return goalRepository.findCompletedDtos();
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.GOAL_QUERIES, sync = true)
+    public List<GoalDto> getGoalDtosByDateRange(LocalDate startDate, LocalDate endDate) {
+        log.debug("Fetching goal dtos between {} and {}", startDate, endDate);
+        return goalRepository.findDtosByDeadlineBetween(startDate, endDate);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.GOAL_QUERIES, sync = true)
+    public List<GoalDto> getGoalDtosByDivisionAndDateRange(Long divisionId, LocalDate startDate, LocalDate endDate) {
+        log.debug("Fetching goal dtos for division {} between {} and {}", divisionId, startDate, endDate);
+        return goalRepository.findDtosByDivisionIdAndDeadlineBetween(divisionId, startDate, endDate);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.GOAL_QUERIES, sync = true)
+    public List<GoalDto> searchGoalDtos(String keyword) {
+        log.debug("Searching goal dtos by keyword: {}", keyword);
+        return goalRepository.findDtosByKeyword(keyword);
+    }
+    
     public Optional<Goal> getGoalById(Long id) {
         log.debug("Fetching goal by id: {}", id);
         return goalRepository.findById(id);
@@ -56,7 +141,10 @@ public class GoalService {
             throw new IllegalArgumentException("Goal deadline cannot be in the past");
         }
         
-        return goalRepository.save(goal);
+        Goal savedGoal = goalRepository.save(goal);
+        rollupService.goalAdded(savedGoal);
+        tableVersions.bump(TableVersions.GOALS);
+        return savedGoal;
     }
     
     public Goal updateGoal(Long id, Goal goalDetails) {
@@ -64,6 +152,7 @@ public class GoalService {
         
         Goal goal = goalRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Goal not found with id: " + id));
+        RollupService.GoalState before = RollupService.GoalState.of(goal);
         
         goal.setTitle(goalDetails.getTitle());
         goal.setDescription(goalDetails.getDescription());
@@ -72,17 +161,22 @@ public class GoalService {
         goal.setDeadline(goalDetails.getDeadline());
         goal.setDivision(goalDetails.getDivision());
         
-        return goalRepository.save(goal);
+        Goal savedGoal = goalRepository.save(goal);
+        rollupService.goalChanged(before, savedGoal);
+        tableVersions.bump(TableVersions.GOALS);
+        return savedGoal;
     }
     
     public void deleteGoal(Long id) {
         log.info("Deleting goal with id: {}", id);
         
-        if (!goalRepository.existsById(id)) {
-            throw new RuntimeException("Goal not found with id: " + id);
-        }
+        Goal goal = goalRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Goal not found with id: " + id));
         
-        goalRepository.deleteById(id);
+        rollupService.goalRemoved(goal);
+        goalRepository.delete(goal);
+        // Задачи цели удаляются каскадом
+        tableVersions.bump(TableVersions.GOALS, TableVersions.TASKS);
     }
     
     public List<Goal> searchGoals(String keyword) {
@@ -92,7 +186,7 @@ public class GoalService {
     
     public long getGoalCountByDivision(Long divisionId) {
         log.debug("Getting goal count for division: {}", divisionId);
-        return goalRepository.countByDivisionId(divisionId);
+        return rollupService.getGoalCountByDivision(divisionId);
     }
     
     public List<Goal> getGoalsByDivisionAndDateRange(Long divisionId, LocalDate startDate, LocalDate endDate) {
@@ -0,0 +1,76 @@
+package com.bankanalytics.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * SHA-256 fingerprints used by the incremental import: a stable key per sheet row,
+ * a hash of the row content and a hash of the whole uploaded file.
+ */
+final class ImportFingerprints {
+
+    private static final char SEPARATOR = '\u001F';
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private ImportFingerprints() {
+    }
+
+    /**
+     * Key of a plan row: "№" plus division and initiative, compared case- and whitespace-insensitively.
+     */
+    static String rowKey(String rowNumber, String divisionName, String initiativeName) {
+        return sha256(normalize(rowNumber) + SEPARATOR + normalize(divisionName) + SEPARATOR + normalize(initiativeName));
+    }
+
+    /**
+     * Hash of all cells the import reads, so any edit in the sheet changes it.
+     */
+    static String contentHash(String[] cells) {
+        StringBuilder content = new StringBuilder();
+        for (String cell : cells) {
+            if (cell != null) {
+                content.append(cell);
+            }
+            content.append(SEPARATOR);
+        }
+        return sha256(content.toString());
+    }
+
+    /**
+     * Incremental SHA-256 of a file that is being copied.
+     */
+    static final class Sha256 {
+        private final MessageDigest digest = newDigest();
+
+        void update(byte[] buffer, int length) {
+            digest.update(buffer, 0, length);
+        }
+
+        String hex() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    private static String sha256(String value) {
+        return HexFormat.of().formatHex(newDigest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,109 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.dto.ImportJobDto;
+import com.bankanalytics.dto.ImportJobDto.ImportJobStatus;
+import com.bankanalytics.entity.TaskImportResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * State of a background import. Counters are written by the worker thread
+ * and read by status requests.
+ */
+class ImportJob implements ImportProgressListener {
+
+    private final String id = UUID.randomUUID().toString();
+    private final String fileName;
+    private final boolean dryRun;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile int rowsProcessed;
+    private volatile int successCount;
+    private volatile int errorCount;
+    private volatile TaskImportResult result;
+
+    ImportJob(String fileName, boolean dryRun) {
+        this.fileName = fileName;
+        this.dryRun = dryRun;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getFileName() {
+        return fileName;
+    }
+
+    boolean isDryRun() {
+        return dryRun;
+    }
+
+    LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    void start() {
+        startedNanos = System.nanoTime();
+        startedAt = LocalDateTime.now();
+        status = ImportJobStatus.RUNNING;
+    }
+
+    @Override
+    public void onProgress(int rowsProcessed, int successCount, int errorCount) {
+        this.rowsProcessed = rowsProcessed;
+        this.successCount = successCount;
+        this.errorCount = errorCount;
+    }
+
+    void complete(TaskImportResult result) {
+        onProgress(result.getTotalRows(), result.getSuccessCount(), result.getErrorCount());
+        this.result = result;
+        finish(ImportJobStatus.COMPLETED);
+    }
+
+    void fail(TaskImportResult result) {
+        onProgress(result.getTotalRows(), result.getSuccessCount(), result.getErrorCount());
+        this.result = result;
+        finish(ImportJobStatus.FAILED);
+    }
+
+    private void finish(ImportJobStatus finalStatus) {
+        finishedNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        status = finalStatus;
+    }
+
+    ImportJobDto toDto() {
+        return new ImportJobDto(
+                id,
+                fileName,
+                dryRun,
+                status,
+                rowsProcessed,
+                successCount,
+                errorCount,
+                rowsPerSecond(),
+                submittedAt,
+                startedAt,
+                finishedAt,
+                result
+        );
+    }
+
+    private double rowsPerSecond() {
+        if (startedAt == null) {
+            return 0;
+        }
+        long end = finishedAt != null ? finishedNanos : System.nanoTime();
+        double seconds = Duration.ofNanos(end - startedNanos).toMillis() / 1000.0;
+        return seconds > 0 ? rowsProcessed / seconds : 0;
+    }
+}
@@ -0,0 +1,138 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.dto.ImportJobDto;
+import com.bankanalytics.entity.TaskImportResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs Excel imports on a bounded background pool so that the upload request
+ * returns immediately and progress can be polled by job id.
+ */
+@Service
+@Slf4j
+public class ImportJobService {
+
+    private final TaskImportService taskImportService;
+    private final Duration retention;
+    private final long maxFileSize;
+    private final Semaphore uploadPermits;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(TaskImportService taskImportService,
+                            @Value("${app.import.worker-threads}") int workerThreads,
+                            @Value("${app.import.queue-capacity}") int queueCapacity,
+                            @Value("${app.import.job-retention}") Duration retention,
+                            @Value("${app.import.max-file-size}") DataSize maxFileSize,
+                            @Value("${app.import.max-concurrent-uploads}") int maxConcurrentUploads) {
+        this.taskImportService = taskImportService;
+        this.retention = retention;
+        this.maxFileSize = maxFileSize.toBytes();
+        this.uploadPermits = new Semaphore(maxConcurrentUploads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "task-import-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Streams the upload to a temporary file (the multipart data is released when the
+     * request ends) and queues the import. Size and capacity are checked before the
+     * file is copied, and at most {@code app.import.max-concurrent-uploads} copies run at once.
+     *
+     * @param dryRun validate the file without writing to the database
+     * @throws MaxUploadSizeExceededException when the file is larger than {@code app.import.max-file-size}
+     * @throws RejectedExecutionException when the import queue is full or too many uploads are in progress
+     */
+    public ImportJobDto submit(MultipartFile file, boolean dryRun) throws IOException {
+        if (file.getSize() > maxFileSize) {
+            throw new MaxUploadSizeExceededException(maxFileSize);
+        }
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new RejectedExecutionException("Import queue is full");
+        }
+        if (!uploadPermits.tryAcquire()) {
+            throw new RejectedExecutionException("Too many uploads in progress");
+        }
+
+        ImportUpload upload;
+        try {
+            upload = ImportUpload.store(file);
+        } finally {
+            uploadPermits.release();
+        }
+
+        ImportJob job = new ImportJob(upload.getFileName(), dryRun);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, upload));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            upload.delete();
+            throw e;
+        }
+        log.info("Import job {} queued for file {} ({} bytes){}", job.getId(), upload.getFileName(), upload.getSize(),
+                dryRun ? " (dry run)" : "");
+        return job.toDto();
+    }
+
+    public Optional<ImportJobDto> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ImportJob::toDto);
+    }
+
+    private void run(ImportJob job, ImportUpload upload) {
+        job.start();
+        try {
+            TaskImportResult result = taskImportService.importFromExcel(upload, job.isDryRun(), job);
+            if (result.isFailed()) {
+                job.fail(result);
+                log.warn("Import job {} failed: {}", job.getId(), result.getErrors());
+            } else {
+                job.complete(result);
+                log.info("Import job {} completed: {} rows, {} errors", job.getId(), result.getTotalRows(), result.getErrorCount());
+            }
+        } catch (Exception e) {
+            log.error("Import job {} failed: {}", job.getId(), e.getMessage(), e);
+            job.fail(new TaskImportResult(0, 0, 1, List.of("Ошибка импорта: " + e.getMessage())));
+        } finally {
+            upload.delete();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.import.cleanup-interval}")
+    public void evictExpiredJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(threshold));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,12 @@
+package com.bankanalytics.service;
+
+/**
+ * Receives running counters while an import is in progress.
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    ImportProgressListener NONE = (rowsProcessed, successCount, errorCount) -> { };
+
+    void onProgress(int rowsProcessed, int successCount, int errorCount);
+}
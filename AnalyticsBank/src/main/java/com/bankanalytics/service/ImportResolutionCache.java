@@ -0,0 +1,290 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.entity.Division;
+import com.bankanalytics.entity.Goal;
+import com.bankanalytics.entity.NameNormalizer;
+import com.bankanalytics.entity.User;
+import com.bankanalytics.repository.DivisionRepository;
+import com.bankanalytics.repository.GoalRepository;
+import com.bankanalytics.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Import-scoped lookup of divisions, goals and users.
+ * Divisions are loaded once when the cache is created; goals and users are loaded
+ * once per division on first use. Entities created during the import are registered
+ * so later rows resolve them without touching the database.
+ * <p>
+ * A division is matched by its normalized name only; any other name creates a new division.
+ * When the new name is similar to a division that existed before the import (trigram similarity of
+ * at least {@code app.import.division-similarity}), the import reports a warning naming it, so a typo
+ * can be spotted without rejecting legitimately close names ("Отдел 1" and "Отдел 2"). Divisions
+ * created by the import itself are never candidates, so a dry run and a real run warn alike.
+ * <p>
+ * In dry-run mode nothing is saved: new divisions and goals only live in the cache
+ * (new divisions get temporary negative ids) and are counted as "would be created".
+ */
+@Slf4j
+class ImportResolutionCache {
+
+    private final DivisionRepository divisionRepository;
+    private final GoalRepository goalRepository;
+    private final UserRepository userRepository;
+    private final TableVersions tableVersions;
+    private final boolean dryRun;
+    private final double divisionSimilarity;
+
+    private final List<Division> divisions;
+    private final Map<String, Division> divisionsByName = new HashMap<>();
+    private final Map<Long, Map<String, Goal>> goalsByDivision = new HashMap<>();
+    private final Map<Long, DivisionUsers> usersByDivision = new HashMap<>();
+    private final Long lastExistingDivisionId;
+    private final List<String> warnings = new ArrayList<>();
+
+    private long hits;
+    private long misses;
+    private int createdDivisions;
+    private int createdGoals;
+    private long nextDryRunId = -1;
+
+    ImportResolutionCache(DivisionRepository divisionRepository,
+                          GoalRepository goalRepository,
+                          UserRepository userRepository,
+                          TableVersions tableVersions,
+                          boolean dryRun,
+                          double divisionSimilarity) {
+        this.divisionRepository = divisionRepository;
+        this.goalRepository = goalRepository;
+        this.userRepository = userRepository;
+        this.tableVersions = tableVersions;
+        this.dryRun = dryRun;
+        this.divisionSimilarity = divisionSimilarity;
+        this.divisions = new ArrayList<>(divisionRepository.findAllWithBlocks());
+        for (Division division : divisions) {
+            divisionsByName.putIfAbsent(NameNormalizer.normalize(division.getName()), division);
+        }
+        this.lastExistingDivisionId = divisions.stream().map(Division::getId).max(Long::compare).orElse(null);
+    }
+
+    Optional<Division> resolveDivision(String divisionName, String blockName) {
+        if (divisionName == null || divisionName.isBlank()) {
+            return Optional.empty();
+        }
+        String trimmedDivision = divisionName.trim();
+        String trimmedBlock = blockName != null ? blockName.trim() : null;
+        String key = NameNormalizer.normalize(trimmedDivision);
+
+        Division division = divisionsByName.get(key);
+        if (division != null) {
+            hits++;
+        } else {
+            misses++;
+            warnIfSimilarDivisionExists(trimmedDivision, key);
+        }
+
+        boolean changed = false;
+        if (division == null) {
+            division = new Division();
+            division.setName(trimmedDivision);
+            division.setBlocks(new ArrayList<>());
+            changed = true;
+        }
+
+        if (trimmedBlock != null && !trimmedBlock.isBlank()) {
+            if (division.getBlocks() == null) {
+                division.setBlocks(new ArrayList<>());
+            }
+            if (!division.getBlocks().contains(trimmedBlock)) {
+                division.getBlocks().add(trimmedBlock);
+                changed = true;
+                log.info("Добавлен блок '{}' в подразделение '{}'", trimmedBlock, trimmedDivision);
+            }
+        }
+
+        if (changed && dryRun) {
+            if (division.getId() == null) {
+                division.setId(nextDryRunId--);
+                divisions.add(division);
+                createdDivisions++;
+            }
+        } else if (changed) {
+            boolean created = division.getId() == null;
+            if (!created) {
+                // Добавился только блок: без этого updated_at и ETag подразделения не изменятся
+                division.setUpdatedAt(LocalDateTime.now());
+            }
+            Division saved = divisionRepository.save(division);
+            tableVersions.bump(TableVersions.DIVISIONS);
+            if (created) {
+                createdDivisions++;
+                log.info("Создано новое подразделение из импорта: {} (id={})", trimmedDivision, saved.getId());
+            }
+            register(division, saved);
+            division = saved;
+        }
+        divisionsByName.put(key, division);
+        return Optional.of(division);
+    }
+
+    Optional<Goal> resolveOrCreateGoal(Division division, String initiativeName, String description,
+                                       String targetValue, LocalDate deadline) {
+        if (initiativeName == null || initiativeName.isBlank()) {
+            return Optional.empty();
+        }
+
+        boolean cached = goalsByDivision.containsKey(division.getId());
+        Map<String, Goal> goals = goalsOf(division);
+        String key = NameNormalizer.normalize(initiativeName);
+        Goal existingGoal = goals.get(key);
+        if (existingGoal != null) {
+            if (cached) {
+                hits++;
+            } else {
+                misses++;
+            }
+            return Optional.of(existingGoal);
+        }
+        misses++;
+
+        Goal newGoal = new Goal();
+        newGoal.setTitle(initiativeName.trim());
+        newGoal.setDescription(description);
+        newGoal.setDivision(division);
+        newGoal.setDeadline(deadline); // Устанавливаем обязательный deadline
+
+        if (targetValue != null && !targetValue.isBlank()) {
+            try {
+                newGoal.setTargetValue(new BigDecimal(targetValue.trim()));
+            } catch (NumberFormatException e) {
+                log.warn("Не удалось распарсить целевое значение: {}", targetValue);
+            }
+        }
+
+        createdGoals++;
+        if (dryRun) {
+            goals.put(key, newGoal);
+            return Optional.of(newGoal);
+        }
+        Goal saved = goalRepository.save(newGoal);
+        tableVersions.bump(TableVersions.GOALS);
+        goals.put(key, saved);
+        log.info("Создана новая инициатива: {} для подразделения {}", initiativeName, division.getName());
+        return Optional.of(saved);
+    }
+
+    Optional<User> resolveUserByBlock(String block, Division division) {
+        if (block == null || block.isBlank()) {
+            return Optional.empty();
+        }
+
+        DivisionUsers users = usersOf(division);
+        User userInBlock = users.byBlock.get(NameNormalizer.normalize(block));
+        if (userInBlock != null) {
+            return Optional.of(userInBlock);
+        }
+
+        // Если не найден - возвращаем первого пользователя из подразделения
+        return Optional.ofNullable(users.first);
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    int getCreatedDivisions() {
+        return createdDivisions;
+    }
+
+    int getCreatedGoals() {
+        return createdGoals;
+    }
+
+    List<String> getWarnings() {
+        return warnings;
+    }
+
+    // Кандидаты - только подразделения, существовавшие до импорта: созданных при проверке в базе нет
+    private void warnIfSimilarDivisionExists(String divisionName, String key) {
+        if (lastExistingDivisionId == null) {
+            return;
+        }
+        divisionRepository.findMostSimilarId(key, divisionSimilarity, lastExistingDivisionId)
+                .flatMap(this::loadedDivision)
+                .ifPresent(similar -> warnings.add("Подразделение '" + divisionName
+                        + "' не найдено и создаётся новым, похожее существующее: '" + similar.getName() + "'"));
+    }
+
+    private Optional<Division> loadedDivision(Long id) {
+        return divisions.stream().filter(d -> id.equals(d.getId())).findFirst();
+    }
+
+    private static boolean isPersisted(Division division) {
+        return division.getId() != null && division.getId() > 0;
+    }
+
+    private Map<String, Goal> goalsOf(Division division) {
+        Map<String, Goal> goals = goalsByDivision.get(division.getId());
+        if (goals == null) {
+            goals = new HashMap<>();
+            if (isPersisted(division)) {
+                for (Goal goal : goalRepository.findByDivisionId(division.getId())) {
+                    goals.putIfAbsent(NameNormalizer.normalize(goal.getTitle()), goal);
+                }
+            }
+            goalsByDivision.put(division.getId(), goals);
+        }
+        return goals;
+    }
+
+    private DivisionUsers usersOf(Division division) {
+        DivisionUsers users = usersByDivision.get(division.getId());
+        if (users != null) {
+            hits++;
+            return users;
+        }
+        misses++;
+        users = new DivisionUsers();
+        if (isPersisted(division)) {
+            for (User user : userRepository.findByDivisionId(division.getId())) {
+                if (users.first == null) {
+                    users.first = user;
+                }
+                if (user.getBlock() != null) {
+                    users.byBlock.putIfAbsent(NameNormalizer.normalize(user.getBlock()), user);
+                }
+            }
+        }
+        usersByDivision.put(division.getId(), users);
+        return users;
+    }
+
+    private void register(Division previous, Division saved) {
+        divisionsByName.replaceAll((name, division) -> division == previous ? saved : division);
+        // Сравниваем по ссылке: equals() сущности затрагивает ленивые коллекции
+        for (int i = 0; i < divisions.size(); i++) {
+            if (divisions.get(i) == previous) {
+                divisions.set(i, saved);
+                return;
+            }
+        }
+        divisions.add(saved);
+    }
+
+    private static final class DivisionUsers {
+        private final Map<String, User> byBlock = new HashMap<>();
+        private User first;
+    }
+}
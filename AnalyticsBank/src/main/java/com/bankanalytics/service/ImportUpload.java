@@ -0,0 +1,77 @@
+package com.bankanalytics.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Uploaded Excel file stored in a temporary file. The upload is copied through a fixed
+ * buffer while its SHA-256 is computed, so memory use does not depend on the file size
+ * and the import does not have to read the file a second time to hash it.
+ */
+@Slf4j
+final class ImportUpload {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final String fileName;
+    private final String fileHash;
+    private final long size;
+
+    private ImportUpload(Path file, String fileName, String fileHash, long size) {
+        this.file = file;
+        this.fileName = fileName;
+        this.fileHash = fileHash;
+        this.size = size;
+    }
+
+    static ImportUpload store(MultipartFile upload) throws IOException {
+        Path file = Files.createTempFile("task-import-", ".tmp");
+        try (InputStream in = upload.getInputStream();
+             OutputStream out = Files.newOutputStream(file)) {
+            ImportFingerprints.Sha256 digest = new ImportFingerprints.Sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long size = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, read);
+                out.write(buffer, 0, read);
+                size += read;
+            }
+            return new ImportUpload(file, upload.getOriginalFilename(), digest.hex(), size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    String getFileName() {
+        return fileName;
+    }
+
+    String getFileHash() {
+        return fileHash;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary upload {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.dto.TaskExcelRowDto;
+
+/**
+ * Result of parsing one sheet row: either valid data, a validation error,
+ * or a row that is counted but skipped (no division name).
+ */
+final class ParsedTaskRow {
+
+    private final int rowNum;
+    private final String rowNumber;
+    private final TaskExcelRowDto data;
+    private final String error;
+
+    private ParsedTaskRow(int rowNum, String rowNumber, TaskExcelRowDto data, String error) {
+        this.rowNum = rowNum;
+        this.rowNumber = rowNumber;
+        this.data = data;
+        this.error = error;
+    }
+
+    static ParsedTaskRow valid(int rowNum, TaskExcelRowDto data) {
+        return new ParsedTaskRow(rowNum, data.getRowNumber(), data, null);
+    }
+
+    static ParsedTaskRow invalid(int rowNum, String rowNumber, String error) {
+        return new ParsedTaskRow(rowNum, rowNumber, null, error);
+    }
+
+    static ParsedTaskRow skipped(int rowNum, String rowNumber) {
+        return new ParsedTaskRow(rowNum, rowNumber, null, null);
+    }
+
+    int getRowNum() {
+        return rowNum;
+    }
+
+    String getRowNumber() {
+        return rowNumber;
+    }
+
+    TaskExcelRowDto getData() {
+        return data;
+    }
+
+    String getError() {
+        return error;
+    }
+
+    boolean isValid() {
+        return data != null;
+    }
+
+    boolean isSkipped() {
+        return data == null && error == null;
+    }
+
+    String describeError(String message) {
+        return "Строка " + rowNum + " (№" + rowNumber + "): " + message;
+    }
+}
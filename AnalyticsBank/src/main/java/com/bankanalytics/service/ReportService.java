@@ -2,8 +2,17 @@ package com.bankanalytics.service;
 
 import com.bankanalytics.entity.Report;
 import com.bankanalytics.repository.ReportRepository;
+import com.bankanalytics.dto.KeysetPage;
+import com.bankanalytics.dto.ResourceVersion;
+import com.bankanalytics.dto.ReportDto;
+import com.bankanalytics.dto.ReportSummaryDto;
+import com.bankanalytics.repository.DtoProjections;
+import com.bankanalytics.repository.KeysetPaginator;
+import com.bankanalytics.repository.ListFilters;
+import com.bankanalytics.config.QueryCacheConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,12 +27,54 @@ import java.util.Optional;
 public class ReportService {
     
     private final ReportRepository reportRepository;
+    private final KeysetPaginator keysetPaginator;
+    private final TableVersions tableVersions;
     
     public List<Report> getAllReports() {
         log.debug("Fetching all reports");
         return reportRepository.findAll();
     }
     
+    @Cacheable(cacheNames = QueryCacheConfig.REPORT_QUERIES, sync = true)
+    public KeysetPage<ReportDto> findReports(Long divisionId, Long userId, LocalDate from, LocalDate to,
+                                             Long after, Integer limit) {
+        log.debug("Fetching reports page after {} (limit {})", after, limit);
+        return keysetPaginator.findAfter(Report.class, DtoProjections.REPORT,
+                ListFilters.reports(divisionId, userId, from, to), after, limit);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.REPORT_QUERIES, sync = true)
+    public KeysetPage<ReportSummaryDto> findReportSummaries(Long divisionId, Long userId, LocalDate from, LocalDate to,
+                                                            Long after, Integer limit) {
+        log.debug("Fetching report summaries page after {} (limit {})", after, limit);
+        return keysetPaginator.findAfter(Report.class, DtoProjections.REPORT_SUMMARY,
+                ListFilters.reports(divisionId, userId, from, to), after, limit);
+    }
+    
+    @Transactional(readOnly = true)
+    public ResourceVersion findReportsVersion(Long divisionId, Long userId, LocalDate from, LocalDate to,
+                                              Long after, Integer limit) {
+        return keysetPaginator.versionOf(Report.class, ListFilters.reports(divisionId, userId, from, to),
+                after, limit, "user", "division");
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getReportVersion(Long id) {
+        return keysetPaginator.versionOf(Report.class, id, "user", "division");
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.REPORT_QUERIES, sync = true)
+    public Optional<ReportDto> getReportDto(Long id) {
+        log.debug("Fetching report dto by id: {}", id);
+        return reportRepository.findDtoById(id);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.REPORT_QUERIES, sync = true)
+    public List<ReportDto> getReportDtosByDivision(Long divisionId) {
+        log.debug("Fetching report dtos for division: {}", divisionId);
+        return reportRepository.findDtosByDivisionId(divisionId);
+    }
+    
     public Optional<Report> getReportById(Long id) {
         log.debug("Fetching report by id: {}", id);
         return reportRepository.findById(id);
@@ -76,7 +127,9 @@ public class ReportService {
             report.setReportDate(LocalDate.now());
         }
         
-        return reportRepository.save(report);
+        Report savedReport = reportRepository.save(report);
+        tableVersions.bump(TableVersions.REPORTS);
+        return savedReport;
     }
     
     public Report updateReport(Long id, Report reportDetails) {
@@ -91,7 +144,9 @@ public class ReportService {
         report.setUser(reportDetails.getUser());
         report.setDivision(reportDetails.getDivision());
         
-        return reportRepository.save(report);
+        Report savedReport = reportRepository.save(report);
+        tableVersions.bump(TableVersions.REPORTS);
+        return savedReport;
     }
     
     public void deleteReport(Long id) {
@@ -102,13 +157,16 @@ public class ReportService {
         }
         
         reportRepository.deleteById(id);
+        tableVersions.bump(TableVersions.REPORTS);
     }
     
+    @Cacheable(cacheNames = QueryCacheConfig.REPORT_QUERIES, sync = true)
     public long getReportCountByUser(Long userId) {
         log.debug("Getting report count for user: {}", userId);
         return reportRepository.countByUserId(userId);
     }
     
+    @Cacheable(cacheNames = QueryCacheConfig.REPORT_QUERIES, sync = true)
     public long getReportCountByDivision(Long divisionId) {
         log.debug("Getting report count for division: {}", divisionId);
         return reportRepository.countByDivisionId(divisionId);
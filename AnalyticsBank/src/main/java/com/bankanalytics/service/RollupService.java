@@ -0,0 +1,237 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.dto.DivisionCompletionDto;
+import com.bankanalytics.entity.DivisionRollup;
+import com.bankanalytics.entity.Goal;
+import com.bankanalytics.entity.GoalRollup;
+import com.bankanalytics.entity.RollupCounts;
+import com.bankanalytics.entity.Task;
+import com.bankanalytics.repository.DivisionRollupRepository;
+import com.bankanalytics.repository.GoalRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps {@code goal_rollups} and {@code division_rollups} in step with tasks and goals, so analytics
+ * reads are primary-key lookups instead of scans over {@code tasks}.
+ * <p>
+ * Single-row writes in {@link TaskService}, {@link GoalService} and {@link DivisionService} apply deltas
+ * in the same transaction as the change itself. The import recomputes the goals it touched with
+ * {@link #refreshGoals(Collection)}. Overdue counters only move when a row is written, so tasks and goals
+ * that pass their deadline untouched are picked up by the nightly {@link #rebuild()}, which is also the
+ * recovery path when the tables were changed bypassing the services.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RollupService {
+
+    private final GoalRollupRepository goalRollupRepository;
+    private final DivisionRollupRepository divisionRollupRepository;
+
+    public void taskAdded(Task task) {
+        tasksChanged(List.of(), List.of(TaskState.of(task)));
+    }
+
+    public void tasksAdded(Collection<Task> tasks) {
+        tasksChanged(List.of(), tasks.stream().map(TaskState::of).toList());
+    }
+
+    public void taskChanged(TaskState before, Task after) {
+        tasksChanged(List.of(before), List.of(TaskState.of(after)));
+    }
+
+    public void taskRemoved(Task task) {
+        tasksChanged(List.of(TaskState.of(task)), List.of());
+    }
+
+    public void tasksRemoved(Collection<Task> tasks) {
+        tasksChanged(tasks.stream().map(TaskState::of).toList(), List.of());
+    }
+
+    /**
+     * Nets the removed and added states per goal and writes one upsert per touched goal and division.
+     */
+    public void tasksChanged(Collection<TaskState> removed, Collection<TaskState> added) {
+        LocalDate today = LocalDate.now();
+        Map<Long, RollupCounts> deltas = new LinkedHashMap<>();
+        for (TaskState state : removed) {
+            state.addTo(deltas, today, -1);
+        }
+        for (TaskState state : added) {
+            state.addTo(deltas, today, 1);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((goalId, counts) -> {
+            if (!counts.isZero()) {
+                goalRollupRepository.add(goalId, counts, now);
+                divisionRollupRepository.addByGoal(goalId, counts, now);
+            }
+        });
+    }
+
+    public void goalAdded(Goal goal) {
+        GoalState state = GoalState.of(goal);
+        if (state.divisionId() != null) {
+            divisionRollupRepository.add(state.divisionId(), 1, flag(state.completed()), flag(state.overdue()),
+                    new RollupCounts(), LocalDateTime.now());
+        }
+    }
+
+    /**
+     * @param before state captured before the goal entity was modified
+     */
+    public void goalChanged(GoalState before, Goal goal) {
+        GoalState after = GoalState.of(goal);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (Objects.equals(before.divisionId(), after.divisionId())) {
+            long completed = flag(after.completed()) - flag(before.completed());
+            long overdue = flag(after.overdue()) - flag(before.overdue());
+            if (after.divisionId() != null && (completed != 0 || overdue != 0)) {
+                divisionRollupRepository.add(after.divisionId(), 0, completed, overdue, new RollupCounts(), now);
+            }
+            return;
+        }
+
+        // Цель переехала в другое подразделение вместе со своими задачами
+        RollupCounts tasks = goalCounts(goal.getId());
+        if (before.divisionId() != null) {
+            RollupCounts removed = new RollupCounts();
+            removed.add(tasks, -1);
+            divisionRollupRepository.add(before.divisionId(), -1, -flag(before.completed()),
+                    -flag(before.overdue()), removed, now);
+        }
+        if (after.divisionId() != null) {
+            divisionRollupRepository.add(after.divisionId(), 1, flag(after.completed()), flag(after.overdue()),
+                    tasks, now);
+        }
+    }
+
+    /**
+     * Must be called before the goal is deleted; its tasks go with it through the cascade.
+     */
+    public void goalRemoved(Goal goal) {
+        GoalState state = GoalState.of(goal);
+        if (state.divisionId() != null) {
+            RollupCounts removed = new RollupCounts();
+            removed.add(goalCounts(goal.getId()), -1);
+            divisionRollupRepository.add(state.divisionId(), -1, -flag(state.completed()), -flag(state.overdue()),
+                    removed, LocalDateTime.now());
+        }
+        goalRollupRepository.deleteByGoalId(goal.getId());
+    }
+
+    public void divisionRemoved(Long divisionId) {
+        divisionRollupRepository.deleteByDivisionId(divisionId);
+    }
+
+    /**
+     * Recomputes the given goals and their divisions from the base tables. Used after bulk writes that
+     * do not go through the per-row hooks.
+     */
+    public void refreshGoals(Collection<Long> goalIds) {
+        if (goalIds.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        goalRollupRepository.refresh(goalIds, today, now);
+        int divisions = divisionRollupRepository.refreshByGoals(goalIds, today, now);
+        log.info("Refreshed rollups of {} goals in {} divisions", goalIds.size(), divisions);
+    }
+
+    /**
+     * Rebuilds both tables from scratch. Concurrent deltas wait on the table lock and are applied
+     * on top of the rebuilt rows; readers are not blocked.
+     */
+    @Scheduled(cron = "${app.analytics.rollup-rebuild-cron}")
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+
+        divisionRollupRepository.lockTables();
+        goalRollupRepository.deleteAllRows();
+        divisionRollupRepository.deleteAllRows();
+        int goals = goalRollupRepository.insertAll(today, now);
+        int divisions = divisionRollupRepository.insertAll(today, now);
+
+        log.info("Rebuilt rollups of {} goals and {} divisions in {} ms", goals, divisions,
+                System.currentTimeMillis() - start);
+    }
+
+    @Transactional(readOnly = true)
+    public long getTaskCountByGoal(Long goalId) {
+        return goalCounts(goalId).getTaskCount();
+    }
+
+    @Transactional(readOnly = true)
+    public long getGoalCountByDivision(Long divisionId) {
+        return divisionRollupRepository.findById(divisionId).map(DivisionRollup::getGoalCount).orElse(0L);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DivisionCompletionDto> getGoalCompletionByDivision() {
+        return divisionRollupRepository.findGoalCompletion();
+    }
+
+    @Transactional(readOnly = true)
+    public List<DivisionCompletionDto> getTaskCompletionByDivision() {
+        return divisionRollupRepository.findTaskCompletion();
+    }
+
+    private RollupCounts goalCounts(Long goalId) {
+        return goalRollupRepository.findById(goalId).map(GoalRollup::getTasks).orElseGet(RollupCounts::new);
+    }
+
+    private static long flag(boolean value) {
+        return value ? 1 : 0;
+    }
+
+    /**
+     * The task fields the rollups depend on; take it before modifying a managed task.
+     */
+    public record TaskState(Long goalId, Task.TaskStatus status, Integer progress, LocalDate endDate) {
+
+        public static TaskState of(Task task) {
+            return new TaskState(task.getGoal() != null ? task.getGoal().getId() : null,
+                    task.getStatus(), task.getProgress(), task.getEndDate());
+        }
+
+        private void addTo(Map<Long, RollupCounts> deltas, LocalDate today, int sign) {
+            if (goalId != null) {
+                deltas.computeIfAbsent(goalId, id -> new RollupCounts()).add(status, progress, endDate, today, sign);
+            }
+        }
+    }
+
+    /**
+     * The goal fields the rollups depend on; take it before modifying a managed goal.
+     */
+    public record GoalState(Long divisionId, boolean completed, boolean overdue) {
+
+        public static GoalState of(Goal goal) {
+            boolean overdue = Goal.overdueOn(goal.getDeadline(), goal.getCurrentValue(), goal.getTargetValue(),
+                    LocalDate.now());
+            return new GoalState(goal.getDivision() != null ? goal.getDivision().getId() : null,
+                    Objects.equals(goal.getProgress(), 100), overdue);
+        }
+    }
+}
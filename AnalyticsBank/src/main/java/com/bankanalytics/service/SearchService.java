@@ -0,0 +1,51 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.dto.SearchHitDto;
+import com.bankanalytics.dto.SearchPage;
+import com.bankanalytics.repository.SearchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class SearchService {
+    
+    private final SearchRepository searchRepository;
+    
+    @Value("${app.pagination.default-limit}")
+    private int defaultLimit;
+    
+    @Value("${app.pagination.max-limit}")
+    private int maxLimit;
+    
+    /**
+     * @param types entity types to search, all when {@code null} or empty
+     */
+    public SearchPage search(String query, Set<SearchHitDto.Type> types, Integer offset, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        Set<SearchHitDto.Type> searched = types == null || types.isEmpty()
+                ? EnumSet.allOf(SearchHitDto.Type.class) : types;
+        int from = offset == null || offset < 0 ? 0 : offset;
+        int size = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        log.debug("Searching '{}' in {} from {} (limit {})", query, searched, from, size);
+        
+        // Одна лишняя строка показывает, есть ли следующая страница
+        List<SearchHitDto> hits = searchRepository.search(query.trim(), searched, from, size + 1);
+        if (hits.size() <= size) {
+            return new SearchPage(hits, null);
+        }
+        return new SearchPage(new ArrayList<>(hits.subList(0, size)), from + size);
+    }
+}
@@ -0,0 +1,97 @@
+package com.bankanalytics.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modification counters per table for the query result cache. Service write methods call
+ * {@link #bump(String...)} for every table they change; a cached result is served only while the
+ * counters of the tables it was read from are the same as before its query ran.
+ * <p>
+ * Inside a transaction the counters move after it completes, so a result read in between is
+ * stamped with the old value and dropped once the change is visible. Until then the transaction
+ * itself bypasses the cache for the tables it wrote, as its own changes are not committed yet.
+ * The counters live in this process only: writes made by other instances or straight in the
+ * database are picked up when {@code app.analytics.cache-ttl} expires the entries.
+ */
+@Component
+public class TableVersions {
+
+    public static final String DIVISIONS = "divisions";
+    public static final String USERS = "users";
+    public static final String GOALS = "goals";
+    public static final String TASKS = "tasks";
+    public static final String REPORTS = "reports";
+
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public void bump(String... tables) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(Set.of(tables));
+            return;
+        }
+        writtenInTransaction().addAll(Set.of(tables));
+    }
+
+    public long[] current(String... tables) {
+        long[] stamp = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            stamp[i] = counter(tables[i]).get();
+        }
+        return stamp;
+    }
+
+    /**
+     * Whether the current transaction has changed one of the tables and not completed yet.
+     */
+    public boolean writtenInCurrentTransaction(String... tables) {
+        @SuppressWarnings("unchecked")
+        Set<String> written = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (written == null) {
+            return false;
+        }
+        for (String table : tables) {
+            if (written.contains(table)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> writtenInTransaction() {
+        Set<String> written = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (written != null) {
+            return written;
+        }
+        Set<String> tables = new HashSet<>();
+        TransactionSynchronizationManager.bindResource(this, tables);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // И после отката: лишний промах дешевле, чем риск отдать устаревшее
+                TransactionSynchronizationManager.unbindResourceIfPossible(TableVersions.this);
+                increment(tables);
+            }
+        });
+        return tables;
+    }
+
+    private void increment(Collection<String> tables) {
+        for (String table : tables) {
+            counter(table).incrementAndGet();
+        }
+    }
+
+    private AtomicLong counter(String table) {
+        return versions.computeIfAbsent(table, t -> new AtomicLong());
+    }
+}
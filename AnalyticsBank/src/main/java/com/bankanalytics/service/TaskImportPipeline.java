@@ -0,0 +1,230 @@
+package com.bankanalytics.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Three-stage import: the calling thread reads rows, a pool of parser threads
+ * parses and validates them, and a single writer thread receives the results
+ * in the original row order. Stages are connected by bounded queues, so a slow
+ * writer throttles the reader instead of buffering the whole sheet.
+ */
+@Slf4j
+final class TaskImportPipeline<T> {
+
+    private static final long POLL_MILLIS = 100;
+
+    @FunctionalInterface
+    interface RowSource {
+        int read(ExcelSheetReader.RowHandler handler) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface RowParser<T> {
+        /** May return {@code null} for rows that should be dropped. */
+        T parse(int rowNum, String[] cells);
+    }
+
+    interface RowSink<T> {
+        void accept(T row);
+
+        void finish();
+    }
+
+    private final int parserThreads;
+    private final int queueCapacity;
+
+    TaskImportPipeline(int parserThreads, int queueCapacity) {
+        this.parserThreads = Math.max(1, parserThreads);
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * @return header row index reported by the source
+     */
+    int run(RowSource source, RowParser<T> parser, RowSink<T> sink) throws IOException {
+        BlockingQueue<RawRow> rawRows = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Sequenced<T>> parsedRows = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parserThreads + 1, runnable -> {
+            Thread thread = new Thread(runnable, "task-import-stage-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            for (int i = 0; i < parserThreads; i++) {
+                pool.execute(() -> parseRows(rawRows, parsedRows, parser, failure));
+            }
+            Future<?> writer = pool.submit(() -> writeRows(parsedRows, sink, failure));
+
+            long[] sequence = {0};
+            int headerRowIndex = -1;
+            IOException readFailure = null;
+            try {
+                headerRowIndex = source.read((rowIndex, cells) ->
+                        put(rawRows, new RawRow(sequence[0]++, rowIndex + 1, cells), failure));
+            } catch (IOException e) {
+                // Уже прочитанные строки дописываются, затем ошибка чтения пробрасывается
+                readFailure = e;
+            }
+            for (int i = 0; i < parserThreads; i++) {
+                put(rawRows, RawRow.END, failure);
+            }
+
+            awaitWriter(writer, failure);
+            if (readFailure != null) {
+                throw readFailure;
+            }
+            return headerRowIndex;
+        } catch (PipelineAborted e) {
+            Throwable cause = failure.get();
+            throw new IllegalStateException("Ошибка конвейера импорта: " + cause.getMessage(), cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void parseRows(BlockingQueue<RawRow> rawRows, BlockingQueue<Sequenced<T>> parsedRows,
+                           RowParser<T> parser, AtomicReference<Throwable> failure) {
+        try {
+            while (true) {
+                RawRow raw = take(rawRows, failure);
+                if (raw == RawRow.END) {
+                    put(parsedRows, Sequenced.end(), failure);
+                    return;
+                }
+                put(parsedRows, new Sequenced<>(raw.sequence, parser.parse(raw.rowNum, raw.cells)), failure);
+            }
+        } catch (PipelineAborted e) {
+            // другой этап уже сообщил об ошибке
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private void writeRows(BlockingQueue<Sequenced<T>> parsedRows, RowSink<T> sink,
+                           AtomicReference<Throwable> failure) {
+        try {
+            // Парсеры завершают строки в произвольном порядке; писатель восстанавливает порядок листа
+            Map<Long, Sequenced<T>> pending = new HashMap<>();
+            long next = 0;
+            int finishedParsers = 0;
+            while (finishedParsers < parserThreads) {
+                Sequenced<T> item = take(parsedRows, failure);
+                if (item.isEnd()) {
+                    finishedParsers++;
+                    continue;
+                }
+                pending.put(item.sequence, item);
+                Sequenced<T> ready;
+                while ((ready = pending.remove(next)) != null) {
+                    if (ready.value != null) {
+                        sink.accept(ready.value);
+                    }
+                    next++;
+                }
+            }
+            sink.finish();
+        } catch (PipelineAborted e) {
+            // другой этап уже сообщил об ошибке
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private void awaitWriter(Future<?> writer, AtomicReference<Throwable> failure) {
+        try {
+            writer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
+        }
+        if (failure.get() != null) {
+            throw new PipelineAborted();
+        }
+    }
+
+    private static <E> void put(BlockingQueue<E> queue, E element, AtomicReference<Throwable> failure) {
+        try {
+            while (!queue.offer(element, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (failure.get() != null) {
+                    throw new PipelineAborted();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+            throw new PipelineAborted();
+        }
+    }
+
+    private static <E> E take(BlockingQueue<E> queue, AtomicReference<Throwable> failure) {
+        try {
+            E element;
+            while ((element = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                if (failure.get() != null) {
+                    throw new PipelineAborted();
+                }
+            }
+            return element;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+            throw new PipelineAborted();
+        }
+    }
+
+    private static final class RawRow {
+        private static final RawRow END = new RawRow(-1, -1, null);
+
+        private final long sequence;
+        private final int rowNum;
+        private final String[] cells;
+
+        private RawRow(long sequence, int rowNum, String[] cells) {
+            this.sequence = sequence;
+            this.rowNum = rowNum;
+            this.cells = cells;
+        }
+    }
+
+    private static final class Sequenced<T> {
+        private final long sequence;
+        private final T value;
+
+        private Sequenced(long sequence, T value) {
+            this.sequence = sequence;
+            this.value = value;
+        }
+
+        private static <T> Sequenced<T> end() {
+            return new Sequenced<>(-1, null);
+        }
+
+        private boolean isEnd() {
+            return sequence < 0;
+        }
+    }
+
+    private static final class PipelineAborted extends RuntimeException {
+        private PipelineAborted() {
+            super(null, null, false, false);
+        }
+    }
+}
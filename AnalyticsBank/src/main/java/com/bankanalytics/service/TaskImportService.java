@@ -1,33 +1,37 @@
 package com.bankanalytics.service;
 
+import com.bankanalytics.dto.TaskExcelRowDto;
 import com.bankanalytics.entity.Division;
+import com.bankanalytics.entity.ImportedFile;
 import com.bankanalytics.entity.Task;
 import com.bankanalytics.entity.TaskImportResult;
 import com.bankanalytics.repository.DivisionRepository;
 import com.bankanalytics.entity.Goal;
 import com.bankanalytics.repository.GoalRepository;
+import com.bankanalytics.repository.ImportedFileRepository;
+import com.bankanalytics.repository.TaskRepository;
 import com.bankanalytics.entity.User;
 import com.bankanalytics.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
-import org.apache.poi.ss.usermodel.DateUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
-import java.math.BigDecimal;
+import java.io.IOException;
 import java.time.LocalDate;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -37,291 +41,361 @@ public class TaskImportService {
     private final DivisionRepository divisionRepository;
     private final GoalRepository goalRepository;
     private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final ImportedFileRepository importedFileRepository;
     private final TaskService taskService;
+    private final TableVersions tableVersions;
+    private final ExcelSheetReader excelSheetReader;
+    private final TaskRowParser taskRowParser;
 
-    public TaskImportResult importFromExcel(MultipartFile file) {
-        List<String> errors = new ArrayList<>();
-        int total = 0;
-        int success = 0;
+    @Value("${app.import.parser-threads}")
+    private int parserThreads;
 
-        try (InputStream is = file.getInputStream(); Workbook workbook = WorkbookFactory.create(is)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            
-            int headerRowIndex = findHeaderRow(sheet);
-            if (headerRowIndex == -1) {
-                errors.add("Не найдена строка с заголовками (первая колонка должна содержать '№')");
-                return new TaskImportResult(0, 0, 1, errors);
-            }
-            
-            log.info("Найдена строка заголовков на позиции: {}", headerRowIndex + 1);
-            
-            for (int i = headerRowIndex + 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) {
-                    continue;
-                }
-                
-                int rowNum = i + 1;
-                
-                String rowNumber = getStringCell(row, 0);
-                if (rowNumber == null || rowNumber.trim().isEmpty()) {
-                    log.debug("Пропускаем строку {} - нет номера", rowNum);
-                    continue;
-                }
-                
-                total++;
-                try {
-                    String divisionName = getStringCell(row, 1);    // B: Наименование блока (подразделение)
-                    String initiativeName = getStringCell(row, 2);  // C: ИНИЦИАТИВА (цель)
-                    String taskTitle = getStringCell(row, 3);       // D: ЗАДАЧИ И МЕРОПРИЯТИЯ
-                    String taskDescription = getStringCell(row, 4); // E: ОПИСАНИЕ ЗАДАЧИ
-                    String expectedResult = getStringCell(row, 5);  // F: Показатель результата
-                    String blockName = getStringCell(row, 6);       // G: ОТВЕТСТВЕННЫЙ ИСПОЛНИТЕЛЬ (блок)
-                    String targetValue = getStringCell(row, 7);     // H: Целевое значение
-                    String statusStr = getStringCell(row, 8);       // I: Статус
-                    String progressStr = getStringCell(row, 9);     // J: Прогресс
-                    LocalDate startDate = getDateCell(row, 10);     // K: Плановая дата начала
-                    LocalDate endDate = getDateCell(row, 11);       // L: Плановая дата окончания
-                    String actualResult = getStringCell(row, 12);   // M: Фактический результат
-                    String impact = getStringCell(row, 13);         // N: Оценочный эффект
-
-                    if (divisionName == null || divisionName.isBlank()) {
-                        log.warn("Строка {} (№{}): Пустое наименование блока, пропускаем", rowNum, rowNumber);
-                        continue;
-                    }
-                    
-                    if (initiativeName == null || initiativeName.isBlank()) {
-                        throw new IllegalArgumentException("Пустое наименование инициативы");
-                    }
+    @Value("${app.import.pipeline-queue-size}")
+    private int pipelineQueueSize;
 
-                    Division division = resolveDivision(divisionName, blockName)
-                            .orElseThrow(() -> new IllegalArgumentException("Не удалось создать/найти подразделение: " + divisionName));
-
-                    LocalDate goalDeadline = endDate != null ? endDate : LocalDate.now().plusYears(1);
-                    Goal goal = resolveOrCreateGoal(division, initiativeName, null, targetValue, goalDeadline)
-                            .orElseThrow(() -> new IllegalArgumentException("Не удалось создать/найти инициативу: " + initiativeName));
-
-                    User user = resolveUserByBlock(blockName, division)
-                            .orElse(null);
-
-                    Task task = new Task();
-                    task.setTitle(taskTitle);
-                    task.setDescription(taskDescription);
-                    task.setExpectedResult(expectedResult);
-                    task.setActualResult(actualResult);
-                    task.setImpact(impact);
-                    task.setGoal(goal);
-                    task.setUser(user);
-                    task.setStartDate(startDate);
-                    task.setEndDate(endDate);
-
-                    if (progressStr != null && !progressStr.isBlank()) {
-                        try {
-                            task.setProgress(Integer.parseInt(progressStr.trim()));
-                        } catch (NumberFormatException e) {
-                            throw new IllegalArgumentException("Некорректный прогресс: " + progressStr);
-                        }
-                    }
+    @Value("${app.analytics.batch-size}")
+    private int batchSize;
 
-                    Task.TaskStatus status = resolveStatus(statusStr);
-                    task.setStatus(status);
+    @Value("${app.import.division-similarity}")
+    private double divisionSimilarity;
 
-                    taskService.createTask(task);
-                    success++;
-                } catch (Exception e) {
-                    log.error("Ошибка обработки строки {} (№{}): {}", rowNum, rowNumber, e.getMessage());
-                    errors.add("Строка " + rowNum + " (№" + rowNumber + "): " + e.getMessage());
-                }
-            }
-        } catch (Exception e) {
-            log.error("Ошибка чтения Excel файла: {}", e.getMessage());
-            errors.add("Ошибка чтения файла: " + e.getMessage());
+    public TaskImportResult importFromExcel(MultipartFile file) throws IOException {
+        ImportUpload upload = ImportUpload.store(file);
+        try {
+            return importFromExcel(upload, false, ImportProgressListener.NONE);
+        } finally {
+            upload.delete();
         }
-
-        int errorCount = errors.size();
-        return new TaskImportResult(total, success, errorCount, errors);
     }
 
-    private Optional<Division> resolveDivision(String divisionName, String blockName) {
-        if (divisionName == null || divisionName.isBlank()) {
-            return Optional.empty();
+    /**
+     * Incremental import: rows are matched to earlier imports by their key ("№", division,
+     * initiative). New rows are inserted, rows whose content hash changed are updated and the
+     * rest are skipped. A file identical to an already imported one is not read at all, as long as
+     * no imported task has been deleted or changed since; otherwise it is imported again, which
+     * restores the deleted rows.
+     * A file that cannot be opened, has no header row or breaks off while being read gives a
+     * result marked {@link TaskImportResult#isFailed() failed}, with the rows handled before that.
+     *
+     * @param dryRun validate every row and report what would be created or updated
+     *               without issuing any write statements
+     */
+    TaskImportResult importFromExcel(ImportUpload upload, boolean dryRun, ImportProgressListener listener) {
+        String fileName = upload.getFileName();
+        String fileHash = upload.getFileHash();
+        Optional<ImportedFile> previousImport = importedFileRepository.findByFileHash(fileHash);
+        if (previousImport.isPresent() && importedTasksUnchanged(previousImport.get())) {
+            ImportedFile imported = previousImport.get();
+            log.info("Файл {} идентичен импортированному {} ({}), импорт пропущен",
+                    fileName, imported.getImportedAt(), imported.getFileName());
+            TaskImportResult result = new TaskImportResult(imported.getTotalRows(), imported.getTotalRows(), 0, List.of());
+            result.setUnchangedCount(imported.getTotalRows());
+            result.setAlreadyImported(true);
+            result.setDryRun(dryRun);
+            listener.onProgress(imported.getTotalRows(), imported.getTotalRows(), 0);
+            return result;
         }
-        String trimmedDivision = divisionName.trim();
-        String trimmedBlock = blockName != null ? blockName.trim() : null;
-
-        List<Division> list = divisionRepository.findByNameContaining(trimmedDivision);
-        Division division;
-        
-        if (!list.isEmpty()) {
-            division = list.get(0);
-        } else {
-            division = new Division();
-            division.setName(trimmedDivision);
-            division.setBlocks(new ArrayList<>());
-            log.info("Создано новое подразделение из импорта: {} (id={})", trimmedDivision, division.getId());
+        if (previousImport.isPresent()) {
+            log.info("Файл {} уже импортировался, но импортированные задачи с тех пор удалялись или менялись: файл читается заново",
+                    fileName);
         }
-        
-        if (trimmedBlock != null && !trimmedBlock.isBlank()) {
-            if (division.getBlocks() == null) {
-                division.setBlocks(new ArrayList<>());
-            }
-            if (!division.getBlocks().contains(trimmedBlock)) {
-                division.getBlocks().add(trimmedBlock);
-                log.info("Добавлен блок '{}' в подразделение '{}'", trimmedBlock, trimmedDivision);
+
+        ImportProgress progress = new ImportProgress(listener);
+        ImportResolutionCache cache = new ImportResolutionCache(divisionRepository, goalRepository, userRepository,
+                tableVersions, dryRun, divisionSimilarity);
+        GoalProgressRollup rollup = new GoalProgressRollup();
+        TaskImportPipeline<ParsedTaskRow> pipeline = new TaskImportPipeline<>(
+                parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors(),
+                pipelineQueueSize);
+
+        boolean fileRead = false;
+        try {
+            int headerRowIndex = pipeline.run(
+                    handler -> excelSheetReader.read(upload.getFile().toFile(), handler),
+                    taskRowParser::parse,
+                    new TaskWriter(cache, rollup, progress, dryRun));
+            if (headerRowIndex == -1) {
+                TaskImportResult result = new TaskImportResult(0, 0, 1,
+                        List.of("Не найдена строка с заголовками (первая колонка должна содержать '№')"));
+                result.setFailed(true);
+                result.setDryRun(dryRun);
+                return result;
             }
+            fileRead = true;
+        } catch (Exception e) {
+            log.error("Ошибка чтения Excel файла: {}", e.getMessage());
+            progress.addError(Integer.MAX_VALUE, "Ошибка чтения файла: " + e.getMessage());
+        }
+
+        // Прогресс затронутых целей пересчитывается один раз на весь импорт
+        if (!dryRun) {
+            taskService.recalculateGoalProgress(rollup);
         }
-        
-        Division saved = divisionRepository.save(division);
-        return Optional.of(saved);
-    }
 
-    private Optional<Goal> resolveGoal(Division division, String initiativeName) {
-        if (initiativeName == null || initiativeName.isBlank()) {
-            return Optional.empty();
+        List<String> errors = progress.sortedErrors();
+        int success = progress.inserted + progress.updated + progress.unchanged;
+        if (!dryRun && fileRead && errors.isEmpty()) {
+            // Файл с ошибками не запоминаем: при повторной загрузке ошибочные строки должны обработаться снова
+            rememberFile(previousImport.orElse(null), fileHash, fileName, progress.total);
         }
-        List<Goal> goals = goalRepository.findByDivisionId(division.getId());
-        return goals.stream()
-                .filter(g -> initiativeName.trim().equalsIgnoreCase(g.getTitle()))
-                .findFirst();
+
+        TaskImportResult result = new TaskImportResult(progress.total, success, errors.size(), errors);
+        result.setInsertedCount(progress.inserted);
+        result.setUpdatedCount(progress.updated);
+        result.setUnchangedCount(progress.unchanged);
+        result.setCreatedDivisionCount(cache.getCreatedDivisions());
+        result.setCreatedGoalCount(cache.getCreatedGoals());
+        result.setWarnings(cache.getWarnings());
+        result.setFailed(!fileRead);
+        result.setDryRun(dryRun);
+        result.setCacheHits(cache.getHits());
+        result.setCacheMisses(cache.getMisses());
+        log.info("{}: строк {}, добавлено {}, обновлено {}, без изменений {}, ошибок {}, кэш справочников: попаданий {}, промахов {}",
+                dryRun ? "Проверка импорта завершена" : "Импорт завершён",
+                progress.total, progress.inserted, progress.updated, progress.unchanged, errors.size(),
+                cache.getHits(), cache.getMisses());
+        return result;
     }
 
-    private int findHeaderRow(Sheet sheet) {
-        for (int i = 0; i <= Math.min(20, sheet.getLastRowNum()); i++) {
-            Row row = sheet.getRow(i);
-            if (row == null) continue;
-            
-            String firstCell = getStringCell(row, 0);
-            if (firstCell != null && firstCell.trim().equals("№")) {
-                return i;
-            }
+    private boolean importedTasksUnchanged(ImportedFile imported) {
+        if (imported.getTaskCount() == null) {
+            return false;
         }
-        return -1;
+        TaskRepository.ImportedTasksState state = taskRepository.findImportedTasksState();
+        return imported.getTaskCount() == state.getCount()
+                && Objects.equals(imported.getTasksUpdatedAt(), state.getLastUpdatedAt());
     }
 
-    private Optional<Goal> resolveOrCreateGoal(Division division, String initiativeName, String description, String targetValue, LocalDate deadline) {
-        if (initiativeName == null || initiativeName.isBlank()) {
-            return Optional.empty();
+    private void rememberFile(ImportedFile previous, String fileHash, String fileName, int totalRows) {
+        ImportedFile importedFile = previous != null ? previous : new ImportedFile();
+        importedFile.setFileHash(fileHash);
+        importedFile.setFileName(fileName);
+        importedFile.setTotalRows(totalRows);
+        importedFile.setImportedAt(LocalDateTime.now());
+        TaskRepository.ImportedTasksState state = taskRepository.findImportedTasksState();
+        importedFile.setTaskCount(state.getCount());
+        importedFile.setTasksUpdatedAt(state.getLastUpdatedAt());
+        try {
+            importedFileRepository.save(importedFile);
+        } catch (DataIntegrityViolationException e) {
+            // Тот же файл параллельно импортирован другим заданием
+            log.debug("Файл {} уже зарегистрирован", fileHash);
         }
-        
-        List<Goal> goals = goalRepository.findByDivisionId(division.getId());
-        Optional<Goal> existingGoal = goals.stream()
-                .filter(g -> initiativeName.trim().equalsIgnoreCase(g.getTitle()))
-                .findFirst();
-                
-        if (existingGoal.isPresent()) {
-            return existingGoal;
+    }
+
+    private Task buildTask(TaskExcelRowDto row, ImportResolutionCache cache) {
+        Division division = cache.resolveDivision(row.getDivisionName(), row.getResponsibleName())
+                .orElseThrow(() -> new IllegalArgumentException("Не удалось создать/найти подразделение: " + row.getDivisionName()));
+
+        LocalDate goalDeadline = row.getEndDate() != null ? row.getEndDate() : LocalDate.now().plusYears(1);
+        Goal goal = cache.resolveOrCreateGoal(division, row.getInitiativeName(), null, row.getTargetValue(), goalDeadline)
+                .orElseThrow(() -> new IllegalArgumentException("Не удалось создать/найти инициативу: " + row.getInitiativeName()));
+
+        User user = cache.resolveUserByBlock(row.getResponsibleName(), division)
+                .orElse(null);
+
+        Task task = new Task();
+        task.setTitle(row.getTaskTitle());
+        task.setDescription(row.getTaskDescription());
+        task.setExpectedResult(row.getExpectedResult());
+        task.setActualResult(row.getActualResult());
+        task.setImpact(row.getImpact());
+        task.setGoal(goal);
+        task.setUser(user);
+        task.setStartDate(row.getStartDate());
+        task.setEndDate(row.getEndDate());
+        task.setProgress(row.getProgress());
+        task.setStatus(row.getStatus());
+        task.setImportKey(row.getImportKey());
+        task.setImportHash(row.getImportHash());
+        return task;
+    }
+
+    /**
+     * Writer stage: matches rows to previously imported tasks, resolves reference data and
+     * saves tasks in batches of {@code app.analytics.batch-size}. Runs on a single thread
+     * and receives rows in sheet order. In dry-run mode rows are only classified and counted.
+     */
+    private final class TaskWriter implements TaskImportPipeline.RowSink<ParsedTaskRow> {
+        private final ImportResolutionCache cache;
+        private final GoalProgressRollup rollup;
+        private final ImportProgress progress;
+        private final boolean dryRun;
+        private final Set<String> seenKeys = new HashSet<>();
+        private final List<ParsedTaskRow> batch = new ArrayList<>();
+
+        private TaskWriter(ImportResolutionCache cache, GoalProgressRollup rollup, ImportProgress progress,
+                           boolean dryRun) {
+            this.cache = cache;
+            this.rollup = rollup;
+            this.progress = progress;
+            this.dryRun = dryRun;
         }
-        
-        Goal newGoal = new Goal();
-        newGoal.setTitle(initiativeName.trim());
-        newGoal.setDescription(description);
-        newGoal.setDivision(division);
-        newGoal.setDeadline(deadline); // Устанавливаем обязательный deadline
-        
-        if (targetValue != null && !targetValue.isBlank()) {
+
+        @Override
+        public void accept(ParsedTaskRow row) {
+            progress.total++;
             try {
-                newGoal.setTargetValue(new BigDecimal(targetValue.trim()));
-            } catch (NumberFormatException e) {
-                log.warn("Не удалось распарсить целевое значение: {}", targetValue);
+                if (row.isSkipped()) {
+                    log.warn("Строка {} (№{}): Пустое наименование блока, пропускаем", row.getRowNum(), row.getRowNumber());
+                    return;
+                }
+                if (!row.isValid()) {
+                    rowFailed(row, row.getError());
+                    return;
+                }
+                if (!seenKeys.add(row.getData().getImportKey())) {
+                    rowFailed(row, "Строка с таким же №, блоком и инициативой уже есть в файле");
+                    return;
+                }
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+            } catch (Exception e) {
+                rowFailed(row, e.getMessage());
+            } finally {
+                progress.report();
             }
         }
-        
-        Goal saved = goalRepository.save(newGoal);
-        log.info("Создана новая инициатива: {} для подразделения {}", initiativeName, division.getName());
-        return Optional.of(saved);
-    }
-    
 
-    private Optional<User> resolveUserByBlock(String block, Division division) {
-        if (block == null || block.isBlank()) {
-            return Optional.empty();
+        @Override
+        public void finish() {
+            flush();
+            progress.report();
         }
-        
-        List<User> users = userRepository.findByDivisionId(division.getId());
-        Optional<User> userInBlock = users.stream()
-                .filter(u -> block.trim().equalsIgnoreCase(u.getBlock()))
-                .findFirst();
-                
-        if (userInBlock.isPresent()) {
-            return userInBlock;
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                Map<String, TaskRepository.ImportFingerprint> existing = findExisting();
+
+                List<Task> inserts = new ArrayList<>();
+                List<ParsedTaskRow> insertRows = new ArrayList<>();
+                Map<Long, Task> updates = new LinkedHashMap<>();
+                Map<Long, ParsedTaskRow> updateRows = new HashMap<>();
+                for (ParsedTaskRow row : batch) {
+                    TaskRepository.ImportFingerprint previous = existing.get(row.getData().getImportKey());
+                    if (previous != null && row.getData().getImportHash().equals(previous.getImportHash())) {
+                        progress.unchanged++;
+                        continue;
+                    }
+                    try {
+                        Task task = buildTask(row.getData(), cache);
+                        if (previous == null) {
+                            inserts.add(task);
+                            insertRows.add(row);
+                        } else {
+                            updates.put(previous.getId(), task);
+                            updateRows.put(previous.getId(), row);
+                        }
+                    } catch (Exception e) {
+                        rowFailed(row, e.getMessage());
+                    }
+                }
+
+                if (dryRun) {
+                    progress.inserted += inserts.size();
+                    progress.updated += updates.size();
+                } else {
+                    saveInserts(inserts, insertRows);
+                    saveUpdates(updates, updateRows);
+                }
+            } catch (Exception e) {
+                batch.forEach(row -> rowFailed(row, e.getMessage()));
+            } finally {
+                batch.clear();
+            }
         }
-        
-        // Если не найден - возвращаем первого пользователя из подразделения
-        if (!users.isEmpty()) {
-            return Optional.of(users.get(0));
+
+        private Map<String, TaskRepository.ImportFingerprint> findExisting() {
+            List<String> keys = batch.stream().map(row -> row.getData().getImportKey()).toList();
+            Map<String, TaskRepository.ImportFingerprint> existing = new HashMap<>();
+            for (TaskRepository.ImportFingerprint fingerprint : taskRepository.findByImportKeyIn(keys)) {
+                existing.put(fingerprint.getImportKey(), fingerprint);
+            }
+            return existing;
         }
-        
-        return Optional.empty();
-    }
 
-    private String getStringCell(Row row, int index) {
-        Cell cell = row.getCell(index);
-        if (cell == null) {
-            return null;
+        private void saveInserts(List<Task> tasks, List<ParsedTaskRow> rows) {
+            if (tasks.isEmpty()) {
+                return;
+            }
+            try {
+                taskService.createTasks(tasks, rollup);
+                progress.inserted += tasks.size();
+            } catch (Exception e) {
+                // Пакет откатился целиком: сохраняем строки по одной, чтобы найти ошибочные
+                log.warn("Пакет из {} задач не сохранён ({}), повтор по строкам", tasks.size(), e.getMessage());
+                for (int i = 0; i < tasks.size(); i++) {
+                    Task task = tasks.get(i);
+                    task.setId(null);
+                    try {
+                        taskService.createTask(task, rollup);
+                        progress.inserted++;
+                    } catch (Exception rowError) {
+                        rowFailed(rows.get(i), rowError.getMessage());
+                    }
+                }
+            }
         }
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                return String.valueOf(cell.getNumericCellValue());
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            default:
-                return null;
+
+        private void saveUpdates(Map<Long, Task> tasks, Map<Long, ParsedTaskRow> rows) {
+            if (tasks.isEmpty()) {
+                return;
+            }
+            try {
+                progress.updated += taskService.updateImportedTasks(tasks, rollup);
+            } catch (Exception e) {
+                log.warn("Пакет из {} изменённых задач не сохранён ({}), повтор по строкам", tasks.size(), e.getMessage());
+                tasks.forEach((id, task) -> {
+                    try {
+                        progress.updated += taskService.updateImportedTasks(Map.of(id, task), rollup);
+                    } catch (Exception rowError) {
+                        rowFailed(rows.get(id), rowError.getMessage());
+                    }
+                });
+            }
+        }
+
+        private void rowFailed(ParsedTaskRow row, String message) {
+            log.error("Ошибка обработки строки {} (№{}): {}", row.getRowNum(), row.getRowNumber(), message);
+            progress.addError(row.getRowNum(), row.describeError(message));
         }
     }
 
-    private LocalDate getDateCell(Row row, int index) {
-        Cell cell = row.getCell(index);
-        if (cell == null) {
-            return null;
+    private static final class ImportProgress {
+        private final ImportProgressListener listener;
+        private final List<RowError> errors = new ArrayList<>();
+        private int total;
+        private int inserted;
+        private int updated;
+        private int unchanged;
+
+        private ImportProgress(ImportProgressListener listener) {
+            this.listener = listener;
         }
-        if (cell.getCellType() == org.apache.poi.ss.usermodel.CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-            return cell.getDateCellValue().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+
+        private void addError(int rowNum, String message) {
+            errors.add(new RowError(rowNum, message));
         }
-        String value = getStringCell(row, index);
-        if (value == null || value.isBlank()) {
-            return null;
+
+        private List<String> sortedErrors() {
+            // Ошибки пакета обнаруживаются позже ошибок разбора, поэтому упорядочиваем по номеру строки
+            return errors.stream()
+                    .sorted(Comparator.comparingInt(RowError::rowNum))
+                    .map(RowError::message)
+                    .toList();
         }
 
-        String trimmed = value.trim();
-        String firstToken = trimmed.split("\\s+")[0];
-        try {
-            if (firstToken.matches("\\d{2}\\.\\d{2}\\.\\d{4}")) {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-                return LocalDate.parse(firstToken, formatter);
-            }
-            return LocalDate.parse(firstToken);
-        } catch (DateTimeParseException e) {
-            return null;
+        private void report() {
+            listener.onProgress(total, inserted + updated + unchanged, errors.size());
         }
     }
 
-    private Task.TaskStatus resolveStatus(String statusStr) {
-        if (statusStr == null || statusStr.isBlank()) {
-            return Task.TaskStatus.NOT_STARTED;
-        }
-        String normalized = statusStr.trim().toUpperCase();
-        switch (normalized) {
-            case "NOT_STARTED":
-            case "НЕ НАЧАТА":
-                return Task.TaskStatus.NOT_STARTED;
-            case "IN_PROGRESS":
-            case "В РАБОТЕ":
-                return Task.TaskStatus.IN_PROGRESS;
-            case "COMPLETED":
-            case "ЗАВЕРШЕНА":
-                return Task.TaskStatus.COMPLETED;
-            case "ON_HOLD":
-            case "ПРИОСТАНОВЛЕНА":
-                return Task.TaskStatus.ON_HOLD;
-            case "CANCELLED":
-            case "ОТМЕНЕНА":
-                return Task.TaskStatus.CANCELLED;
-            default:
-                return Task.TaskStatus.NOT_STARTED;
-        }
+    private record RowError(int rowNum, String message) {
     }
 }
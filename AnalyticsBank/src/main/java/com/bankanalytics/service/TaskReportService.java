@@ -2,6 +2,9 @@ package com.bankanalytics.service;
 
 import com.bankanalytics.entity.TaskReport;
 import com.bankanalytics.repository.TaskReportRepository;
+import com.bankanalytics.dto.KeysetPage;
+import com.bankanalytics.repository.KeysetPaginator;
+import com.bankanalytics.repository.ListFilters;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,12 +21,19 @@ import java.util.Optional;
 public class TaskReportService {
     
     private final TaskReportRepository taskReportRepository;
+    private final KeysetPaginator keysetPaginator;
     
     public List<TaskReport> getAllTaskReports() {
         log.debug("Fetching all task reports");
         return taskReportRepository.findAll();
     }
     
+    public KeysetPage<TaskReport> findTaskReports(Long taskId, Long reportId, Long after, Integer limit) {
+        log.debug("Fetching task reports page after {} (limit {})", after, limit);
+        return keysetPaginator.findAfter(TaskReport.class, ListFilters.taskReports(taskId, reportId), after, limit,
+                "task", "report");
+    }
+    
     public Optional<TaskReport> getTaskReportById(Long id) {
         log.debug("Fetching task report by id: {}", id);
         return taskReportRepository.findById(id);
@@ -0,0 +1,120 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.dto.TaskExcelRowDto;
+import com.bankanalytics.entity.Task;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Pattern;
+
+/**
+ * Maps sheet columns B..N to {@link TaskExcelRowDto} and validates values that do
+ * not need the database. Stateless, so it can run on several threads at once.
+ */
+@Component
+@Slf4j
+public class TaskRowParser {
+
+    private static final Pattern DOTTED_DATE = Pattern.compile("\\d{2}\\.\\d{2}\\.\\d{4}");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final DateTimeFormatter DOTTED_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    /**
+     * @param rowNum 1-based sheet row number used in error messages
+     * @return parsed row, or {@code null} when the row has no "№" and is not counted
+     */
+    ParsedTaskRow parse(int rowNum, String[] cells) {
+        String rowNumber = cells[0];
+        if (rowNumber == null || rowNumber.trim().isEmpty()) {
+            log.debug("Пропускаем строку {} - нет номера", rowNum);
+            return null;
+        }
+
+        TaskExcelRowDto row = new TaskExcelRowDto();
+        row.setRowNumber(rowNumber);
+        row.setDivisionName(cells[1]);     // B: Наименование блока (подразделение)
+        row.setInitiativeName(cells[2]);   // C: ИНИЦИАТИВА (цель)
+        row.setTaskTitle(cells[3]);        // D: ЗАДАЧИ И МЕРОПРИЯТИЯ
+        row.setTaskDescription(cells[4]);  // E: ОПИСАНИЕ ЗАДАЧИ
+        row.setExpectedResult(cells[5]);   // F: Показатель результата
+        row.setResponsibleName(cells[6]);  // G: ОТВЕТСТВЕННЫЙ ИСПОЛНИТЕЛЬ (блок)
+        row.setTargetValue(cells[7]);      // H: Целевое значение
+        row.setStatusText(cells[8]);       // I: Статус
+        row.setStartDate(parseDate(cells[10])); // K: Плановая дата начала
+        row.setEndDate(parseDate(cells[11]));   // L: Плановая дата окончания
+        row.setActualResult(cells[12]);    // M: Фактический результат
+        row.setImpact(cells[13]);          // N: Оценочный эффект
+
+        if (row.getDivisionName() == null || row.getDivisionName().isBlank()) {
+            return ParsedTaskRow.skipped(rowNum, rowNumber);
+        }
+
+        if (row.getInitiativeName() == null || row.getInitiativeName().isBlank()) {
+            return ParsedTaskRow.invalid(rowNum, rowNumber, "Пустое наименование инициативы");
+        }
+
+        String progressStr = cells[9];     // J: Прогресс
+        if (progressStr != null && !progressStr.isBlank()) {
+            try {
+                row.setProgress(Integer.parseInt(progressStr.trim()));
+            } catch (NumberFormatException e) {
+                return ParsedTaskRow.invalid(rowNum, rowNumber, "Некорректный прогресс: " + progressStr);
+            }
+        }
+
+        // Та же проверка, что в TaskService, чтобы неверная строка не откатывала весь пакет вставки
+        if (row.getStartDate() != null && row.getEndDate() != null && row.getStartDate().isAfter(row.getEndDate())) {
+            return ParsedTaskRow.invalid(rowNum, rowNumber, "Start date cannot be after end date");
+        }
+
+        row.setStatus(resolveStatus(row.getStatusText()));
+        row.setImportKey(ImportFingerprints.rowKey(rowNumber, row.getDivisionName(), row.getInitiativeName()));
+        row.setImportHash(ImportFingerprints.contentHash(cells));
+        return ParsedTaskRow.valid(rowNum, row);
+    }
+
+    private LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        String firstToken = WHITESPACE.split(value.trim(), 2)[0];
+        try {
+            if (DOTTED_DATE.matcher(firstToken).matches()) {
+                return LocalDate.parse(firstToken, DOTTED_DATE_FORMAT);
+            }
+            return LocalDate.parse(firstToken);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private Task.TaskStatus resolveStatus(String statusStr) {
+        if (statusStr == null || statusStr.isBlank()) {
+            return Task.TaskStatus.NOT_STARTED;
+        }
+        String normalized = statusStr.trim().toUpperCase();
+        switch (normalized) {
+            case "NOT_STARTED":
+            case "НЕ НАЧАТА":
+                return Task.TaskStatus.NOT_STARTED;
+            case "IN_PROGRESS":
+            case "В РАБОТЕ":
+                return Task.TaskStatus.IN_PROGRESS;
+            case "COMPLETED":
+            case "ЗАВЕРШЕНА":
+                return Task.TaskStatus.COMPLETED;
+            case "ON_HOLD":
+            case "ПРИОСТАНОВЛЕНА":
+                return Task.TaskStatus.ON_HOLD;
+            case "CANCELLED":
+            case "ОТМЕНЕНА":
+                return Task.TaskStatus.CANCELLED;
+            default:
+                return Task.TaskStatus.NOT_STARTED;
+        }
+    }
+}
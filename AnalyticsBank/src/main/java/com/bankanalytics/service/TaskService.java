@@ -4,13 +4,24 @@ import com.bankanalytics.entity.Goal;
 import com.bankanalytics.entity.Task;
 import com.bankanalytics.repository.GoalRepository;
 import com.bankanalytics.repository.TaskRepository;
+import com.bankanalytics.dto.KeysetPage;
+import com.bankanalytics.dto.ResourceVersion;
+import com.bankanalytics.dto.TaskDto;
+import com.bankanalytics.dto.TaskSummaryDto;
+import com.bankanalytics.repository.DtoProjections;
+import com.bankanalytics.repository.KeysetPaginator;
+import com.bankanalytics.repository.ListFilters;
+import com.bankanalytics.config.QueryCacheConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -21,12 +32,101 @@ public class TaskService {
     
     private final TaskRepository taskRepository;
     private final GoalRepository goalRepository;
+    private final KeysetPaginator keysetPaginator;
+    private final RollupService rollupService;
+    private final TableVersions tableVersions;
     
     public List<Task> getAllTasks() {
         log.debug("Fetching all tasks");
         return taskRepository.findAll();
     }
     
+    /**
+     * Read methods returning DTOs select straight into them instead of loading managed entities.
+     */
+    @Cacheable(cacheNames = QueryCacheConfig.TASK_QUERIES, sync = true)
+    public KeysetPage<TaskDto> findTasks(Long divisionId, Long goalId, Task.TaskStatus status, Long userId,
+                                         LocalDate from, LocalDate to, Long after, Integer limit) {
+        log.debug("Fetching tasks page after {} (limit {})", after, limit);
+        return keysetPaginator.findAfter(Task.class, DtoProjections.TASK,
+                ListFilters.tasks(divisionId, goalId, status, userId, from, to), after, limit);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.TASK_QUERIES, sync = true)
+    public KeysetPage<TaskSummaryDto> findTaskSummaries(Long divisionId, Long goalId, Task.TaskStatus status,
+                                                        Long userId, LocalDate from, LocalDate to,
+                                                        Long after, Integer limit) {
+        log.debug("Fetching task summaries page after {} (limit {})", after, limit);
+        return keysetPaginator.findAfter(Task.class, DtoProjections.TASK_SUMMARY,
+                ListFilters.tasks(divisionId, goalId, status, userId, from, to), after, limit);
+    }
+    
+    @Transactional(readOnly = true)
+    public ResourceVersion findTasksVersion(Long divisionId, Long goalId, Task.TaskStatus status, Long userId,
+                                            LocalDate from, LocalDate to, Long after, Integer limit) {
+        return keysetPaginator.versionOf(Task.class, ListFilters.tasks(divisionId, goalId, status, userId, from, to),
+                after, limit, "goal", "user");
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getTaskVersion(Long id) {
+        return keysetPaginator.versionOf(Task.class, id, "goal", "user");
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.TASK_QUERIES, sync = true)
+    public Optional<TaskDto> getTaskDto(Long id) {
+        log.debug("Fetching task dto by id: {}", id);
+        return taskRepository.findDtoById(id);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.TASK_QUERIES, sync = true)
+    public List<TaskDto> getTaskDtosByGoal(Long goalId) {
+        log.debug("Fetching task dtos for goal: {}", goalId);
+        return taskRepository.findDtosByGoalId(goalId);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.TASK_QUERIES, sync = true)
+    public List<TaskDto> getTaskDtosByUser(Long userId) {
+        log.debug("Fetching task dtos for user: {}", userId);
+        return taskRepository.findDtosByUserId(userId);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.TASK_QUERIES, sync = true)
+    public List<TaskDto> getTaskDtosByStatus(Task.TaskStatus status) {
+        log.debug("Fetching task dtos by status: {}", status);
+        return taskRepository.findDtosByStatus(status);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.TASK_QUERIES, sync = true)
+    public List<TaskDto> getOverdueTaskDtos() {
+        log.debug("Fetching overdue task dtos");
+        return taskRepository.findOverdueDtos();
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.TASK_QUERIES, sync = true)
+    public List<TaskDto> getTaskDtosByDateRange(LocalDate startDate, LocalDate endDate) {
+        log.debug("Fetching task dtos between {} and {}", startDate, endDate);
+        return taskRepository.findDtosByEndDateBetween(startDate, endDate);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.TASK_QUERIES, sync = true)
+    public List<TaskDto> getTaskDtosByGoalAndStatus(Long goalId, Task.TaskStatus status) {
+        log.debug("Fetching task dtos for goal {} with status {}", goalId, status);
+        return taskRepository.findDtosByGoalIdAndStatus(goalId, status);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.TASK_QUERIES, sync = true)
+    public List<TaskDto> getTaskDtosByUserAndStatus(Long userId, Task.TaskStatus status) {
+        log.debug("Fetching task dtos for user {} with status {}", userId, status);
+        return taskRepository.findDtosByUserIdAndStatus(userId, status);
+    }
+    
+    @Cacheable(cacheNames = QueryCacheConfig.TASK_QUERIES, sync = true)
+    public List<TaskDto> searchTaskDtos(String keyword) {
+        log.debug("Searching task dtos by keyword: {}", keyword);
+        return taskRepository.findDtosByKeyword(keyword);
+    }
+    
     public Optional<Task> getTaskById(Long id) {
         log.debug("Fetching task by id: {}", id);
         return taskRepository.findById(id);
@@ -58,8 +158,97 @@ public class TaskService {
     }
     
     public Task createTask(Task task) {
+        return createTask(task, null);
+    }
+    
+    /**
+     * Bulk-ingest variant: when {@code rollup} is given the goal progress is not
+     * recalculated per task, the goal is only recorded in the rollup and
+     * {@link #recalculateGoalProgress(GoalProgressRollup)} has to be called once the batch is done;
+     * it also refreshes the analytics rollups of the touched goals.
+     */
+    public Task createTask(Task task, GoalProgressRollup rollup) {
         log.info("Creating new task: {}", task.getTitle());
         
+        validateNewTask(task);
+        
+        Task savedTask = taskRepository.save(task);
+        tableVersions.bump(TableVersions.TASKS);
+        
+        // Обновляем прогресс цели
+        if (savedTask.getGoal() != null) {
+            if (rollup != null) {
+                rollup.touch(savedTask.getGoal().getId());
+            } else {
+                rollupService.taskAdded(savedTask);
+                updateGoalProgress(savedTask.getGoal().getId());
+            }
+        }
+        
+        return savedTask;
+    }
+    
+    /**
+     * Saves a batch of tasks in one transaction so that the inserts go out as JDBC batches.
+     * Goal progress is deferred to the rollup as in {@link #createTask(Task, GoalProgressRollup)}.
+     */
+    public List<Task> createTasks(List<Task> tasks, GoalProgressRollup rollup) {
+        log.info("Creating {} tasks", tasks.size());
+        
+        tasks.forEach(this::validateNewTask);
+        
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+        tableVersions.bump(TableVersions.TASKS);
+        for (Task savedTask : savedTasks) {
+            if (savedTask.getGoal() != null) {
+                rollup.touch(savedTask.getGoal().getId());
+            }
+        }
+        
+        return savedTasks;
+    }
+    
+    /**
+     * Applies re-imported sheet values to existing tasks. Only the fields that come from
+     * the sheet are overwritten; goal progress is deferred to the rollup.
+     *
+     * @param changes new values keyed by the id of the task to update
+     * @return number of tasks updated
+     */
+    public int updateImportedTasks(Map<Long, Task> changes, GoalProgressRollup rollup) {
+        log.info("Updating {} imported tasks", changes.size());
+        
+        List<Task> tasks = taskRepository.findAllById(changes.keySet());
+        tableVersions.bump(TableVersions.TASKS);
+        for (Task task : tasks) {
+            Task source = changes.get(task.getId());
+            validateNewTask(source);
+            if (task.getGoal() != null) {
+                rollup.touch(task.getGoal().getId());
+            }
+            
+            task.setTitle(source.getTitle());
+            task.setDescription(source.getDescription());
+            task.setExpectedResult(source.getExpectedResult());
+            task.setActualResult(source.getActualResult());
+            task.setImpact(source.getImpact());
+            task.setGoal(source.getGoal());
+            task.setUser(source.getUser());
+            task.setStartDate(source.getStartDate());
+            task.setEndDate(source.getEndDate());
+            task.setProgress(source.getProgress());
+            task.setStatus(source.getStatus());
+            task.setImportHash(source.getImportHash());
+            
+            if (task.getGoal() != null) {
+                rollup.touch(task.getGoal().getId());
+            }
+        }
+        
+        return tasks.size();
+    }
+    
+    private void validateNewTask(Task task) {
         if (task.getStartDate() != null && task.getEndDate() != null && 
             task.getStartDate().isAfter(task.getEndDate())) {
             throw new IllegalArgumentException("Start date cannot be after end date");
@@ -68,15 +257,16 @@ public class TaskService {
         if (task.getStatus() == null) {
             task.setStatus(Task.TaskStatus.NOT_STARTED);
         }
-        
-        Task savedTask = taskRepository.save(task);
-        
-        // Обновляем прогресс цели
-        if (savedTask.getGoal() != null) {
-            updateGoalProgress(savedTask.getGoal().getId());
+    }
+    
+    public void recalculateGoalProgress(GoalProgressRollup rollup) {
+        if (rollup.isEmpty()) {
+            return;
         }
-        
-        return savedTask;
+        int updated = goalRepository.recalculateProgress(rollup.getGoalIds(), LocalDateTime.now());
+        tableVersions.bump(TableVersions.GOALS);
+        log.info("Recalculated progress for {} goals ({} changed)", rollup.getGoalIds().size(), updated);
+        rollupService.refreshGoals(rollup.getGoalIds());
     }
 
     public Task updateTask(Long id, Task taskDetails) {
@@ -84,6 +274,7 @@ public class TaskService {
 
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+        RollupService.TaskState before = RollupService.TaskState.of(task);
 
         task.setTitle(taskDetails.getTitle());
         task.setDescription(taskDetails.getDescription());
@@ -98,6 +289,8 @@ public class TaskService {
         task.setUser(taskDetails.getUser());
 
         Task savedTask = taskRepository.save(task);
+        rollupService.taskChanged(before, savedTask);
+        tableVersions.bump(TableVersions.TASKS);
         
         // Обновляем прогресс цели
         if (savedTask.getGoal() != null) {
@@ -123,8 +316,11 @@ public class TaskService {
         
         // Обновляем прогресс цели
         goalRepository.findById(goalId).ifPresent(goal -> {
+            RollupService.GoalState before = RollupService.GoalState.of(goal);
             goal.setProgress(averageProgress);
             goalRepository.save(goal);
+            rollupService.goalChanged(before, goal);
+            tableVersions.bump(TableVersions.GOALS);
             log.info("Updated goal {} progress to {}%", goalId, averageProgress);
         });
     }
@@ -132,11 +328,12 @@ public class TaskService {
     public void deleteTask(Long id) {
         log.info("Deleting task with id: {}", id);
         
-        if (!taskRepository.existsById(id)) {
-            throw new RuntimeException("Task not found with id: " + id);
-        }
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
         
-        taskRepository.deleteById(id);
+        taskRepository.delete(task);
+        rollupService.taskRemoved(task);
+        tableVersions.bump(TableVersions.TASKS);
     }
     
     public List<Task> searchTasks(String keyword) {
@@ -146,9 +343,10 @@ public class TaskService {
     
     public long getTaskCountByGoal(Long goalId) {
         log.debug("Getting task count for goal: {}", goalId);
-        return taskRepository.countByGoalId(goalId);
+        return rollupService.getTaskCountByGoal(goalId);
     }
     
+    @Cacheable(cacheNames = QueryCacheConfig.TASK_QUERIES, sync = true)
     public long getTaskCountByUser(Long userId) {
         log.debug("Getting task count for user: {}", userId);
         return taskRepository.countByUserId(userId);
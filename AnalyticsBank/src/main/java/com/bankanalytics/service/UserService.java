@@ -1,9 +1,19 @@
 package com.bankanalytics.service;
 
+import com.bankanalytics.entity.NameNormalizer;
+import com.bankanalytics.entity.Task;
 import com.bankanalytics.entity.User;
 import com.bankanalytics.repository.UserRepository;
+import com.bankanalytics.dto.KeysetPage;
+import com.bankanalytics.dto.ResourceVersion;
+import com.bankanalytics.dto.UserDto;
+import com.bankanalytics.repository.DtoProjections;
+import com.bankanalytics.repository.KeysetPaginator;
+import com.bankanalytics.repository.ListFilters;
+import com.bankanalytics.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,12 +29,73 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final KeysetPaginator keysetPaginator;
+    private final TableVersions tableVersions;
+    private final PrincipalCache principalCache;
+    private final RollupService rollupService;
+    
+    @Value("${app.search.name-limit}")
+    private int nameLimit;
     
     public List<User> getAllUsers() {
         log.debug("Fetching all users");
         return userRepository.findAll();
     }
     
+    public KeysetPage<UserDto> findUsers(Long divisionId, User.UserRole role, Long after, Integer limit) {
+        log.debug("Fetching users page after {} (limit {})", after, limit);
+        return keysetPaginator.findAfter(User.class, DtoProjections.USER, ListFilters.users(divisionId, role),
+                after, limit);
+    }
+    
+    @Transactional(readOnly = true)
+    public ResourceVersion findUsersVersion(Long divisionId, User.UserRole role, Long after, Integer limit) {
+        return keysetPaginator.versionOf(User.class, ListFilters.users(divisionId, role), after, limit, "division");
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getUserVersion(Long id) {
+        return keysetPaginator.versionOf(User.class, id, "division");
+    }
+    
+    public Optional<UserDto> getUserDto(Long id) {
+        log.debug("Fetching user dto by id: {}", id);
+        return userRepository.findDtoById(id);
+    }
+    
+    public Optional<UserDto> getUserDtoByEmail(String email) {
+        log.debug("Fetching user dto by email: {}", email);
+        return userRepository.findDtoByEmail(email);
+    }
+    
+    public List<UserDto> getUserDtosByRole(User.UserRole role) {
+        log.debug("Fetching user dtos by role: {}", role);
+        return userRepository.findDtosByRole(role);
+    }
+    
+    public List<UserDto> getUserDtosByDivision(Long divisionId) {
+        log.debug("Fetching user dtos by division: {}", divisionId);
+        return userRepository.findDtosByDivisionId(divisionId);
+    }
+    
+    public List<UserDto> getUserDtosByDivisionAndRole(Long divisionId, User.UserRole role) {
+        log.debug("Fetching user dtos for division {} with role {}", divisionId, role);
+        return userRepository.findDtosByDivisionIdAndRole(divisionId, role);
+    }
+    
+    /**
+     * Trigram similarity search, best matches first; tolerates typos and partial names.
+     */
+    public List<UserDto> searchUserDtosByName(String name) {
+        log.debug("Searching user dtos by name: {}", name);
+        return userRepository.findSimilarDtos(NameNormalizer.normalize(name), nameLimit);
+    }
+    
+    public List<UserDto> getUserDtosByName(String name) {
+        log.debug("Fetching user dtos by exact name: {}", name);
+        return userRepository.findDtosByNormalizedName(NameNormalizer.normalize(name));
+    }
+    
     public Optional<User> getUserById(Long id) {
         log.debug("Fetching user by id: {}", id);
         return userRepository.findById(id);
@@ -55,7 +126,9 @@ public class UserService {
 
         user.setPasswordHash(passwordEncoder.encode(user.getPasswordHash()));
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        tableVersions.bump(TableVersions.USERS);
+        return savedUser;
     }
     
     public User updateUser(Long id, User userDetails) {
@@ -74,22 +147,31 @@ public class UserService {
             user.setPasswordHash(passwordEncoder.encode(userDetails.getPasswordHash()));
         }
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        // Имя сотрудника есть в DTO задач и отчётов
+        tableVersions.bump(TableVersions.USERS);
+        // Роль и подразделение по токену перечитаются при следующем запросе
+        principalCache.evict(id);
+        return savedUser;
     }
     
     public void deleteUser(Long id) {
         log.info("Deleting user with id: {}", id);
         
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found with id: " + id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        // Задачи и отчёты сотрудника удаляются каскадом, счётчики их целей уменьшаем сами
+        List<Task> tasks = List.copyOf(user.getTasks());
         
-        userRepository.deleteById(id);
+        userRepository.delete(user);
+        rollupService.tasksRemoved(tasks);
+        tableVersions.bump(TableVersions.USERS, TableVersions.TASKS, TableVersions.REPORTS);
+        principalCache.evict(id);
     }
     
     public List<User> searchUsersByName(String name) {
         log.debug("Searching users by name: {}", name);
-        return userRepository.findByNameContaining(name);
+        return userRepository.findSimilar(NameNormalizer.normalize(name), nameLimit);
     }
     
     public long getUserCountByDivision(Long divisionId) {
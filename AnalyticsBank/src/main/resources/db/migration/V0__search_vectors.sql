@@ -0,0 +1,21 @@
+-- Генерируемые колонки полнотекстового поиска. Сущности читают их через @Formula, поэтому
+-- обновление схемы Hibernate их не создаёт и не пытается сменить им тип.
+-- Версия 0: в новой базе колонки нужны раньше индексов из V1; в базах, где V1 уже применена,
+-- колонки созданы прежним маппингом, и IF NOT EXISTS оставляет их как есть.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('russian', coalesce(description, '')), 'B') ||
+    setweight(to_tsvector('russian', coalesce(expected_result, '') || ' ' ||
+        coalesce(actual_result, '') || ' ' || coalesce(impact, '')), 'C')) STORED;
+
+ALTER TABLE goals ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('russian', coalesce(description, '')), 'B')) STORED;
+
+ALTER TABLE reports ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('russian', coalesce(content, '')), 'B')) STORED;
+
+ALTER TABLE task_reports ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    to_tsvector('russian', coalesce(notes, ''))) STORED;
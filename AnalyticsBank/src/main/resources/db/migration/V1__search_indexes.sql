@@ -0,0 +1,22 @@
+-- Индексы полнотекстового поиска и поиска по имени; колонки search_vector и name_normalized
+-- генерирует база, их объявляют сущности. IF NOT EXISTS - индексы могли остаться от старта
+-- до появления миграций.
+
+CREATE INDEX IF NOT EXISTS idx_tasks_search_vector ON tasks USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_goals_search_vector ON goals USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_reports_search_vector ON reports USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_task_reports_search_vector ON task_reports USING GIN (search_vector);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_divisions_name_trgm ON divisions USING GIN (name_normalized gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING GIN (name_normalized gin_trgm_ops);
+
+-- Однофамильцы допустимы, одноимённые подразделения - нет. Если дубликаты уже есть,
+-- миграция не падает: индекс не создаётся, пока их не сольют вручную.
+CREATE INDEX IF NOT EXISTS idx_users_name_normalized ON users (name_normalized);
+DO $$
+BEGIN
+    CREATE UNIQUE INDEX IF NOT EXISTS ux_divisions_name_normalized ON divisions (name_normalized);
+EXCEPTION WHEN unique_violation THEN
+    RAISE WARNING 'ux_divisions_name_normalized not created: duplicate division names';
+END $$;
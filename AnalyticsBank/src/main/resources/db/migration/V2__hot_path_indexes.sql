@@ -0,0 +1,30 @@
+-- Составные и частичные индексы под фильтры репозиториев и списковых эндпоинтов.
+-- PostgreSQL не индексирует внешние ключи сам, поэтому ведущая колонка каждого индекса -
+-- ключ связи: поиск только по нему тоже идёт по индексу.
+
+-- TaskRepository: по цели и по исполнителю, с уточнением статуса и без
+CREATE INDEX IF NOT EXISTS idx_tasks_goal_status ON tasks (goal_id, status);
+CREATE INDEX IF NOT EXISTS idx_tasks_user_status ON tasks (user_id, status);
+-- Диапазоны дат окончания (findByEndDateBetween, фильтры from/to)
+CREATE INDEX IF NOT EXISTS idx_tasks_end_date_status ON tasks (end_date, status);
+-- Просроченные задачи: выполненные составляют большинство старых задач и в индекс не попадают
+CREATE INDEX IF NOT EXISTS idx_tasks_open_end_date ON tasks (end_date) WHERE status <> 'COMPLETED';
+
+-- GoalRepository: цели подразделения по сроку и все цели по сроку
+CREATE INDEX IF NOT EXISTS idx_goals_division_deadline ON goals (division_id, deadline);
+CREATE INDEX IF NOT EXISTS idx_goals_deadline ON goals (deadline);
+
+-- ReportRepository: отчёты подразделения за период, отчёты автора, лента по дате
+CREATE INDEX IF NOT EXISTS idx_reports_division_date ON reports (division_id, report_date);
+CREATE INDEX IF NOT EXISTS idx_reports_user_division ON reports (user_id, division_id);
+CREATE INDEX IF NOT EXISTS idx_reports_report_date ON reports (report_date);
+
+-- TaskReportRepository: комментарии задачи и состав отчёта
+CREATE INDEX IF NOT EXISTS idx_task_reports_task_report ON task_reports (task_id, report_id);
+CREATE INDEX IF NOT EXISTS idx_task_reports_report ON task_reports (report_id);
+
+-- UserRepository: сотрудники подразделения, в том числе с ролью
+CREATE INDEX IF NOT EXISTS idx_users_division_role ON users (division_id, role);
+
+-- Блоки читаются вместе с подразделением (fetch join в DivisionRepository)
+CREATE INDEX IF NOT EXISTS idx_division_blocks_division ON division_blocks (division_id);
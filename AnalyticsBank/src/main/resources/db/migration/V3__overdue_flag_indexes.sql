@@ -0,0 +1,9 @@
+-- Частичные индексы по флагам overdue и completed: в индекс попадают только просроченные
+-- и выполненные строки, поэтому /tasks/overdue, /goals/overdue и /goals/completed читают
+-- ровно свой результат, сколько бы строк ни было в таблице.
+CREATE INDEX IF NOT EXISTS idx_tasks_overdue ON tasks (id) WHERE overdue;
+CREATE INDEX IF NOT EXISTS idx_goals_overdue ON goals (id) WHERE overdue;
+CREATE INDEX IF NOT EXISTS idx_goals_completed ON goals (id) WHERE completed;
+
+-- Строки, созданные до появления флагов, получили overdue = false; до первой ночной
+-- смены даты их выставляет DeadlineRolloverService при старте приложения.
@@ -0,0 +1,60 @@
+package com.bankanalytics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Контекст приложения поднимается целиком (бины, схема, миграции), а цепочка безопасности отвечает.
+ * Входит в обычный {@code mvn test}, чтобы ошибка запуска не доживала до бенчмарков.
+ */
+@AutoConfigureMockMvc
+class BankAnalyticsApplicationTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void contextLoads() throws Exception {
+        mockMvc.perform(get("/divisions")).andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"nobody@bank.test\",\"password\":\"wrong\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void restart_ShouldUpdateExistingSchemaWithoutErrors() {
+        // Второй запуск на уже созданной схеме: ошибка DDL при её обновлении прерывает старт,
+        // а не только пишется в лог. Без кэша второго уровня: менеджер JCache в JVM общий,
+        // и закрытие второго контекста закрыло бы его и для основного
+        String url = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+        try (ConfigurableApplicationContext restarted = new SpringApplicationBuilder(BankAnalyticsApplication.class)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--spring.jpa.properties.hibernate.hbm2ddl.halt_on_error=true",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.com.bankanalytics=WARN")) {
+            assertTrue(restarted.isActive());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.bankanalytics.benchmark;
+
+import com.bankanalytics.entity.User;
+import com.bankanalytics.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Пропускная способность аутентифицированных запросов: HTTP Basic (поиск пользователя и проверка
+ * BCrypt на каждый запрос) против токена из /auth/login. Запросы идут в несколько потоков, как
+ * параллельные вызовы дашборда. Выводит запросы в секунду и дописывает их в
+ * target/benchmarks/auth-throughput.csv.
+ * <p>
+ * Параметры: -Dbenchmark.auth.requests=400 -Dbenchmark.auth.threads=4
+ */
+@AutoConfigureMockMvc
+class AuthenticatedRequestBenchmarkTest extends EmbeddedPostgresBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.auth.requests", 400);
+    private static final int THREADS = Integer.getInteger("benchmark.auth.threads", 4);
+    private static final int WARM_UP = 20;
+    private static final String ENDPOINT = "/divisions";
+    private static final String EMAIL = "auth-benchmark@bank.test";
+    private static final String PASSWORD = "benchmark-password";
+    private static final Path RESULTS = Path.of("target", "benchmarks", "auth-throughput.csv");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void createUser() {
+        deleteUser();
+        User user = new User();
+        user.setName("Нагрузочный тест");
+        user.setEmail(EMAIL);
+        user.setPasswordHash(PASSWORD);
+        user.setRole(User.UserRole.EMPLOYEE);
+        userService.createUser(user);
+    }
+
+    @AfterEach
+    void deleteUser() {
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", EMAIL);
+        // Удаление мимо Hibernate: email в кэше natural id указывал бы на старую строку,
+        // а JPA evictAll() этот регион не очищает
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictNaturalIdData();
+    }
+
+    @Test
+    void tokenRequestsOutperformBasicAuthentication() throws Exception {
+        String basic = "Basic " + Base64.getEncoder()
+                .encodeToString((EMAIL + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        String bearer = "Bearer " + login();
+
+        double basicPerSecond = measure("basic", basic);
+        double tokenPerSecond = measure("token", bearer);
+
+        System.out.printf("GET %s with %d threads: basic %.0f req/s, token %.0f req/s (x%.1f)%n",
+                ENDPOINT, THREADS, basicPerSecond, tokenPerSecond, tokenPerSecond / basicPerSecond);
+        assertTrue(tokenPerSecond > basicPerSecond,
+                () -> String.format("token %.0f req/s is not faster than basic %.0f req/s", tokenPerSecond, basicPerSecond));
+    }
+
+    private String login() throws Exception {
+        String body = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginBody(EMAIL, PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+
+    private double measure(String scheme, String authorization) throws Exception {
+        for (int i = 0; i < WARM_UP; i++) {
+            request(authorization);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(executor.submit(() -> {
+                    request(authorization);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            double perSecond = REQUESTS * 1000.0 / millis;
+            record(scheme, millis, perSecond);
+            return perSecond;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void request(String authorization) throws Exception {
+        mockMvc.perform(get(ENDPOINT).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk());
+    }
+
+    private void record(String scheme, long millis, double perSecond) throws IOException {
+        Files.createDirectories(RESULTS.getParent());
+        if (Files.notExists(RESULTS)) {
+            Files.writeString(RESULTS, "timestamp,scheme,endpoint,requests,threads,millis,requests_per_second\n",
+                    StandardCharsets.UTF_8);
+        }
+        String line = String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%.0f%n",
+                LocalDateTime.now(), scheme, ENDPOINT, REQUESTS, THREADS, millis, perSecond);
+        Files.writeString(RESULTS, line, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private record LoginBody(String email, String password) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.bankanalytics.benchmark;
+
+import com.bankanalytics.EmbeddedPostgresTest;
+import org.junit.jupiter.api.Tag;
+
+/**
+ * Общая основа бенчмарков: контекст и встроенный PostgreSQL из {@link EmbeddedPostgresTest},
+ * тег {@code benchmark} исключает их из обычного {@code mvn test}.
+ */
+@Tag("benchmark")
+abstract class EmbeddedPostgresBenchmark extends EmbeddedPostgresTest {
+}
@@ -0,0 +1,67 @@
+package com.bankanalytics.benchmark;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Загрузка, читаемая с диска: в отличие от MockMultipartFile не держит файл в памяти
+ * и не искажает замер пикового heap.
+ */
+class PathMultipartFile implements MultipartFile {
+
+    private final Path file;
+
+    PathMultipartFile(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return file.getFileName().toString();
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(file);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.copy(file, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,146 @@
+package com.bankanalytics.benchmark;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Генерирует .xlsx план мероприятий в раскладке колонок, которую ожидает импорт:
+ * строка заголовков с "№" в колонке A и данные в колонках A..N.
+ * Содержимое детерминировано значением seed.
+ */
+class PlanWorkbookGenerator {
+
+    private static final String[] HEADERS = {
+            "№",
+            "Наименование блока",
+            "ИНИЦИАТИВА",
+            "ЗАДАЧИ И МЕРОПРИЯТИЯ",
+            "ОПИСАНИЕ ЗАДАЧИ",
+            "Показатель результата",
+            "ОТВЕТСТВЕННЫЙ ИСПОЛНИТЕЛЬ",
+            "Целевое значение",
+            "Статус",
+            "Прогресс, %",
+            "Плановая дата начала",
+            "Плановая дата окончания",
+            "Фактический результат",
+            "Оценочный эффект"
+    };
+
+    private static final String[] STATUSES = {"Не начата", "В работе", "В работе", "Завершена", "Приостановлена", ""};
+
+    private static final String[] WORDS = {
+            "внедрение", "процесса", "автоматизация", "отчётности", "клиентов", "розничного", "бизнеса",
+            "снижение", "операционных", "рисков", "развитие", "цифровых", "каналов", "продаж", "кредитного",
+            "портфеля", "оптимизация", "затрат", "повышение", "качества", "обслуживания", "сети", "отделений"
+    };
+
+    private static final DateTimeFormatter DOTTED_DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final LocalDate PLAN_START = LocalDate.of(2025, 1, 1);
+
+    private final int rows;
+    private final int divisions;
+    private final int initiativesPerDivision;
+    private final long seed;
+
+    PlanWorkbookGenerator(int rows, int divisions, int initiativesPerDivision, long seed) {
+        this.rows = rows;
+        this.divisions = divisions;
+        this.initiativesPerDivision = initiativesPerDivision;
+        this.seed = seed;
+    }
+
+    Path write(Path target) throws IOException {
+        Random random = new Random(seed);
+        // SXSSF держит в памяти только окно строк, поэтому 100k строк генерируются без большого heap
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        try (OutputStream out = Files.newOutputStream(target)) {
+            Sheet sheet = workbook.createSheet("План");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd.mm.yyyy"));
+
+            sheet.createRow(0).createCell(0).setCellValue("План мероприятий по реализации стратегии Банка");
+            Row header = sheet.createRow(2);
+            for (int c = 0; c < HEADERS.length; c++) {
+                header.createCell(c).setCellValue(HEADERS[c]);
+            }
+
+            for (int i = 0; i < rows; i++) {
+                writeRow(sheet.createRow(i + 3), i, random, dateStyle);
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+        return target;
+    }
+
+    private void writeRow(Row row, int index, Random random, CellStyle dateStyle) {
+        int division = index % divisions + 1;
+        int initiative = (index / divisions) % initiativesPerDivision + 1;
+        LocalDate start = PLAN_START.plusDays(random.nextInt(365));
+        LocalDate end = start.plusDays(30 + random.nextInt(300));
+
+        row.createCell(0).setCellValue(index + 1);
+        row.createCell(1).setCellValue("Блок " + division);
+        row.createCell(2).setCellValue(initiativeName(division, initiative));
+        row.createCell(3).setCellValue(capitalize(phrase(random, 5)));
+        row.createCell(4).setCellValue(capitalize(phrase(random, 20 + random.nextInt(40))));
+        row.createCell(5).setCellValue(capitalize(phrase(random, 6)));
+        row.createCell(6).setCellValue("Управление " + division + "." + (random.nextInt(5) + 1));
+        row.createCell(7).setCellValue(random.nextInt(1000) * 10);
+        row.createCell(8).setCellValue(STATUSES[random.nextInt(STATUSES.length)]);
+        row.createCell(9).setCellValue(random.nextInt(11) * 10);
+
+        Cell startCell = row.createCell(10);
+        startCell.setCellValue(start);
+        startCell.setCellStyle(dateStyle);
+        // В реальных планах часть дат введена текстом
+        if (random.nextBoolean()) {
+            row.createCell(11).setCellValue(end.format(DOTTED_DATE));
+        } else {
+            Cell endCell = row.createCell(11);
+            endCell.setCellValue(end);
+            endCell.setCellStyle(dateStyle);
+        }
+
+        if (random.nextInt(3) == 0) {
+            row.createCell(12).setCellValue(capitalize(phrase(random, 10)));
+        }
+        row.createCell(13).setCellValue(capitalize(phrase(random, 8)));
+    }
+
+    // Название зависит только от пары (подразделение, инициатива): в файле не больше divisions x initiatives целей
+    private String initiativeName(int division, int initiative) {
+        Random names = new Random(Objects.hash(seed, division, initiative));
+        return "Инициатива " + division + "." + initiative + ": " + phrase(names, 4);
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
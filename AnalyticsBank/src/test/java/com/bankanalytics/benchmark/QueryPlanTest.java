@@ -0,0 +1,357 @@
+package com.bankanalytics.benchmark;
+
+import com.bankanalytics.entity.Task;
+import com.bankanalytics.entity.User;
+import com.bankanalytics.repository.DivisionRepository;
+import com.bankanalytics.repository.GoalRepository;
+import com.bankanalytics.repository.ReportRepository;
+import com.bankanalytics.repository.TaskReportRepository;
+import com.bankanalytics.repository.TaskRepository;
+import com.bankanalytics.repository.UserRepository;
+import com.bankanalytics.service.DeadlineRolloverService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Планы запросов репозиториев на заполненной базе: ни один выборочный запрос не должен читать
+ * большую таблицу целиком. SQL берётся у Hibernate, план - общий (generic), тот самый, который
+ * драйвер начинает переиспользовать для prepared statement после нескольких вызовов.
+ * Запросы, которые по смыслу читают значимую долю таблицы (все задачи статуса, всё до даты),
+ * сюда не входят - для них полный просмотр честный.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.bankanalytics.benchmark.QueryPlanTest$SqlRecorder")
+class QueryPlanTest extends EmbeddedPostgresBenchmark {
+
+    private static final String PREFIX = "EXPLAIN ";
+    private static final String KEYWORD = "ипотека";
+    private static final int DIVISIONS = 100;
+    private static final int USERS = 5_000;
+    private static final int GOALS = 5_000;
+    private static final int TASKS = Integer.getInteger("benchmark.plan.tasks", 100_000);
+    private static final int REPORTS = 20_000;
+    private static final int TASK_REPORTS = 100_000;
+
+    // Подразделений мало, полный просмотр справочника дешевле индекса
+    private static final Set<String> LARGE_TABLES = Set.of("tasks", "goals", "reports", "task_reports", "users");
+
+    // Таблицы, на которые ссылаются задачи, отчёты и комментарии. Для нескольких сотен найденных строк
+    // планировщику дешевле один раз прочитать такую таблицу в хэш-соединение, чем искать каждую строку
+    // по первичному ключу; без фильтра и внутри соединения этот просмотр не ошибка
+    private static final Set<String> REFERENCED_TABLES = Set.of("goals", "users", "reports");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DivisionRepository divisionRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private TaskReportRepository taskReportRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeadlineRolloverService deadlineRolloverService;
+
+    private long divisionId;
+    private long userId;
+    private long goalId;
+    private long taskId;
+    private long reportId;
+
+    Stream<Arguments> queries() {
+        LocalDate from = LocalDate.now().plusDays(10);
+        LocalDate to = from.plusDays(7);
+        return Stream.of(
+                query("TaskRepository.findByGoalId", () -> taskRepository.findByGoalId(goalId)),
+                query("TaskRepository.findByUserId", () -> taskRepository.findByUserId(userId)),
+                query("TaskRepository.findByEndDateBetween", () -> taskRepository.findByEndDateBetween(from, to)),
+                query("TaskRepository.findByGoalIdAndStatus",
+                        () -> taskRepository.findByGoalIdAndStatus(goalId, Task.TaskStatus.IN_PROGRESS)),
+                query("TaskRepository.findByUserIdAndStatus",
+                        () -> taskRepository.findByUserIdAndStatus(userId, Task.TaskStatus.IN_PROGRESS)),
+                query("TaskRepository.countByGoalId", () -> taskRepository.countByGoalId(goalId)),
+                query("TaskRepository.countByUserId", () -> taskRepository.countByUserId(userId)),
+                query("TaskRepository.findByKeyword", () -> taskRepository.findByKeyword(KEYWORD)),
+                query("TaskRepository.findOverdueTasks", () -> taskRepository.findOverdueTasks()),
+                query("TaskRepository.findDtoById", () -> taskRepository.findDtoById(taskId)),
+                query("TaskRepository.findDtosByGoalId", () -> taskRepository.findDtosByGoalId(goalId)),
+                query("TaskRepository.findDtosByUserId", () -> taskRepository.findDtosByUserId(userId)),
+                query("TaskRepository.findDtosByEndDateBetween",
+                        () -> taskRepository.findDtosByEndDateBetween(from, to)),
+                query("TaskRepository.findDtosByGoalIdAndStatus",
+                        () -> taskRepository.findDtosByGoalIdAndStatus(goalId, Task.TaskStatus.IN_PROGRESS)),
+                query("TaskRepository.findDtosByUserIdAndStatus",
+                        () -> taskRepository.findDtosByUserIdAndStatus(userId, Task.TaskStatus.IN_PROGRESS)),
+                query("TaskRepository.findDtosByKeyword", () -> taskRepository.findDtosByKeyword(KEYWORD)),
+                query("TaskRepository.findOverdueDtos", () -> taskRepository.findOverdueDtos()),
+                query("TaskRepository.findByImportKeyIn",
+                        () -> taskRepository.findByImportKeyIn(List.of("key-1", "key-2"))),
+
+                query("GoalRepository.findByDivisionId", () -> goalRepository.findByDivisionId(divisionId)),
+                query("GoalRepository.findByDeadlineBetween", () -> goalRepository.findByDeadlineBetween(from, to)),
+                query("GoalRepository.findByDivisionIdAndDeadlineBetween",
+                        () -> goalRepository.findByDivisionIdAndDeadlineBetween(divisionId, from, to)),
+                query("GoalRepository.countByDivisionId", () -> goalRepository.countByDivisionId(divisionId)),
+                query("GoalRepository.findByKeyword", () -> goalRepository.findByKeyword(KEYWORD)),
+                query("GoalRepository.findDtosByDivisionId", () -> goalRepository.findDtosByDivisionId(divisionId)),
+                query("GoalRepository.findDtosByDeadlineBetween",
+                        () -> goalRepository.findDtosByDeadlineBetween(from, to)),
+                query("GoalRepository.findDtosByDivisionIdAndDeadlineBetween",
+                        () -> goalRepository.findDtosByDivisionIdAndDeadlineBetween(divisionId, from, to)),
+                query("GoalRepository.findDtosByKeyword", () -> goalRepository.findDtosByKeyword(KEYWORD)),
+                query("GoalRepository.findCompletedGoals", () -> goalRepository.findCompletedGoals()),
+                query("GoalRepository.findOverdueGoals", () -> goalRepository.findOverdueGoals()),
+                query("GoalRepository.findCompletedDtos", () -> goalRepository.findCompletedDtos()),
+                query("GoalRepository.findOverdueDtos", () -> goalRepository.findOverdueDtos()),
+
+                query("ReportRepository.findByUserId", () -> reportRepository.findByUserId(userId)),
+                query("ReportRepository.findByDivisionId", () -> reportRepository.findByDivisionId(divisionId)),
+                query("ReportRepository.findByReportDate", () -> reportRepository.findByReportDate(from)),
+                query("ReportRepository.findByReportDateBetween",
+                        () -> reportRepository.findByReportDateBetween(from, to)),
+                query("ReportRepository.findByUserIdAndDivisionId",
+                        () -> reportRepository.findByUserIdAndDivisionId(userId, divisionId)),
+                query("ReportRepository.findByDivisionIdAndReportDateBetween",
+                        () -> reportRepository.findByDivisionIdAndReportDateBetween(divisionId, from, to)),
+                query("ReportRepository.countByUserId", () -> reportRepository.countByUserId(userId)),
+                query("ReportRepository.countByDivisionId", () -> reportRepository.countByDivisionId(divisionId)),
+                query("ReportRepository.findByKeyword", () -> reportRepository.findByKeyword(KEYWORD)),
+                query("ReportRepository.findDtosByDivisionId",
+                        () -> reportRepository.findDtosByDivisionId(divisionId)),
+
+                query("TaskReportRepository.findByTaskId", () -> taskReportRepository.findByTaskId(taskId)),
+                query("TaskReportRepository.findByReportId", () -> taskReportRepository.findByReportId(reportId)),
+                query("TaskReportRepository.findByTaskIdAndReportId",
+                        () -> taskReportRepository.findByTaskIdAndReportId(taskId, reportId)),
+                query("TaskReportRepository.countByTaskId", () -> taskReportRepository.countByTaskId(taskId)),
+                query("TaskReportRepository.countByReportId", () -> taskReportRepository.countByReportId(reportId)),
+                query("TaskReportRepository.findByNotesContaining",
+                        () -> taskReportRepository.findByNotesContaining(KEYWORD)),
+
+                query("DivisionRepository.findSummaryById", () -> divisionRepository.findSummaryById(divisionId)),
+                query("DivisionRepository.findInUseById", () -> divisionRepository.findInUseById(divisionId)),
+
+                query("UserRepository.findByEmail", () -> userRepository.findByEmail("explain-1@bank.test")),
+                query("UserRepository.findByDivisionId", () -> userRepository.findByDivisionId(divisionId)),
+                query("UserRepository.findSimilar", () -> userRepository.findSimilar("сотрудник 42", 20)),
+                query("UserRepository.countByDivisionId", () -> userRepository.countByDivisionId(divisionId)),
+                query("UserRepository.findByDivisionIdAndRole",
+                        () -> userRepository.findByDivisionIdAndRole(divisionId, User.UserRole.ADMIN)),
+                query("UserRepository.findDtosByDivisionId", () -> userRepository.findDtosByDivisionId(divisionId)),
+                query("UserRepository.findDtosByDivisionIdAndRole",
+                        () -> userRepository.findDtosByDivisionIdAndRole(divisionId, User.UserRole.ADMIN)),
+                query("UserRepository.findSimilarDtos", () -> userRepository.findSimilarDtos("сотрудник 42", 20)),
+                query("UserRepository.findDtosByNormalizedName",
+                        () -> userRepository.findDtosByNormalizedName("explain сотрудник 42")));
+    }
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+
+        jdbcTemplate.update("INSERT INTO divisions (id, name, created_at) " +
+                "SELECT nextval('divisions_seq'), ? || 'Подразделение ' || i, now() " +
+                "FROM generate_series(1, ?) i", PREFIX, DIVISIONS);
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password_hash, role, division_id, created_at) " +
+                "SELECT nextval('users_seq'), ? || 'Сотрудник ' || i, 'explain-' || i || '@bank.test', " +
+                "       '{noop}password', CASE WHEN i % 10 = 0 THEN 'ADMIN' ELSE 'EMPLOYEE' END, " +
+                "       d.ids[1 + i % cardinality(d.ids)], now() " +
+                "FROM generate_series(1, ?) i, " + ids("divisions", "name", "d"), PREFIX, USERS);
+        jdbcTemplate.update("INSERT INTO goals (id, title, description, target_value, current_value, deadline, " +
+                "                   progress, division_id, created_at) " +
+                "SELECT nextval('goals_seq'), ? || 'Цель ' || i || CASE WHEN i % 500 = 0 THEN ' ' || ? ELSE '' END, " +
+                "       'Описание цели ' || i, 100, CASE WHEN i % 100 = 0 THEN 100 ELSE i % 100 END, " +
+                "       CURRENT_DATE - 10 + i % 1000, CASE WHEN i % 100 = 0 THEN 100 ELSE i % 100 END, " +
+                "       d.ids[1 + i % cardinality(d.ids)], now() " +
+                "FROM generate_series(1, ?) i, " + ids("divisions", "name", "d"), PREFIX, KEYWORD, GOALS);
+        // Старые задачи почти все выполнены, поэтому просроченных - доли процента, как в живой базе
+        jdbcTemplate.update("INSERT INTO tasks (id, title, description, status, progress, start_date, end_date, " +
+                "                   goal_id, user_id, created_at) " +
+                "SELECT nextval('tasks_seq'), ? || 'Задача ' || i || CASE WHEN i % 1000 = 0 THEN ' ' || ? ELSE '' END, " +
+                "       'Описание задачи ' || i, " +
+                "       CASE WHEN e.end_date >= CURRENT_DATE " +
+                "            THEN (ARRAY['NOT_STARTED', 'IN_PROGRESS', 'ON_HOLD', 'COMPLETED'])[1 + i % 4] " +
+                "            WHEN i % 100 = 0 THEN 'IN_PROGRESS' ELSE 'COMPLETED' END, " +
+                "       i % 101, e.end_date - 30, e.end_date, " +
+                "       g.ids[1 + i % cardinality(g.ids)], u.ids[1 + (i / 7) % cardinality(u.ids)], now() " +
+                "FROM generate_series(1, ?) i " +
+                "CROSS JOIN LATERAL (SELECT CURRENT_DATE - 1000 + i % 1400 AS end_date) e, " +
+                ids("goals", "title", "g") + ", " + ids("users", "name", "u"), PREFIX, KEYWORD, TASKS);
+        jdbcTemplate.update("INSERT INTO reports (id, title, report_date, content, user_id, division_id, created_at) " +
+                "SELECT nextval('reports_seq'), ? || 'Отчёт ' || i || CASE WHEN i % 500 = 0 THEN ' ' || ? ELSE '' END, " +
+                "       CURRENT_DATE - i % 730, 'Содержание отчёта ' || i, " +
+                "       u.ids[1 + i % cardinality(u.ids)], d.ids[1 + i % cardinality(d.ids)], now() " +
+                "FROM generate_series(1, ?) i, " + ids("users", "name", "u") + ", " + ids("divisions", "name", "d"),
+                PREFIX, KEYWORD, REPORTS);
+        jdbcTemplate.update("INSERT INTO task_reports (id, task_id, report_id, progress, notes, created_at) " +
+                "SELECT nextval('task_reports_seq'), t.ids[1 + i % cardinality(t.ids)], " +
+                "       r.ids[1 + i % cardinality(r.ids)], i % 101, " +
+                "       'Комментарий ' || i || CASE WHEN i % 1000 = 0 THEN ' ' || ? ELSE '' END, now() " +
+                "FROM generate_series(1, ?) i, " + ids("tasks", "title", "t") + ", " + ids("reports", "title", "r"),
+                KEYWORD, TASK_REPORTS);
+        // Флаги overdue засеянных строк выставляет та же ночная задача, что и в приложении
+        deadlineRolloverService.rollOver();
+        // VACUUM переносит строки из списка ожидания GIN-индексов в сам индекс, как autovacuum в живой базе.
+        // После одного ANALYZE планировщик учитывает весь список ожидания и отказывается от триграммного индекса
+        jdbcTemplate.execute("VACUUM ANALYZE");
+
+        divisionId = firstId("divisions", "name");
+        userId = firstId("users", "name");
+        goalId = firstId("goals", "title");
+        taskId = firstId("tasks", "title");
+        reportId = firstId("reports", "title");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM task_reports WHERE report_id IN (SELECT id FROM reports WHERE title LIKE ?)",
+                PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM tasks WHERE title LIKE ?", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM reports WHERE title LIKE ?", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM goals WHERE title LIKE ?", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM users WHERE name LIKE ?", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM divisions WHERE name LIKE ?", PREFIX + "%");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void queryDoesNotScanLargeTables(String name, Runnable call) throws Exception {
+        // Сущности, загруженные предыдущими запросами, и кэш natural id ответили бы без SQL
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        SqlRecorder.STATEMENTS.clear();
+        call.run();
+        List<String> selects = SqlRecorder.STATEMENTS.stream()
+                .filter(sql -> sql.stripLeading().toLowerCase().startsWith("select"))
+                .toList();
+        assertFalse(selects.isEmpty(), () -> name + " ran no select");
+
+        String sql = selects.get(0);
+        JsonNode plan = explain(sql);
+        List<String> scans = new ArrayList<>();
+        collectSeqScans(plan, false, scans);
+        assertTrue(scans.isEmpty(), () -> name + " scans " + scans + "\n" + sql + "\n" + plan.toPrettyString());
+    }
+
+    private JsonNode explain(String sql) throws Exception {
+        StringBuilder positional = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                positional.append('$').append(++parameters);
+            } else {
+                positional.append(c);
+            }
+        }
+        String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+
+        String json = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                // Общий план не зависит от значений параметров, поэтому в EXECUTE хватает NULL
+                statement.execute("SET plan_cache_mode = force_generic_plan");
+                statement.execute("PREPARE plan_check AS " + positional);
+                try (ResultSet rs = statement.executeQuery("EXPLAIN (FORMAT JSON) EXECUTE plan_check" + arguments)) {
+                    rs.next();
+                    return rs.getString(1);
+                } finally {
+                    statement.execute("DEALLOCATE plan_check");
+                    statement.execute("RESET plan_cache_mode");
+                }
+            }
+        });
+        return objectMapper.readTree(json).get(0).get("Plan");
+    }
+
+    /**
+     * Полные просмотры больших таблиц. Вход хэш- или merge-соединения без фильтра по таблице из
+     * {@link #REFERENCED_TABLES} пропускается: строки запроса отобраны индексом по другой таблице.
+     * Внутренняя сторона Nested Loop так не считается - её просмотр повторялся бы на каждую строку.
+     */
+    private static void collectSeqScans(JsonNode node, boolean joinInput, List<String> scans) {
+        String type = node.path("Node Type").asText();
+        String relation = node.path("Relation Name").asText();
+        if ("Seq Scan".equals(type) && LARGE_TABLES.contains(relation)
+                && !(joinInput && REFERENCED_TABLES.contains(relation) && !node.has("Filter"))) {
+            scans.add(relation);
+        }
+        boolean childJoinInput = "Hash Join".equals(type) || "Merge Join".equals(type)
+                || (joinInput && ("Hash".equals(type) || "Sort".equals(type)));
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, childJoinInput, scans);
+        }
+    }
+
+    private static Arguments query(String name, Runnable call) {
+        return Arguments.of(name, call);
+    }
+
+    /**
+     * Массив id засеянных строк таблицы: новые строки ссылаются на них по остатку от деления.
+     */
+    private static String ids(String table, String column, String alias) {
+        return "(SELECT array_agg(id ORDER BY id) AS ids FROM " + table + " WHERE " + column + " LIKE '" +
+                PREFIX + "%') " + alias;
+    }
+
+    private long firstId(String table, String column) {
+        return jdbcTemplate.queryForObject("SELECT MIN(id) FROM " + table + " WHERE " + column + " LIKE ?",
+                Long.class, PREFIX + "%");
+    }
+
+    /**
+     * Запоминает SQL, который Hibernate отправляет в базу, не меняя его.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
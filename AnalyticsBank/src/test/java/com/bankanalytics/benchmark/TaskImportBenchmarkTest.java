@@ -0,0 +1,128 @@
+package com.bankanalytics.benchmark;
+
+import com.bankanalytics.entity.TaskImportResult;
+import com.bankanalytics.service.TaskImportService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Импорт сгенерированных планов (по умолчанию 1 000 / 10 000 / 100 000 строк) через
+ * TaskImportService. Для каждого размера выводит строки в секунду, пиковый heap и число
+ * SQL-запросов Hibernate (пакет JDBC считается одним запросом) и дописывает их в
+ * target/benchmarks/task-import.csv.
+ * <p>
+ * Параметры: -Dbenchmark.import.rows=1000,10000 -Dbenchmark.import.divisions=10
+ * -Dbenchmark.import.initiatives=20 -Dbenchmark.import.min-rows-per-second=...
+ * (при заданном пороге более медленный импорт роняет тест).
+ */
+class TaskImportBenchmarkTest extends EmbeddedPostgresBenchmark {
+
+    private static final String ROWS = System.getProperty("benchmark.import.rows", "1000,10000,100000");
+    private static final int DIVISIONS = Integer.getInteger("benchmark.import.divisions", 10);
+    private static final int INITIATIVES = Integer.getInteger("benchmark.import.initiatives", 20);
+    private static final double MIN_ROWS_PER_SECOND =
+            Double.parseDouble(System.getProperty("benchmark.import.min-rows-per-second", "0"));
+    private static final Path RESULTS = Path.of("target", "benchmarks", "task-import.csv");
+
+    @TempDir
+    static Path workbooks;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    static Stream<Integer> rowCounts() {
+        return Arrays.stream(ROWS.split(",")).map(String::trim).map(Integer::valueOf);
+    }
+
+    @BeforeEach
+    void resetImportedData() {
+        // Каждый размер импортируется в пустую базу; подразделения пользователей из DataInitializer остаются
+        jdbcTemplate.update("DELETE FROM tasks");
+        jdbcTemplate.update("DELETE FROM imported_files");
+        jdbcTemplate.update("DELETE FROM goals");
+        jdbcTemplate.update("DELETE FROM division_blocks WHERE division_id NOT IN " +
+                "(SELECT division_id FROM users WHERE division_id IS NOT NULL)");
+        jdbcTemplate.update("DELETE FROM divisions WHERE id NOT IN " +
+                "(SELECT division_id FROM users WHERE division_id IS NOT NULL)");
+    }
+
+    @ParameterizedTest(name = "{0} rows")
+    @MethodSource("rowCounts")
+    void importGeneratedPlan(int rows) throws IOException {
+        Path workbook = new PlanWorkbookGenerator(rows, DIVISIONS, INITIATIVES, 42)
+                .write(workbooks.resolve("plan-" + rows + ".xlsx"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        statistics.clear();
+
+        long start = System.nanoTime();
+        TaskImportResult result = taskImportService.importFromExcel(new PathMultipartFile(workbook));
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        long statements = statistics.getPrepareStatementCount();
+        // Сумма пиков по пулам — верхняя оценка: пулы достигают пика в разные моменты
+        long peakHeapMb = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() / (1024 * 1024);
+        double rowsPerSecond = rows * 1000.0 / millis;
+
+        assertEquals(0, result.getErrorCount(), () -> String.join("\n", result.getErrors()));
+        assertEquals(rows, result.getTotalRows());
+        assertEquals(rows, result.getInsertedCount());
+        // Цель на каждую пару (подразделение, инициатива), а не на строку
+        assertEquals(Math.min(rows, DIVISIONS * INITIATIVES),
+                jdbcTemplate.queryForObject("SELECT count(*) FROM goals", Integer.class));
+
+        System.out.printf("Import of %d rows (%d divisions x %d initiatives, %d KB): %d ms, %.0f rows/s, " +
+                        "peak heap %d MB, %d statements (%.2f per row)%n",
+                rows, DIVISIONS, INITIATIVES, Files.size(workbook) / 1024, millis, rowsPerSecond,
+                peakHeapMb, statements, (double) statements / rows);
+        record(rows, millis, rowsPerSecond, peakHeapMb, statements);
+
+        assertTrue(rowsPerSecond >= MIN_ROWS_PER_SECOND,
+                () -> String.format("%.0f rows/s is below the %.0f rows/s threshold", rowsPerSecond, MIN_ROWS_PER_SECOND));
+    }
+
+    private void record(int rows, long millis, double rowsPerSecond, long peakHeapMb, long statements) throws IOException {
+        Files.createDirectories(RESULTS.getParent());
+        if (Files.notExists(RESULTS)) {
+            Files.writeString(RESULTS, "timestamp,rows,divisions,initiatives,millis,rows_per_second,peak_heap_mb,statements\n",
+                    StandardCharsets.UTF_8);
+        }
+        String line = String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.0f,%d,%d%n",
+                LocalDateTime.now(), rows, DIVISIONS, INITIATIVES, millis, rowsPerSecond, peakHeapMb, statements);
+        Files.writeString(RESULTS, line, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+}
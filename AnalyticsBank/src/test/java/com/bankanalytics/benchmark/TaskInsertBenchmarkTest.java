@@ -0,0 +1,168 @@
+package com.bankanalytics.benchmark;
+
+import com.bankanalytics.entity.Division;
+import com.bankanalytics.entity.Goal;
+import com.bankanalytics.entity.Task;
+import com.bankanalytics.repository.DivisionRepository;
+import com.bankanalytics.repository.GoalRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сравнивает вставку задач через JPA с пакетами JDBC (pooled-последовательности + hibernate.jdbc.batch_size)
+ * и тот же {@code persist} с размером пакета 1 - по одному INSERT на строку, как было при
+ * GenerationType.IDENTITY. Число подготовленных запросов подтверждает, что пакеты действительно собираются.
+ * Запуск: mvn test -Pbenchmark; -Dbenchmark.rows=100000 -Dbenchmark.min-speedup=1.5
+ */
+class TaskInsertBenchmarkTest extends EmbeddedPostgresBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int WARM_UP_ROWS = 2_000;
+    // allocationSize у tasks_seq
+    private static final int ALLOCATION_SIZE = 50;
+    private static final double MIN_SPEEDUP = Double.parseDouble(System.getProperty("benchmark.min-speedup", "1.5"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DivisionRepository divisionRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Value("${app.analytics.batch-size}")
+    private int batchSize;
+
+    private Division division;
+    private Goal goal;
+
+    @BeforeEach
+    void setUp() {
+        division = new Division();
+        division.setName("Benchmark division");
+        division.setBlocks(new ArrayList<>());
+        division = divisionRepository.save(division);
+
+        goal = new Goal();
+        goal.setTitle("Benchmark goal");
+        goal.setDeadline(LocalDate.now().plusYears(1));
+        goal.setDivision(division);
+        goal = goalRepository.save(goal);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteTasks();
+        goalRepository.deleteById(goal.getId());
+        divisionRepository.deleteById(division.getId());
+    }
+
+    @Test
+    void persist100kTasks() {
+        // Прогрев JIT и пула соединений для обоих вариантов, результаты не учитываются
+        run(1, WARM_UP_ROWS);
+        run(batchSize, WARM_UP_ROWS);
+
+        Run rowByRow = run(1, ROWS);
+        Run batched = run(batchSize, ROWS);
+
+        System.out.printf("JPA persist, batch_size=1: %d rows in %d ms (%.0f rows/s), %d statements%n",
+                ROWS, rowByRow.millis(), rowsPerSecond(rowByRow.millis()), rowByRow.statements());
+        System.out.printf("JPA persist, batch_size=%d: %d rows in %d ms (%.0f rows/s), %d statements%n",
+                batchSize, ROWS, batched.millis(), rowsPerSecond(batched.millis()), batched.statements());
+        double speedup = (double) rowByRow.millis() / batched.millis();
+        System.out.printf("Speedup: %.1fx%n", speedup);
+
+        // INSERT на строку против INSERT на пакет; nextval раз в allocationSize строк в обоих случаях
+        assertTrue(rowByRow.statements() >= ROWS,
+                () -> "batch_size=1 ran only " + rowByRow.statements() + " statements for " + ROWS + " rows");
+        long expectedBatched = ROWS / batchSize + ROWS / ALLOCATION_SIZE;
+        assertTrue(batched.statements() <= expectedBatched + 10,
+                () -> "batched inserts ran " + batched.statements() + " statements, expected about " + expectedBatched);
+        assertTrue(speedup >= MIN_SPEEDUP,
+                () -> String.format("batched inserts are only %.1fx faster, expected at least %.1fx",
+                        speedup, MIN_SPEEDUP));
+    }
+
+    private Run run(int jdbcBatchSize, int rows) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long millis = measure(() -> tx.executeWithoutResult(status -> persist(jdbcBatchSize, rows)));
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(rows, countTasks());
+        deleteTasks();
+        return new Run(millis, statements);
+    }
+
+    private void persist(int jdbcBatchSize, int rows) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+        Goal goalRef = entityManager.getReference(Goal.class, goal.getId());
+        for (int i = 0; i < rows; i++) {
+            Task task = new Task();
+            task.setTitle("Benchmark task " + i);
+            task.setStatus(Task.TaskStatus.NOT_STARTED);
+            task.setProgress(0);
+            task.setGoal(goalRef);
+            entityManager.persist(task);
+
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                goalRef = entityManager.getReference(Goal.class, goal.getId());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long countTasks() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks WHERE goal_id = ?", Long.class, goal.getId());
+        return count != null ? count : 0;
+    }
+
+    private void deleteTasks() {
+        jdbcTemplate.update("DELETE FROM tasks WHERE goal_id = ?", goal.getId());
+    }
+
+    private static long measure(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return Math.max(1, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static double rowsPerSecond(long millis) {
+        return ROWS * 1000.0 / millis;
+    }
+
+    private record Run(long millis, long statements) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.bankanalytics.config;
+
+import com.bankanalytics.EmbeddedPostgresTest;
+import com.bankanalytics.entity.Division;
+import com.bankanalytics.entity.User;
+import com.bankanalytics.service.DivisionService;
+import com.bankanalytics.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Кэш второго уровня для подразделений и сотрудников: повторное чтение не ходит в базу,
+ * а изменения и удаления через сервисы сразу видны следующему чтению.
+ */
+class SecondLevelCacheTest extends EmbeddedPostgresTest {
+
+    private static final String PREFIX = "L2 ";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DivisionService divisionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private Division division;
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        division = divisionService.createDivision(division("Подразделение", "Блок 1"));
+        user = userService.createUser(user("l2-user@bank.test"));
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE name LIKE ?", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM division_blocks WHERE division_id IN " +
+                "(SELECT id FROM divisions WHERE name LIKE ?)", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM divisions WHERE name LIKE ?", PREFIX + "%");
+        entityManagerFactory.getCache().evictAll();
+        // JPA evictAll() не трогает регион natural id: email удалённого мимо Hibernate сотрудника
+        // указывал бы на его старый id, и следующий тест с тем же email не нашёл бы своего
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictNaturalIdData();
+    }
+
+    @Test
+    void repeatedLookupByEmailRunsNoStatements() {
+        assertTrue(userService.getUserByEmail(user.getEmail()).isPresent());
+
+        statistics.clear();
+        assertTrue(userService.getUserByEmail(user.getEmail()).isPresent());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+    }
+
+    @Test
+    void divisionAndBlocksAreReadFromCache() {
+        assertEquals(List.of("Блок 1"), blocksOf(division.getId()));
+
+        statistics.clear();
+        assertEquals(List.of("Блок 1"), blocksOf(division.getId()));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updatedEmailReplacesCachedOne() {
+        String oldEmail = user.getEmail();
+        assertTrue(userService.getUserByEmail(oldEmail).isPresent());
+
+        User details = user("l2-renamed@bank.test");
+        userService.updateUser(user.getId(), details);
+
+        assertFalse(userService.getUserByEmail(oldEmail).isPresent());
+        assertEquals(user.getId(), userService.getUserByEmail("l2-renamed@bank.test").orElseThrow().getId());
+    }
+
+    @Test
+    void deletedUserIsNotServedFromCache() {
+        assertTrue(userService.getUserByEmail(user.getEmail()).isPresent());
+        assertTrue(userService.getUserById(user.getId()).isPresent());
+
+        userService.deleteUser(user.getId());
+
+        assertFalse(userService.getUserByEmail(user.getEmail()).isPresent());
+        assertFalse(userService.getUserById(user.getId()).isPresent());
+    }
+
+    @Test
+    void updatedDivisionReplacesCachedNameAndBlocks() {
+        assertEquals(List.of("Блок 1"), blocksOf(division.getId()));
+
+        divisionService.updateDivision(division.getId(), division("Переименованное", "Блок 2"));
+
+        assertEquals(PREFIX + "Переименованное",
+                divisionService.getDivisionById(division.getId()).orElseThrow().getName());
+        assertEquals(List.of("Блок 2"), blocksOf(division.getId()));
+    }
+
+    @Test
+    void hitRatioIsPublishedPerRegion() {
+        userService.getUserByEmail(user.getEmail());
+        userService.getUserByEmail(user.getEmail());
+
+        for (String region : List.of("divisions", "division-blocks", "users", "user-emails")) {
+            assertNotNull(meterRegistry.find("hibernate.cache.hit.ratio").tag("region", region).gauge(),
+                    () -> "no hit ratio for region " + region);
+        }
+        double usersRatio = meterRegistry.get("hibernate.cache.hit.ratio").tag("region", "users").gauge().value();
+        assertTrue(usersRatio > 0, () -> "users hit ratio " + usersRatio);
+    }
+
+    private List<String> blocksOf(Long divisionId) {
+        return transactionTemplate.execute(status ->
+                new ArrayList<>(divisionService.getDivisionById(divisionId).orElseThrow().getBlocks()));
+    }
+
+    private static Division division(String name, String block) {
+        Division division = new Division();
+        division.setName(PREFIX + name);
+        division.setBlocks(new ArrayList<>(List.of(block)));
+        return division;
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setName(PREFIX + "Сотрудник");
+        user.setEmail(email);
+        user.setPasswordHash("password");
+        user.setRole(User.UserRole.EMPLOYEE);
+        user.setDivision(division);
+        return user;
+    }
+}
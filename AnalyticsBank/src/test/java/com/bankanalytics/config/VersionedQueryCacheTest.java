@@ -0,0 +1,117 @@
+package com.bankanalytics.config;
+
+import com.bankanalytics.service.TableVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedQueryCacheTest {
+
+    private final TableVersions tableVersions = new TableVersions();
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private final VersionedQueryCache cache = new VersionedQueryCache("task-queries",
+            new String[]{TableVersions.TASKS, TableVersions.GOALS}, tableVersions, 2, Duration.ofHours(1));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(tableVersions);
+    }
+
+    @Test
+    void get_ShouldServeRepeatedQueryFromCache() {
+        assertEquals("result 1", cache.get("key", this::query));
+        assertEquals("result 1", cache.get("key", this::query));
+
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void get_ShouldRunQueryAgainAfterReadTableChanged() {
+        cache.get("key", this::query);
+
+        tableVersions.bump(TableVersions.GOALS);
+
+        assertEquals("result 2", cache.get("key", this::query));
+    }
+
+    @Test
+    void get_ShouldKeepEntryWhenOtherTableChanged() {
+        cache.get("key", this::query);
+
+        tableVersions.bump(TableVersions.REPORTS);
+
+        assertEquals("result 1", cache.get("key", this::query));
+    }
+
+    @Test
+    void get_ShouldBypassCacheInTransactionThatWroteUntilItCompletes() {
+        cache.get("key", this::query);
+        TransactionSynchronizationManager.initSynchronization();
+
+        tableVersions.bump(TableVersions.TASKS);
+
+        // Своя незафиксированная запись: запрос идёт в базу, результат не кэшируется
+        assertEquals("result 2", cache.get("key", this::query));
+        assertEquals("result 3", cache.get("key", this::query));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals("result 4", cache.get("key", this::query));
+        assertEquals("result 4", cache.get("key", this::query));
+    }
+
+    @Test
+    void get_ShouldDropStaleEntryStoredWhileWriteWasInFlight() {
+        TransactionSynchronizationManager.initSynchronization();
+        tableVersions.bump(TableVersions.TASKS);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.unbindResource(tableVersions);
+
+        // Другой поток читает до фиксации записи и кэширует старые данные
+        cache.get("key", this::query);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals("result 2", cache.get("key", this::query));
+    }
+
+    @Test
+    void get_ShouldEvictLeastRecentlyUsedEntryOverLimit() {
+        cache.get("a", this::query);
+        cache.get("b", this::query);
+        cache.get("a", this::query);
+        cache.get("c", this::query);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void get_ShouldCacheNullResult() {
+        assertNull(cache.get("missing", () -> {
+            queries.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get("missing", this::query));
+
+        assertEquals(1, queries.get());
+    }
+
+    private String query() {
+        return "result " + queries.incrementAndGet();
+    }
+}
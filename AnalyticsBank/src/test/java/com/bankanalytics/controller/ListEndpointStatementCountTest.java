@@ -0,0 +1,362 @@
+package com.bankanalytics.controller;
+
+import com.bankanalytics.EmbeddedPostgresTest;
+import com.bankanalytics.entity.Division;
+import com.bankanalytics.entity.Goal;
+import com.bankanalytics.entity.Report;
+import com.bankanalytics.entity.Task;
+import com.bankanalytics.entity.TaskReport;
+import com.bankanalytics.entity.User;
+import com.bankanalytics.repository.DivisionRepository;
+import com.bankanalytics.repository.GoalRepository;
+import com.bankanalytics.repository.ReportRepository;
+import com.bankanalytics.repository.TaskReportRepository;
+import com.bankanalytics.repository.TaskRepository;
+import com.bankanalytics.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Число SQL-запросов на один вызов спискового эндпоинта. Связи, которые читает DtoMapper,
+ * должны загружаться тем же запросом, что и сама страница: при N+1 счётчик растёт вместе
+ * с числом строк в ответе, и тест падает. Эндпоинты с условным GET добавляют к этому
+ * один запрос валидатора, а на неизменившиеся данные отвечают 304 одним этим запросом.
+ */
+@AutoConfigureMockMvc
+@WithMockUser
+class ListEndpointStatementCountTest extends EmbeddedPostgresTest {
+
+    private static final String SEARCH = "N1";
+    private static final String PREFIX = SEARCH + " ";
+    private static final int DIVISIONS = 3;
+    private static final int GOALS_PER_DIVISION = 3;
+    private static final int TASKS_PER_GOAL = 4;
+    // Чтение по id: только у него есть Last-Modified
+    private static final Pattern SINGLE_ROW = Pattern.compile("/\\w+/\\{\\w+}");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DivisionRepository divisionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private TaskReportRepository taskReportRepository;
+
+    private Division division;
+    private Goal goal;
+    private User user;
+    private Task task;
+
+    /**
+     * Плейсхолдеры {division}, {goal}, {user} и {task} заменяются id тестовых данных.
+     */
+    static Stream<String> endpoints() {
+        return Stream.of(
+                "/tasks/goal/{goal}",
+                "/tasks/user/{user}",
+                "/tasks/status/IN_PROGRESS",
+                "/tasks/overdue",
+                "/tasks/search?keyword=" + SEARCH,
+                "/goals/overdue",
+                "/goals/search?keyword=" + SEARCH,
+                "/reports/division/{division}",
+                "/users/division/{division}",
+                "/users/search?name=" + SEARCH,
+                "/divisions/search?name=" + SEARCH,
+                "/divisions/summary",
+                "/task-reports",
+                "/task-reports/task/{task}",
+                "/task-reports/search?keyword=" + SEARCH);
+    }
+
+    /**
+     * Эндпоинты с условным GET: сначала валидатор, потом сама страница.
+     */
+    static Stream<String> conditionalEndpoints() {
+        return Stream.of(
+                "/tasks",
+                "/tasks?divisionId={division}",
+                "/tasks/summary?divisionId={division}",
+                "/tasks/{task}",
+                "/goals",
+                "/goals?divisionId={division}",
+                "/goals/summary",
+                "/goals/{goal}",
+                "/goals/division/{division}",
+                "/reports",
+                "/reports/summary",
+                "/users",
+                "/users?divisionId={division}",
+                "/users/{user}",
+                "/divisions");
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM task_reports");
+        jdbcTemplate.update("DELETE FROM tasks");
+        jdbcTemplate.update("DELETE FROM imported_files");
+        jdbcTemplate.update("DELETE FROM reports");
+        jdbcTemplate.update("DELETE FROM goals");
+        jdbcTemplate.update("DELETE FROM users WHERE name LIKE ?", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM division_blocks WHERE division_id IN " +
+                "(SELECT id FROM divisions WHERE name LIKE ?)", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM divisions WHERE name LIKE ?", PREFIX + "%");
+        // Данные пишутся мимо сервисов, счётчики таблиц не меняются: кэш запросов сбрасываем сами
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        // Несколько подразделений, целей и исполнителей, чтобы ленивые связи в одной странице были разными
+        for (int d = 1; d <= DIVISIONS; d++) {
+            Division savedDivision = divisionRepository.save(division(d));
+            List<User> users = userRepository.saveAll(List.of(user(savedDivision, d, 1), user(savedDivision, d, 2)));
+            Report report = reportRepository.save(report(savedDivision, users.get(0), d));
+
+            for (int g = 1; g <= GOALS_PER_DIVISION; g++) {
+                Goal savedGoal = goalRepository.save(goal(savedDivision, d, g));
+                List<Task> tasks = new ArrayList<>();
+                for (int t = 1; t <= TASKS_PER_GOAL; t++) {
+                    tasks.add(task(savedGoal, users.get(t % users.size()), d, g, t));
+                }
+                tasks = taskRepository.saveAll(tasks);
+                for (Task savedTask : tasks) {
+                    taskReportRepository.save(taskReport(savedTask, report));
+                }
+
+                division = savedDivision;
+                goal = savedGoal;
+                user = users.get(0);
+                task = tasks.get(0);
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "GET {0}")
+    @MethodSource("endpoints")
+    void listEndpointRunsSingleStatement(String endpoint) throws Exception {
+        String uri = uri(endpoint);
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get(uri)).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount(),
+                () -> "GET " + uri + " ran " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    // search_vector не отображён на сущности: fts_match читает его по алиасу таблицы. Слова строчные:
+    // во встроенном PostgreSQL локаль C, и заглавную кириллицу to_tsvector не приводит к нижнему регистру
+    @ParameterizedTest(name = "GET {0}")
+    @CsvSource({
+            "/tasks/search?keyword=цели, 36",
+            "/goals/search?keyword=подразделения, 9",
+            "/task-reports/search?keyword=задачи, 36"})
+    void keywordSearchFindsRowsBySearchVector(String endpoint, int expected) throws Exception {
+        mockMvc.perform(get(endpoint))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(expected)));
+    }
+
+    @ParameterizedTest(name = "GET {0}")
+    @MethodSource("conditionalEndpoints")
+    void conditionalEndpointAnswersUnchangedPollWithValidatorOnly(String endpoint) throws Exception {
+        String uri = uri(endpoint);
+        Statistics statistics = statistics();
+
+        String etag = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(SINGLE_ROW.matcher(endpoint).matches()
+                        ? header().exists(HttpHeaders.LAST_MODIFIED)
+                        : header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(2, statistics.getPrepareStatementCount(),
+                () -> "GET " + uri + " ran " + statistics.getPrepareStatementCount() + " statements");
+
+        statistics.clear();
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(1, statistics.getPrepareStatementCount(),
+                () -> "304 for " + uri + " ran " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    // Удаляется не последняя изменённая задача: max(updated_at) остаётся прежним, заметить удаление может только ETag
+    @ParameterizedTest(name = "GET {0}")
+    @ValueSource(strings = {"/tasks", "/tasks/summary?divisionId={division}", "/goals/division/{division}"})
+    void listEndpointIgnoresIfModifiedSinceAfterDelete(String endpoint) throws Exception {
+        String uri = uri(endpoint);
+        String future = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusDays(1));
+        mockMvc.perform(get(uri)).andExpect(status().isOk());
+
+        Long deleted = jdbcTemplate.queryForObject(
+                "SELECT min(id) FROM tasks WHERE goal_id IN (SELECT id FROM goals WHERE division_id = ?)",
+                Long.class, division.getId());
+        jdbcTemplate.update("DELETE FROM task_reports WHERE task_id = ?", deleted);
+        jdbcTemplate.update("DELETE FROM tasks WHERE id = ?", deleted);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_MODIFIED_SINCE, future))
+                .andExpect(status().isOk());
+    }
+
+    @ParameterizedTest(name = "GET {0}")
+    @ValueSource(strings = {"/divisions", "/goals/division/{division}"})
+    void cachedEndpointServesRepeatedRequestWithValidatorOnly(String endpoint) throws Exception {
+        String uri = uri(endpoint);
+        String body = mockMvc.perform(get(uri)).andReturn().getResponse().getContentAsString();
+        Statistics statistics = statistics();
+
+        // Без If-None-Match: тело целиком, но готовое, из кэша ответов
+        mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(content().json(body, true));
+        assertEquals(1, statistics.getPrepareStatementCount(),
+                () -> "cached GET " + uri + " ran " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @ParameterizedTest(name = "GET {0}")
+    @ValueSource(strings = {"/tasks", "/tasks/{task}", "/goals?divisionId={division}"})
+    void conditionalEndpointReturnsNewBodyAfterTaskChanged(String endpoint) throws Exception {
+        String uri = uri(endpoint);
+        String etag = mockMvc.perform(get(uri))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        jdbcTemplate.update("UPDATE tasks SET updated_at = ? WHERE id = ?",
+                LocalDateTime.now().plusMinutes(1), task.getId());
+        jdbcTemplate.update("UPDATE goals SET updated_at = ? WHERE id = ?",
+                LocalDateTime.now().plusMinutes(1), goal.getId());
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    private String uri(String endpoint) {
+        return endpoint
+                .replace("{division}", division.getId().toString())
+                .replace("{goal}", goal.getId().toString())
+                .replace("{user}", user.getId().toString())
+                .replace("{task}", task.getId().toString());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static Division division(int d) {
+        Division division = new Division();
+        division.setName(PREFIX + "Подразделение " + d);
+        division.setBlocks(new ArrayList<>(List.of("Блок " + d + ".1", "Блок " + d + ".2")));
+        return division;
+    }
+
+    private static User user(Division division, int d, int u) {
+        User user = new User();
+        user.setName(PREFIX + "Сотрудник " + d + "." + u);
+        user.setEmail("n1-" + d + "-" + u + "@bank.test");
+        user.setPasswordHash("{noop}password");
+        user.setRole(User.UserRole.EMPLOYEE);
+        user.setDivision(division);
+        return user;
+    }
+
+    private static Report report(Division division, User user, int d) {
+        Report report = new Report();
+        report.setTitle(PREFIX + "Отчёт " + d);
+        report.setReportDate(LocalDate.now());
+        report.setContent("Отчёт подразделения " + d);
+        report.setUser(user);
+        report.setDivision(division);
+        return report;
+    }
+
+    private static Goal goal(Division division, int d, int g) {
+        Goal goal = new Goal();
+        goal.setTitle(PREFIX + "Цель " + d + "." + g);
+        goal.setDescription("Цель подразделения " + d);
+        goal.setTargetValue(BigDecimal.valueOf(100));
+        goal.setCurrentValue(BigDecimal.TEN);
+        goal.setDeadline(LocalDate.now().minusDays(g));
+        goal.setDivision(division);
+        return goal;
+    }
+
+    private static Task task(Goal goal, User user, int d, int g, int t) {
+        Task task = new Task();
+        task.setTitle(PREFIX + "Задача " + d + "." + g + "." + t);
+        task.setDescription("Задача цели " + d + "." + g);
+        task.setStatus(t % 2 == 0 ? Task.TaskStatus.IN_PROGRESS : Task.TaskStatus.NOT_STARTED);
+        task.setProgress(t * 10);
+        task.setStartDate(LocalDate.now().minusDays(30));
+        task.setEndDate(LocalDate.now().minusDays(t));
+        task.setGoal(goal);
+        task.setUser(user);
+        return task;
+    }
+
+    private static TaskReport taskReport(Task task, Report report) {
+        TaskReport taskReport = new TaskReport();
+        taskReport.setTask(task);
+        taskReport.setReport(report);
+        taskReport.setProgress(BigDecimal.valueOf(50));
+        taskReport.setNotes(PREFIX + "Комментарий к задаче " + task.getId());
+        return taskReport;
+    }
+}
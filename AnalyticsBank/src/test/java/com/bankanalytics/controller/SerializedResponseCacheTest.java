@@ -0,0 +1,127 @@
+package com.bankanalytics.controller;
+
+import com.bankanalytics.dto.ResourceVersion;
+import com.bankanalytics.service.TableVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializedResponseCacheTest {
+
+    private static final ResourceVersion VERSION = new ResourceVersion("W/\"1\"", Instant.EPOCH);
+
+    private final TableVersions tableVersions = new TableVersions();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final SerializedResponseCache cache = new SerializedResponseCache(tableVersions, objectMapper, 2, 3600);
+
+    @Test
+    void ok_ShouldServeRepeatedRequestWithoutBuildingBody() {
+        ResponseEntity<byte[]> first = divisions(VERSION);
+        ResponseEntity<byte[]> second = divisions(VERSION);
+
+        assertEquals(1, loads.get());
+        assertArrayEquals(first.getBody(), second.getBody());
+        assertEquals("[\"item 1\"]", text(second));
+        assertEquals(StandardCharsets.UTF_8, second.getHeaders().getContentType().getCharset());
+    }
+
+    @Test
+    void ok_ShouldBuildBodyAgainAfterServiceWrite() {
+        divisions(VERSION);
+
+        tableVersions.bump(TableVersions.DIVISIONS);
+        ResponseEntity<byte[]> response = divisions(VERSION);
+
+        assertEquals("[\"item 2\"]", text(response));
+    }
+
+    @Test
+    void ok_ShouldBuildBodyAgainWhenValidatorChanged() {
+        divisions(VERSION);
+
+        // Правка в обход сервисов: счётчики прежние, но валидатор из базы другой
+        ResponseEntity<byte[]> response = divisions(new ResourceVersion("W/\"2\"", Instant.EPOCH));
+
+        assertEquals("[\"item 2\"]", text(response));
+    }
+
+    @Test
+    void ok_ShouldKeepScopesApart() {
+        cache.ok(request(null), "/goals/division/1", VERSION, this::body, TableVersions.GOALS);
+        ResponseEntity<byte[]> other = cache.ok(request(null), "/goals/division/2", VERSION, this::body,
+                TableVersions.GOALS);
+
+        assertEquals("[\"item 2\"]", text(other));
+    }
+
+    @Test
+    void ok_ShouldSendStoredGzipToClientsAcceptingIt() throws IOException {
+        List<String> large = Collections.nCopies(500, "Подразделение розничного бизнеса");
+
+        ResponseEntity<byte[]> gzip = cache.ok(request("gzip, deflate, br"), "/divisions", VERSION, () -> large,
+                TableVersions.DIVISIONS);
+        ResponseEntity<byte[]> plain = cache.ok(request(null), "/divisions", VERSION, () -> fail("cached"),
+                TableVersions.DIVISIONS);
+
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(gzip.getBody().length < plain.getBody().length);
+        assertArrayEquals(plain.getBody(),
+                new GZIPInputStream(new ByteArrayInputStream(gzip.getBody())).readAllBytes());
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), plain.getHeaders().getVary());
+    }
+
+    @Test
+    void ok_ShouldSendSmallBodyUncompressed() {
+        ResponseEntity<byte[]> response = cache.ok(request("gzip"), "/divisions", VERSION, this::body,
+                TableVersions.DIVISIONS);
+
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void acceptsGzip_ShouldHonourQualityZero() {
+        assertTrue(SerializedResponseCache.acceptsGzip("gzip"));
+        assertTrue(SerializedResponseCache.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(SerializedResponseCache.acceptsGzip("*"));
+        assertFalse(SerializedResponseCache.acceptsGzip("gzip;q=0"));
+        assertFalse(SerializedResponseCache.acceptsGzip("identity"));
+        assertFalse(SerializedResponseCache.acceptsGzip(null));
+    }
+
+    private ResponseEntity<byte[]> divisions(ResourceVersion version) {
+        return cache.ok(request(null), "/divisions", version, this::body, TableVersions.DIVISIONS);
+    }
+
+    private List<String> body() {
+        return List.of("item " + loads.incrementAndGet());
+    }
+
+    private static String text(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static ServletWebRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/divisions");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return new ServletWebRequest(request);
+    }
+}
@@ -0,0 +1,67 @@
+package com.bankanalytics.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessTokensTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final Instant NOW = Instant.parse("2024-03-01T10:00:00Z");
+
+    private final AccessTokens accessTokens = tokensAt(NOW);
+
+    @Test
+    void verify_ShouldReturnUserIdOfIssuedToken() {
+        AccessTokens.Issued issued = accessTokens.issue(42L);
+
+        assertEquals(NOW.plus(Duration.ofMinutes(15)), issued.expiresAt());
+        assertEquals(Optional.of(42L), accessTokens.verify(issued.token()));
+    }
+
+    @Test
+    void verify_ShouldRejectExpiredToken() {
+        String token = accessTokens.issue(42L).token();
+
+        assertTrue(tokensAt(NOW.plus(Duration.ofMinutes(14))).verify(token).isPresent());
+        assertTrue(tokensAt(NOW.plus(Duration.ofMinutes(15))).verify(token).isEmpty());
+    }
+
+    @Test
+    void verify_ShouldRejectTokenWithChangedUserId() {
+        String token = accessTokens.issue(42L).token();
+        String signature = token.substring(token.indexOf('.'));
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("1:" + NOW.plusSeconds(900).getEpochSecond()).getBytes()) + signature;
+
+        assertTrue(accessTokens.verify(forged).isEmpty());
+    }
+
+    @Test
+    void verify_ShouldRejectTokenSignedWithOtherKey() {
+        String otherSecret = Base64.getEncoder().encodeToString("another-secret-of-32-bytes-long!".getBytes());
+        String token = new AccessTokens(otherSecret, Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC))
+                .issue(42L).token();
+
+        assertTrue(accessTokens.verify(token).isEmpty());
+    }
+
+    @Test
+    void verify_ShouldRejectMalformedToken() {
+        assertTrue(accessTokens.verify("").isEmpty());
+        assertTrue(accessTokens.verify("no-dot").isEmpty());
+        assertTrue(accessTokens.verify("payload.").isEmpty());
+        assertTrue(accessTokens.verify("!!!.###").isEmpty());
+    }
+
+    private static AccessTokens tokensAt(Instant now) {
+        return new AccessTokens(SECRET, Duration.ofMinutes(15), Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,68 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.dto.DashboardDto;
+import com.bankanalytics.dto.DivisionCompletionDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServiceTest {
+
+    @Mock
+    private RollupService rollupService;
+
+    @InjectMocks
+    private AnalyticsService analyticsService;
+
+    @Test
+    void getDashboard_ShouldSumDivisionRowsIntoTotals() {
+        // Arrange
+        List<DivisionCompletionDto> goals = List.of(
+                new DivisionCompletionDto(1L, "Розница", 4L, 1L),
+                new DivisionCompletionDto(2L, "Риски", 2L, 2L));
+        List<DivisionCompletionDto> tasks = List.of(
+                new DivisionCompletionDto(1L, "Розница", 10L, 3L),
+                new DivisionCompletionDto(2L, "Риски", 5L, 5L));
+        when(rollupService.getGoalCompletionByDivision()).thenReturn(goals);
+        when(rollupService.getTaskCompletionByDivision()).thenReturn(tasks);
+
+        // Act
+        DashboardDto result = analyticsService.getDashboard();
+
+        // Assert
+        assertEquals(6, result.getTotalGoals());
+        assertEquals(3, result.getCompletedGoals());
+        assertEquals(15, result.getTotalTasks());
+        assertEquals(8, result.getCompletedTasks());
+        assertEquals(7, result.getPendingTasks());
+        assertSame(goals, result.getGoalsByDivision());
+        assertSame(tasks, result.getTasksByDivision());
+        verify(rollupService, times(1)).getGoalCompletionByDivision();
+        verify(rollupService, times(1)).getTaskCompletionByDivision();
+    }
+
+    @Test
+    void getDashboard_WithNoData_ShouldReturnZeroTotals() {
+        // Arrange
+        when(rollupService.getGoalCompletionByDivision()).thenReturn(Collections.emptyList());
+        when(rollupService.getTaskCompletionByDivision()).thenReturn(Collections.emptyList());
+
+        // Act
+        DashboardDto result = analyticsService.getDashboard();
+
+        // Assert
+        assertEquals(0, result.getTotalGoals());
+        assertEquals(0, result.getTotalTasks());
+        assertEquals(0, result.getPendingTasks());
+        assertTrue(result.getGoalsByDivision().isEmpty());
+    }
+}
@@ -0,0 +1,103 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.dto.LoginResponse;
+import com.bankanalytics.entity.Division;
+import com.bankanalytics.entity.User;
+import com.bankanalytics.repository.UserRepository;
+import com.bankanalytics.security.AccessTokens;
+import com.bankanalytics.security.AuthenticatedUser;
+import com.bankanalytics.security.PrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private AccessTokens accessTokens;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @InjectMocks
+    private AuthService authService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Division division = new Division();
+        division.setId(7L);
+
+        user = new User();
+        user.setId(1L);
+        user.setName("Test User");
+        user.setEmail("test@example.com");
+        user.setPasswordHash("$2a$10$hash");
+        user.setRole(User.UserRole.EMPLOYEE);
+        user.setDivision(division);
+    }
+
+    @Test
+    void login_WithValidPassword_ShouldIssueTokenAndCachePrincipal() {
+        // Arrange
+        Instant expiresAt = Instant.parse("2024-03-01T10:15:00Z");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("secret", "$2a$10$hash")).thenReturn(true);
+        when(accessTokens.issue(1L)).thenReturn(new AccessTokens.Issued("token", expiresAt));
+
+        // Act
+        LoginResponse response = authService.login("test@example.com", "secret");
+
+        // Assert
+        assertEquals("token", response.getToken());
+        assertEquals("Bearer", response.getTokenType());
+        assertEquals(expiresAt, response.getExpiresAt());
+        assertEquals(User.UserRole.EMPLOYEE, response.getRole());
+        assertEquals(7L, response.getDivisionId());
+        verify(principalCache).put(new AuthenticatedUser(1L, "test@example.com", "Test User",
+                User.UserRole.EMPLOYEE, 7L));
+    }
+
+    @Test
+    void login_WithWrongPassword_ShouldThrowBadCredentials() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("wrong", "$2a$10$hash")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(BadCredentialsException.class, () -> authService.login("test@example.com", "wrong"));
+        verify(accessTokens, never()).issue(anyLong());
+        verify(principalCache, never()).put(any());
+    }
+
+    @Test
+    void login_WithUnknownEmail_ShouldThrowBadCredentials() {
+        // Arrange
+        when(userRepository.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(BadCredentialsException.class, () -> authService.login("nobody@example.com", "secret"));
+        verify(accessTokens, never()).issue(anyLong());
+    }
+}
@@ -0,0 +1,72 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.entity.Goal;
+import com.bankanalytics.entity.Task;
+import com.bankanalytics.repository.GoalRepository;
+import com.bankanalytics.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineRolloverServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private GoalRepository goalRepository;
+
+    @Mock
+    private TableVersions tableVersions;
+
+    @InjectMocks
+    private DeadlineRolloverService deadlineRolloverService;
+
+    @Test
+    void rollOver_ShouldMoveTaskAndGoalFlagsToToday() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        when(taskRepository.markOverdue(today)).thenReturn(3);
+        when(goalRepository.markOverdue(today)).thenReturn(1);
+
+        // Act
+        deadlineRolloverService.rollOver();
+
+        // Assert
+        verify(taskRepository, times(1)).markOverdue(today);
+        verify(taskRepository, times(1)).clearOverdue(today);
+        verify(goalRepository, times(1)).markOverdue(today);
+        verify(goalRepository, times(1)).clearOverdue(today);
+        verify(tableVersions).bump(TableVersions.TASKS, TableVersions.GOALS);
+    }
+
+    @Test
+    void taskOverdueOn_ShouldIgnoreCompletedAndUndatedTasks() {
+        LocalDate today = LocalDate.now();
+
+        assertTrue(Task.overdueOn(Task.TaskStatus.IN_PROGRESS, today.minusDays(1), today));
+        assertFalse(Task.overdueOn(Task.TaskStatus.IN_PROGRESS, today, today));
+        assertFalse(Task.overdueOn(Task.TaskStatus.COMPLETED, today.minusDays(1), today));
+        assertFalse(Task.overdueOn(Task.TaskStatus.NOT_STARTED, null, today));
+    }
+
+    @Test
+    void goalOverdueOn_ShouldRequireUnmetTargetAfterDeadline() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+
+        assertTrue(Goal.overdueOn(yesterday, BigDecimal.TEN, BigDecimal.valueOf(100), today));
+        assertFalse(Goal.overdueOn(yesterday, BigDecimal.valueOf(100), BigDecimal.valueOf(100), today));
+        assertFalse(Goal.overdueOn(today, BigDecimal.TEN, BigDecimal.valueOf(100), today));
+        assertFalse(Goal.overdueOn(yesterday, null, BigDecimal.valueOf(100), today));
+    }
+}
@@ -0,0 +1,123 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.entity.Division;
+import com.bankanalytics.repository.DivisionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DivisionServiceTest {
+
+    @Mock
+    private DivisionRepository divisionRepository;
+
+    @Mock
+    private RollupService rollupService;
+
+    @Mock
+    private TableVersions tableVersions;
+
+    @InjectMocks
+    private DivisionService divisionService;
+
+    private Division headOffice;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(divisionService, "nameLimit", 20);
+
+        headOffice = new Division();
+        headOffice.setId(1L);
+        headOffice.setName("Головной офис");
+    }
+
+    @Test
+    void searchDivisionsByName_ShouldQueryNormalizedName() {
+        // Arrange
+        when(divisionRepository.findSimilar("головной офис", 20)).thenReturn(List.of(headOffice));
+
+        // Act
+        List<Division> result = divisionService.searchDivisionsByName("  Головной  ОФИС ");
+
+        // Assert
+        assertEquals(List.of(headOffice), result);
+    }
+
+    @Test
+    void createDivision_WithExistingNormalizedName_ShouldThrowException() {
+        // Arrange
+        Division duplicate = new Division();
+        duplicate.setName("головной  офис");
+        when(divisionRepository.findByNormalizedName("головной офис")).thenReturn(Optional.of(headOffice));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> divisionService.createDivision(duplicate));
+        verify(divisionRepository, never()).save(any(Division.class));
+    }
+
+    @Test
+    void updateDivision_KeepingOwnName_ShouldSave() {
+        // Arrange
+        Division details = new Division();
+        details.setName("Головной офис");
+        when(divisionRepository.findById(1L)).thenReturn(Optional.of(headOffice));
+        when(divisionRepository.findByNormalizedName("головной офис")).thenReturn(Optional.of(headOffice));
+        when(divisionRepository.save(headOffice)).thenReturn(headOffice);
+
+        // Act
+        Division result = divisionService.updateDivision(1L, details);
+
+        // Assert
+        assertSame(headOffice, result);
+        verify(divisionRepository, times(1)).save(headOffice);
+    }
+
+    @Test
+    void deleteDivision_WhenStillReferenced_ShouldThrowException() {
+        // Arrange
+        when(divisionRepository.findInUseById(1L)).thenReturn(Optional.of(true));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> divisionService.deleteDivision(1L));
+        verify(divisionRepository, never()).deleteById(anyLong());
+        verify(rollupService, never()).divisionRemoved(anyLong());
+    }
+
+    @Test
+    void deleteDivision_WhenEmpty_ShouldDeleteAfterExactCheckWithoutRollups() {
+        // Arrange
+        when(divisionRepository.findInUseById(1L)).thenReturn(Optional.of(false));
+
+        // Act
+        divisionService.deleteDivision(1L);
+
+        // Assert
+        verify(divisionRepository, times(1)).findInUseById(1L);
+        verify(divisionRepository, times(1)).deleteById(1L);
+        verify(rollupService, times(1)).divisionRemoved(1L);
+        verifyNoMoreInteractions(divisionRepository);
+    }
+
+    @Test
+    void deleteDivision_WhenNotFound_ShouldThrowException() {
+        // Arrange
+        when(divisionRepository.findInUseById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> divisionService.deleteDivision(1L));
+        verify(divisionRepository, never()).deleteById(anyLong());
+    }
+}
@@ -0,0 +1,83 @@
+package com.bankanalytics.service;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExcelSheetReaderTest {
+
+    private final ExcelSheetReader reader = new ExcelSheetReader();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void read_ShouldGiveSameCellsForXlsAndXlsx() throws IOException {
+        // Arrange
+        Path xls = write(new HSSFWorkbook(), "plan.xls");
+        Path xlsx = write(new XSSFWorkbook(), "plan.xlsx");
+
+        // Act
+        List<String[]> fromXls = rows(xls);
+        List<String[]> fromXlsx = rows(xlsx);
+
+        // Assert
+        assertEquals(1, fromXls.size());
+        assertArrayEquals(fromXlsx.get(0), fromXls.get(0));
+        String[] cells = fromXls.get(0);
+        assertEquals("1", cells[0]);
+        assertEquals("Розничный бизнес", cells[1]);
+        assertEquals("42", cells[2]);
+        assertEquals("84", cells[3]);
+        assertEquals("Розничный бизнес: план", cells[4]);
+        assertEquals("2026-03-31", cells[5]);
+        assertEquals("TRUE", cells[6]);
+    }
+
+    private List<String[]> rows(Path file) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        int header = reader.read(file.toFile(), (rowIndex, cells) -> rows.add(cells));
+        assertEquals(0, header);
+        return rows;
+    }
+
+    private Path write(Workbook workbook, String name) throws IOException {
+        Path file = directory.resolve(name);
+        try (workbook; OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("План");
+            sheet.createRow(0).createCell(0).setCellValue("№");
+
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue(1);
+            row.createCell(1).setCellValue("Розничный бизнес");
+            row.createCell(2).setCellValue(42);
+            row.createCell(3).setCellFormula("C2*2");
+            row.createCell(4).setCellFormula("B2&\": план\"");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd.mm.yyyy"));
+            row.createCell(5).setCellValue(LocalDate.of(2026, 3, 31));
+            row.getCell(5).setCellStyle(dateStyle);
+            row.createCell(6).setCellFormula("C2>0");
+
+            // Результаты формул сохраняются в файле, как после расчёта в Excel
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(out);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,170 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.controller.TaskController;
+import com.bankanalytics.dto.ImportJobDto;
+import com.bankanalytics.dto.ImportJobDto.ImportJobStatus;
+import com.bankanalytics.entity.TaskImportResult;
+import com.bankanalytics.mapper.DtoMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    @Mock
+    private TaskImportService taskImportService;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private DtoMapper dtoMapper;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ImportJobService importJobService;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        importJobService.shutdown();
+    }
+
+    @Test
+    void submit_ShouldRejectWith503WhenQueueIsFull() throws Exception {
+        // Arrange: один поток занят, единственное место в очереди тоже
+        importJobService = service(Duration.ofHours(1));
+        blockImports();
+        ImportJobDto running = importJobService.submit(file("first.xlsx"), false);
+        awaitStatus(running.getJobId(), ImportJobStatus.RUNNING);
+        ImportJobDto queued = importJobService.submit(file("second.xlsx"), false);
+
+        // Act
+        TaskController controller = new TaskController(taskService, importJobService, dtoMapper);
+        ResponseEntity<ImportJobDto> response = controller.importTasks(file("third.xlsx"), false);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertThrows(RejectedExecutionException.class, () -> importJobService.submit(file("fourth.xlsx"), false));
+        assertEquals(ImportJobStatus.QUEUED, importJobService.getJob(queued.getJobId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void evictExpiredJobs_ShouldDropOnlyFinishedJobs() throws Exception {
+        // Arrange
+        importJobService = service(Duration.ZERO);
+        when(taskImportService.importFromExcel(any(), anyBoolean(), any()))
+                .thenReturn(new TaskImportResult(1, 1, 0, List.of()))
+                .thenAnswer(invocation -> {
+                    release.await();
+                    return new TaskImportResult(1, 1, 0, List.of());
+                });
+        ImportJobDto finished = importJobService.submit(file("done.xlsx"), false);
+        awaitStatus(finished.getJobId(), ImportJobStatus.COMPLETED);
+        ImportJobDto running = importJobService.submit(file("running.xlsx"), false);
+        awaitStatus(running.getJobId(), ImportJobStatus.RUNNING);
+
+        // Act
+        importJobService.evictExpiredJobs();
+
+        // Assert
+        assertTrue(importJobService.getJob(finished.getJobId()).isEmpty());
+        assertTrue(importJobService.getJob(running.getJobId()).isPresent());
+    }
+
+    @Test
+    void run_ShouldFailJobWhenFileWasNotRead() throws Exception {
+        // Arrange
+        importJobService = service(Duration.ofHours(1));
+        TaskImportResult unread = new TaskImportResult(0, 0, 1,
+                List.of("Не найдена строка с заголовками (первая колонка должна содержать '№')"));
+        unread.setFailed(true);
+        when(taskImportService.importFromExcel(any(), anyBoolean(), any())).thenReturn(unread);
+
+        // Act
+        ImportJobDto job = importJobService.submit(file("no-header.xlsx"), false);
+
+        // Assert
+        ImportJobDto result = awaitStatus(job.getJobId(), ImportJobStatus.FAILED);
+        assertSame(unread, result.getResult());
+        assertEquals(1, result.getErrorCount());
+        assertNotNull(result.getFinishedAt());
+    }
+
+    @Test
+    void run_ShouldFailJobWhenImportThrows() throws Exception {
+        // Arrange
+        importJobService = service(Duration.ofHours(1));
+        when(taskImportService.importFromExcel(any(), anyBoolean(), any()))
+                .thenThrow(new IllegalStateException("база недоступна"));
+
+        // Act
+        ImportJobDto job = importJobService.submit(file("broken.xlsx"), false);
+
+        // Assert
+        ImportJobDto result = awaitStatus(job.getJobId(), ImportJobStatus.FAILED);
+        assertEquals(List.of("Ошибка импорта: база недоступна"), result.getResult().getErrors());
+    }
+
+    @Test
+    void run_ShouldCompleteJobWithRowErrors() throws Exception {
+        // Arrange
+        importJobService = service(Duration.ofHours(1));
+        when(taskImportService.importFromExcel(any(), anyBoolean(), any()))
+                .thenReturn(new TaskImportResult(2, 1, 1, List.of("Строка 3: не указан №")));
+
+        // Act
+        ImportJobDto job = importJobService.submit(file("plan.xlsx"), false);
+
+        // Assert
+        ImportJobDto result = awaitStatus(job.getJobId(), ImportJobStatus.COMPLETED);
+        assertEquals(2, result.getRowsProcessed());
+        assertEquals(1, result.getErrorCount());
+    }
+
+    private ImportJobService service(Duration retention) {
+        return new ImportJobService(taskImportService, 1, 1, retention, DataSize.ofMegabytes(1), 4);
+    }
+
+    private void blockImports() {
+        when(taskImportService.importFromExcel(any(), anyBoolean(), any())).thenAnswer(invocation -> {
+            release.await();
+            return new TaskImportResult(0, 0, 0, List.of());
+        });
+    }
+
+    private ImportJobDto awaitStatus(String jobId, ImportJobStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            ImportJobDto job = importJobService.getJob(jobId).orElseThrow();
+            if (job.getStatus() == status) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Job " + jobId + " did not reach " + status);
+    }
+
+    private static MockMultipartFile file(String name) {
+        return new MockMultipartFile("file", name, "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                new byte[]{1, 2, 3});
+    }
+}
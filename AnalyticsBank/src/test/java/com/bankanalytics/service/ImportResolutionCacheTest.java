@@ -0,0 +1,140 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.entity.Division;
+import com.bankanalytics.repository.DivisionRepository;
+import com.bankanalytics.repository.GoalRepository;
+import com.bankanalytics.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportResolutionCacheTest {
+
+    @Mock
+    private DivisionRepository divisionRepository;
+
+    @Mock
+    private GoalRepository goalRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TableVersions tableVersions;
+
+    private Division retail;
+
+    @BeforeEach
+    void setUp() {
+        retail = new Division();
+        retail.setId(1L);
+        retail.setName("Розничный бизнес");
+        retail.setBlocks(new ArrayList<>(List.of("Кредиты")));
+        when(divisionRepository.findAllWithBlocks()).thenReturn(List.of(retail));
+    }
+
+    @Test
+    void resolveDivision_ShouldMatchNormalizedNameWithoutSimilaritySearch() {
+        // Act
+        ImportResolutionCache cache = cache(false);
+        Optional<Division> result = cache.resolveDivision("  РОЗНИЧНЫЙ   бизнес ", "Кредиты");
+
+        // Assert
+        assertEquals(Optional.of(retail), result);
+        verify(divisionRepository, never()).findMostSimilarId(anyString(), anyDouble(), anyLong());
+        verify(divisionRepository, never()).save(any());
+        assertTrue(cache.getWarnings().isEmpty());
+    }
+
+    @ParameterizedTest(name = "dryRun={0}")
+    @ValueSource(booleans = {false, true})
+    void resolveDivision_ShouldCreateSimilarDivisionAndWarn(boolean dryRun) {
+        // Arrange
+        when(divisionRepository.findMostSimilarId("розничный бизнесс", 0.6, 1L)).thenReturn(Optional.of(1L));
+        lenient().when(divisionRepository.save(any(Division.class))).thenAnswer(invocation -> {
+            Division division = invocation.getArgument(0);
+            division.setId(2L);
+            return division;
+        });
+        ImportResolutionCache cache = cache(dryRun);
+
+        // Act
+        Division created = cache.resolveDivision("Розничный бизнесс", "Кредиты").orElseThrow();
+        Division again = cache.resolveDivision("Розничный бизнесс", null).orElseThrow();
+
+        // Assert
+        assertNotSame(retail, created);
+        assertSame(created, again);
+        assertEquals("Розничный бизнесс", created.getName());
+        assertEquals(1, cache.getCreatedDivisions());
+        assertEquals(List.of("Подразделение 'Розничный бизнесс' не найдено и создаётся новым, "
+                + "похожее существующее: 'Розничный бизнес'"), cache.getWarnings());
+        verify(divisionRepository, times(1)).findMostSimilarId(anyString(), anyDouble(), anyLong());
+        verify(divisionRepository, times(dryRun ? 0 : 1)).save(any(Division.class));
+    }
+
+    @Test
+    void resolveDivision_ShouldCreateDivisionWhenNothingSimilar() {
+        // Arrange
+        when(divisionRepository.findMostSimilarId("казначейство", 0.6, 1L)).thenReturn(Optional.empty());
+        when(divisionRepository.save(any(Division.class))).thenAnswer(invocation -> {
+            Division division = invocation.getArgument(0);
+            division.setId(2L);
+            return division;
+        });
+        ImportResolutionCache cache = cache(false);
+
+        // Act
+        Division created = cache.resolveDivision("Казначейство", null).orElseThrow();
+        Division again = cache.resolveDivision("казначейство", null).orElseThrow();
+
+        // Assert
+        assertEquals("Казначейство", created.getName());
+        assertSame(created, again);
+        assertEquals(1, cache.getCreatedDivisions());
+        assertTrue(cache.getWarnings().isEmpty());
+        verify(divisionRepository, times(1)).save(any(Division.class));
+    }
+
+    @Test
+    void resolveDivision_ShouldCompareOnlyWithDivisionsThatExistedBeforeImport() {
+        // Arrange: "Отдел 1" создан этим же импортом, "Отдел 2" с ним не сравнивается
+        when(divisionRepository.findMostSimilarId(anyString(), anyDouble(), anyLong())).thenReturn(Optional.empty());
+        when(divisionRepository.save(any(Division.class))).thenAnswer(invocation -> {
+            Division division = invocation.getArgument(0);
+            division.setId(division.getName().endsWith("1") ? 2L : 3L);
+            return division;
+        });
+        ImportResolutionCache cache = cache(false);
+
+        // Act
+        cache.resolveDivision("Отдел 1", null);
+        cache.resolveDivision("Отдел 2", null);
+
+        // Assert
+        verify(divisionRepository).findMostSimilarId("отдел 1", 0.6, 1L);
+        verify(divisionRepository).findMostSimilarId("отдел 2", 0.6, 1L);
+        assertEquals(2, cache.getCreatedDivisions());
+    }
+
+    private ImportResolutionCache cache(boolean dryRun) {
+        return new ImportResolutionCache(divisionRepository, goalRepository, userRepository, tableVersions,
+                dryRun, 0.6);
+    }
+}
@@ -0,0 +1,153 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.entity.Division;
+import com.bankanalytics.entity.Goal;
+import com.bankanalytics.entity.GoalRollup;
+import com.bankanalytics.entity.RollupCounts;
+import com.bankanalytics.entity.Task;
+import com.bankanalytics.repository.DivisionRollupRepository;
+import com.bankanalytics.repository.GoalRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RollupServiceTest {
+
+    @Mock
+    private GoalRollupRepository goalRollupRepository;
+
+    @Mock
+    private DivisionRollupRepository divisionRollupRepository;
+
+    @InjectMocks
+    private RollupService rollupService;
+
+    private Goal testGoal;
+    private Task testTask;
+
+    @BeforeEach
+    void setUp() {
+        Division division = new Division();
+        division.setId(10L);
+
+        testGoal = new Goal();
+        testGoal.setId(1L);
+        testGoal.setDivision(division);
+        testGoal.setProgress(0);
+        testGoal.setTargetValue(BigDecimal.valueOf(100));
+        testGoal.setCurrentValue(BigDecimal.TEN);
+        testGoal.setDeadline(LocalDate.now().plusDays(30));
+
+        testTask = new Task();
+        testTask.setId(1L);
+        testTask.setGoal(testGoal);
+        testTask.setStatus(Task.TaskStatus.NOT_STARTED);
+        testTask.setProgress(0);
+        testTask.setEndDate(LocalDate.now().minusDays(1));
+    }
+
+    @Test
+    void taskChanged_ShouldApplyNetDeltaToGoalAndDivision() {
+        // Arrange
+        RollupService.TaskState before = RollupService.TaskState.of(testTask);
+        testTask.setStatus(Task.TaskStatus.COMPLETED);
+        testTask.setProgress(100);
+
+        // Act
+        rollupService.taskChanged(before, testTask);
+
+        // Assert
+        ArgumentCaptor<RollupCounts> counts = ArgumentCaptor.forClass(RollupCounts.class);
+        verify(goalRollupRepository, times(1)).add(eq(1L), counts.capture(), any(LocalDateTime.class));
+        verify(divisionRollupRepository, times(1)).addByGoal(eq(1L), same(counts.getValue()),
+                any(LocalDateTime.class));
+        RollupCounts delta = counts.getValue();
+        assertEquals(0, delta.getTaskCount());
+        assertEquals(-1, delta.getNotStartedTasks());
+        assertEquals(1, delta.getCompletedTasks());
+        assertEquals(-1, delta.getOverdueTasks());
+        assertEquals(100, delta.getProgressSum());
+    }
+
+    @Test
+    void taskChanged_WithoutRollupFieldsChanged_ShouldNotWrite() {
+        // Arrange
+        RollupService.TaskState before = RollupService.TaskState.of(testTask);
+        testTask.setTitle("Renamed");
+
+        // Act
+        rollupService.taskChanged(before, testTask);
+
+        // Assert
+        verify(goalRollupRepository, never()).add(anyLong(), any(RollupCounts.class), any(LocalDateTime.class));
+        verify(divisionRollupRepository, never()).addByGoal(anyLong(), any(RollupCounts.class),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void goalChanged_WhenMovedToAnotherDivision_ShouldMoveTaskCounts() {
+        // Arrange
+        GoalRollup rollup = new GoalRollup();
+        rollup.setGoalId(1L);
+        rollup.getTasks().add(Task.TaskStatus.IN_PROGRESS, 40, null, LocalDate.now(), 1);
+        when(goalRollupRepository.findById(1L)).thenReturn(Optional.of(rollup));
+
+        RollupService.GoalState before = RollupService.GoalState.of(testGoal);
+        Division target = new Division();
+        target.setId(20L);
+        testGoal.setDivision(target);
+
+        // Act
+        rollupService.goalChanged(before, testGoal);
+
+        // Assert
+        ArgumentCaptor<RollupCounts> removed = ArgumentCaptor.forClass(RollupCounts.class);
+        verify(divisionRollupRepository, times(1)).add(eq(10L), eq(-1L), eq(0L), eq(0L), removed.capture(),
+                any(LocalDateTime.class));
+        verify(divisionRollupRepository, times(1)).add(eq(20L), eq(1L), eq(0L), eq(0L), same(rollup.getTasks()),
+                any(LocalDateTime.class));
+        assertEquals(-1, removed.getValue().getTaskCount());
+        assertEquals(-40, removed.getValue().getProgressSum());
+    }
+
+    @Test
+    void goalChanged_WhenCompleted_ShouldOnlyUpdateDivisionFlags() {
+        // Arrange
+        RollupService.GoalState before = RollupService.GoalState.of(testGoal);
+        testGoal.setProgress(100);
+
+        // Act
+        rollupService.goalChanged(before, testGoal);
+
+        // Assert
+        verify(divisionRollupRepository, times(1)).add(eq(10L), eq(0L), eq(1L), eq(0L), any(RollupCounts.class),
+                any(LocalDateTime.class));
+        verify(goalRollupRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void refreshGoals_WithNoGoals_ShouldNotQuery() {
+        // Act
+        rollupService.refreshGoals(List.of());
+
+        // Assert
+        verifyNoInteractions(goalRollupRepository, divisionRollupRepository);
+    }
+}
@@ -0,0 +1,76 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.dto.SearchHitDto;
+import com.bankanalytics.dto.SearchPage;
+import com.bankanalytics.repository.SearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private SearchRepository searchRepository;
+
+    @InjectMocks
+    private SearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(searchService, "defaultLimit", 2);
+        ReflectionTestUtils.setField(searchService, "maxLimit", 5);
+    }
+
+    @Test
+    void search_WhenMoreHitsThanLimit_ShouldReturnNextOffset() {
+        // Arrange
+        List<SearchHitDto> hits = List.of(hit(1L), hit(2L), hit(3L));
+        when(searchRepository.search("кредит", EnumSet.allOf(SearchHitDto.Type.class), 4, 3)).thenReturn(hits);
+
+        // Act
+        SearchPage result = searchService.search(" кредит ", null, 4, null);
+
+        // Assert
+        assertEquals(2, result.getItems().size());
+        assertEquals(6, result.getNextOffset());
+    }
+
+    @Test
+    void search_OnLastPage_ShouldNotReturnNextOffset() {
+        // Arrange
+        when(searchRepository.search("кредит", Set.of(SearchHitDto.Type.GOAL), 0, 6)).thenReturn(List.of(hit(1L)));
+
+        // Act
+        SearchPage result = searchService.search("кредит", Set.of(SearchHitDto.Type.GOAL), -1, 100);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextOffset());
+    }
+
+    @Test
+    void search_WithBlankQuery_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("  ", null, null, null));
+        verify(searchRepository, never()).search(anyString(), any(), anyInt(), anyInt());
+    }
+
+    private static SearchHitDto hit(Long id) {
+        return new SearchHitDto(SearchHitDto.Type.TASK, id, "Задача " + id, "<b>кредит</b>", 0.1);
+    }
+}
@@ -0,0 +1,206 @@
+package com.bankanalytics.service;
+
+import com.bankanalytics.entity.ImportedFile;
+import com.bankanalytics.entity.TaskImportResult;
+import com.bankanalytics.repository.DivisionRepository;
+import com.bankanalytics.repository.GoalRepository;
+import com.bankanalytics.repository.ImportedFileRepository;
+import com.bankanalytics.repository.TaskRepository;
+import com.bankanalytics.repository.UserRepository;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskImportServiceTest {
+
+    @Mock
+    private DivisionRepository divisionRepository;
+
+    @Mock
+    private GoalRepository goalRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ImportedFileRepository importedFileRepository;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private TableVersions tableVersions;
+
+    @Spy
+    private ExcelSheetReader excelSheetReader = new ExcelSheetReader();
+
+    @Spy
+    private TaskRowParser taskRowParser = new TaskRowParser();
+
+    @InjectMocks
+    private TaskImportService taskImportService;
+
+    private static final LocalDateTime IMPORTED_AT = LocalDateTime.of(2026, 3, 2, 9, 30);
+
+    private ImportUpload upload;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(taskImportService, "parserThreads", 1);
+        ReflectionTestUtils.setField(taskImportService, "pipelineQueueSize", 10);
+        ReflectionTestUtils.setField(taskImportService, "batchSize", 10);
+        ReflectionTestUtils.setField(taskImportService, "divisionSimilarity", 0.6);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (upload != null) {
+            upload.delete();
+        }
+    }
+
+    @Test
+    void importFromExcel_ShouldMarkUnreadableFileFailed() throws IOException {
+        // Arrange
+        upload = ImportUpload.store(new MockMultipartFile("file", "plan.xlsx", null,
+                "это не Excel".getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        TaskImportResult result = taskImportService.importFromExcel(upload, false, ImportProgressListener.NONE);
+
+        // Assert
+        assertTrue(result.isFailed());
+        assertEquals(0, result.getTotalRows());
+        assertTrue(result.getErrors().get(0).startsWith("Ошибка чтения файла"), result.getErrors().toString());
+        verify(importedFileRepository, never()).save(any());
+    }
+
+    @Test
+    void importFromExcel_ShouldMarkFileWithoutHeaderFailed() throws IOException {
+        // Arrange
+        upload = ImportUpload.store(new MockMultipartFile("file", "plan.xlsx", null,
+                workbook("Наименование блока", "Инициатива")));
+
+        // Act
+        TaskImportResult result = taskImportService.importFromExcel(upload, true, ImportProgressListener.NONE);
+
+        // Assert
+        assertTrue(result.isFailed());
+        assertTrue(result.isDryRun());
+        assertEquals(1, result.getErrorCount());
+        verify(importedFileRepository, never()).save(any());
+    }
+
+    @Test
+    void importFromExcel_ShouldNotMarkEmptyPlanFailed() throws IOException {
+        // Arrange
+        upload = ImportUpload.store(new MockMultipartFile("file", "plan.xlsx", null,
+                workbook("№", "Наименование блока", "Инициатива")));
+
+        // Act
+        TaskImportResult result = taskImportService.importFromExcel(upload, true, ImportProgressListener.NONE);
+
+        // Assert
+        assertFalse(result.isFailed());
+        assertEquals(0, result.getErrorCount());
+    }
+
+    @Test
+    void importFromExcel_ShouldSkipIdenticalFileWhileImportedTasksAreUnchanged() throws IOException {
+        // Arrange
+        upload = ImportUpload.store(new MockMultipartFile("file", "plan.xlsx", null,
+                workbook("№", "Наименование блока", "Инициатива")));
+        when(importedFileRepository.findByFileHash(upload.getFileHash()))
+                .thenReturn(Optional.of(importedFile(upload.getFileHash(), 12, IMPORTED_AT)));
+        when(taskRepository.findImportedTasksState()).thenReturn(state(12, IMPORTED_AT));
+
+        // Act
+        TaskImportResult result = taskImportService.importFromExcel(upload, false, ImportProgressListener.NONE);
+
+        // Assert
+        assertTrue(result.isAlreadyImported());
+        assertEquals(12, result.getUnchangedCount());
+        verify(excelSheetReader, never()).read(any(), any());
+    }
+
+    @Test
+    void importFromExcel_ShouldReadIdenticalFileAgainAfterImportedTasksWereDeleted() throws IOException {
+        // Arrange
+        upload = ImportUpload.store(new MockMultipartFile("file", "plan.xlsx", null,
+                workbook("№", "Наименование блока", "Инициатива")));
+        ImportedFile previous = importedFile(upload.getFileHash(), 12, IMPORTED_AT);
+        when(importedFileRepository.findByFileHash(upload.getFileHash())).thenReturn(Optional.of(previous));
+        when(taskRepository.findImportedTasksState()).thenReturn(state(11, IMPORTED_AT));
+
+        // Act
+        TaskImportResult result = taskImportService.importFromExcel(upload, false, ImportProgressListener.NONE);
+
+        // Assert
+        assertFalse(result.isAlreadyImported());
+        verify(excelSheetReader).read(any(), any());
+        // Запись файла обновляется, а не дублируется: следующая такая же загрузка снова пропускается
+        verify(importedFileRepository).save(previous);
+        assertEquals(11L, previous.getTaskCount());
+    }
+
+    private static ImportedFile importedFile(String fileHash, long taskCount, LocalDateTime tasksUpdatedAt) {
+        ImportedFile importedFile = new ImportedFile();
+        importedFile.setId(1L);
+        importedFile.setFileHash(fileHash);
+        importedFile.setFileName("plan.xlsx");
+        importedFile.setTotalRows(12);
+        importedFile.setTaskCount(taskCount);
+        importedFile.setTasksUpdatedAt(tasksUpdatedAt);
+        return importedFile;
+    }
+
+    private static TaskRepository.ImportedTasksState state(long count, LocalDateTime lastUpdatedAt) {
+        return new TaskRepository.ImportedTasksState() {
+            @Override
+            public long getCount() {
+                return count;
+            }
+
+            @Override
+            public LocalDateTime getLastUpdatedAt() {
+                return lastUpdatedAt;
+            }
+        };
+    }
+
+    private static byte[] workbook(String... header) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            XSSFSheet sheet = workbook.createSheet("План");
+            XSSFRow row = sheet.createRow(0);
+            for (int i = 0; i < header.length; i++) {
+                row.createCell(i).setCellValue(header[i]);
+            }
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+}
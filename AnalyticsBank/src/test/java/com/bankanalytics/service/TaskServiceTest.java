@@ -12,12 +12,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +34,12 @@ class TaskServiceTest {
     @Mock
     private GoalRepository goalRepository;
 
+    @Mock
+    private RollupService rollupService;
+
+    @Mock
+    private TableVersions tableVersions;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -124,6 +135,52 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).save(any(Task.class));
         verify(taskRepository, times(1)).findByGoalId(1L);
         verify(goalRepository, times(1)).findById(1L);
+        verify(rollupService, times(1)).taskAdded(testTask);
+    }
+
+    @Test
+    void createTask_WithRollup_ShouldDeferGoalProgress() {
+        // Arrange
+        GoalProgressRollup rollup = new GoalProgressRollup();
+        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+
+        // Act
+        taskService.createTask(testTask, rollup);
+        taskService.createTask(testTask, rollup);
+
+        // Assert
+        assertEquals(Set.of(1L), rollup.getGoalIds());
+        verify(taskRepository, times(2)).save(any(Task.class));
+        verify(taskRepository, never()).findByGoalId(anyLong());
+        verify(goalRepository, never()).findById(anyLong());
+        verify(rollupService, never()).taskAdded(any(Task.class));
+    }
+
+    @Test
+    void recalculateGoalProgress_ShouldUpdateTouchedGoalsOnce() {
+        // Arrange
+        GoalProgressRollup rollup = new GoalProgressRollup();
+        rollup.touch(1L);
+        rollup.touch(2L);
+        rollup.touch(1L);
+        when(goalRepository.recalculateProgress(anyCollection(), any(LocalDateTime.class))).thenReturn(2);
+
+        // Act
+        taskService.recalculateGoalProgress(rollup);
+
+        // Assert
+        verify(goalRepository, times(1)).recalculateProgress(eq(Set.of(1L, 2L)), any(LocalDateTime.class));
+        verify(rollupService, times(1)).refreshGoals(Set.of(1L, 2L));
+    }
+
+    @Test
+    void recalculateGoalProgress_WithEmptyRollup_ShouldNotQuery() {
+        // Act
+        taskService.recalculateGoalProgress(new GoalProgressRollup());
+
+        // Assert
+        verify(goalRepository, never()).recalculateProgress(anyCollection(), any(LocalDateTime.class));
+        verify(rollupService, never()).refreshGoals(anyCollection());
     }
 
     @Test
@@ -152,20 +209,35 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).save(any(Task.class));
         verify(taskRepository, times(1)).findByGoalId(1L);
         verify(goalRepository, times(1)).findById(1L);
+        verify(rollupService, times(1)).taskChanged(
+                new RollupService.TaskState(1L, Task.TaskStatus.NOT_STARTED, 0, testTask.getEndDate()), testTask);
+        verify(rollupService, times(1)).goalChanged(any(RollupService.GoalState.class), eq(testGoal));
     }
 
     @Test
     void deleteTask_WhenTaskExists_ShouldDeleteTask() {
         // Arrange
-        when(taskRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(taskRepository).deleteById(1L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+        doNothing().when(taskRepository).delete(testTask);
 
         // Act
         taskService.deleteTask(1L);
 
         // Assert
-        verify(taskRepository, times(1)).existsById(1L);
-        verify(taskRepository, times(1)).deleteById(1L);
+        verify(taskRepository, times(1)).findById(1L);
+        verify(taskRepository, times(1)).delete(testTask);
+        verify(rollupService, times(1)).taskRemoved(testTask);
+    }
+
+    @Test
+    void deleteTask_WhenTaskNotFound_ShouldThrowException() {
+        // Arrange
+        when(taskRepository.findById(999L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> taskService.deleteTask(999L));
+        verify(taskRepository, never()).delete(any(Task.class));
+        verify(rollupService, never()).taskRemoved(any(Task.class));
     }
 
     @Test
@@ -195,4 +267,25 @@ class TaskServiceTest {
         assertEquals(1, result.size());
         verify(taskRepository, times(1)).findOverdueTasks();
     }
+
+    @Test
+    void createTasks_ShouldSaveBatchAndDeferGoalProgress() {
+        // Arrange
+        Task second = new Task();
+        second.setTitle("Second Task");
+        second.setGoal(testGoal);
+        List<Task> batch = Arrays.asList(testTask, second);
+        when(taskRepository.saveAll(batch)).thenReturn(batch);
+        GoalProgressRollup rollup = new GoalProgressRollup();
+
+        // Act
+        List<Task> result = taskService.createTasks(batch, rollup);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(Task.TaskStatus.NOT_STARTED, second.getStatus());
+        assertEquals(Set.of(1L), rollup.getGoalIds());
+        verify(taskRepository, times(1)).saveAll(batch);
+        verify(taskRepository, never()).findByGoalId(anyLong());
+    }
 }
@@ -1,7 +1,10 @@
 package com.bankanalytics.service;
 
+import com.bankanalytics.entity.Goal;
+import com.bankanalytics.entity.Task;
 import com.bankanalytics.entity.User;
 import com.bankanalytics.repository.UserRepository;
+import com.bankanalytics.security.PrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +32,15 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TableVersions tableVersions;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private RollupService rollupService;
+
     @InjectMocks
     private UserService userService;
 
@@ -149,30 +162,37 @@ class UserServiceTest {
     }
 
     @Test
-    void deleteUser_WhenUserExists_ShouldDeleteUser() {
+    void deleteUser_WhenUserExists_ShouldDeleteUserAndSubtractTasksFromRollups() {
         // Arrange
-        when(userRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(1L);
+        Goal goal = new Goal();
+        goal.setId(5L);
+        Task task = new Task();
+        task.setGoal(goal);
+        task.setStatus(Task.TaskStatus.COMPLETED);
+        testUser.setTasks(new ArrayList<>(List.of(task)));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
         // Act
         userService.deleteUser(1L);
 
         // Assert
-        verify(userRepository, times(1)).existsById(1L);
-        verify(userRepository, times(1)).deleteById(1L);
+        verify(userRepository, times(1)).delete(testUser);
+        verify(rollupService).tasksRemoved(List.of(task));
+        verify(tableVersions).bump(TableVersions.USERS, TableVersions.TASKS, TableVersions.REPORTS);
+        verify(principalCache).evict(1L);
     }
 
     @Test
     void deleteUser_WhenUserDoesNotExist_ShouldThrowException() {
         // Arrange
-        when(userRepository.existsById(999L)).thenReturn(false);
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
             userService.deleteUser(999L);
         });
-        verify(userRepository, times(1)).existsById(999L);
-        verify(userRepository, never()).deleteById(anyLong());
+        verify(userRepository, never()).delete(any(User.class));
+        verifyNoInteractions(tableVersions, rollupService);
     }
 
     @Test
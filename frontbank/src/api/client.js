@@ -34,15 +34,42 @@ async function request(path, options = {}) {
   return response.text()
 }
 
+// Списки отдаются страницами по id; курсор следующей страницы приходит в заголовке X-Next-After
+export async function fetchAllPages(path, headers = {}) {
+  const items = []
+  let after = null
+  do {
+    const separator = path.includes('?') ? '&' : '?'
+    const url = `${API_BASE_URL}${path}${after ? `${separator}after=${after}` : ''}`
+    const response = await fetch(url, { headers })
+    if (!response.ok) {
+      const error = new Error('Request failed')
+      error.status = response.status
+      throw error
+    }
+    items.push(...(await response.json()))
+    after = response.headers.get('X-Next-After')
+  } while (after)
+  return items
+}
+
 export function fetchDivisions() {
   return request('/divisions')
 }
 
-export function uploadExcel(file) {
+export function fetchDashboard() {
+  return request('/analytics/dashboard')
+}
+
+export function uploadExcel(file, dryRun = false) {
   const formData = new FormData()
   formData.append('file', file)
-  return request('/tasks/import', {
+  return request(`/tasks/import${dryRun ? '?dryRun=true' : ''}`, {
     method: 'POST',
     body: formData,
   })
 }
+
+export function fetchImportJob(jobId) {
+  return request(`/tasks/import/${jobId}`)
+}
@@ -10,9 +10,16 @@ export function AuthProvider({ children }) {
     const storedToken = localStorage.getItem('authToken')
     const storedUser = localStorage.getItem('authUser')
     if (storedToken && storedUser) {
-      setToken(storedToken)
       try {
-        setUser(JSON.parse(storedUser))
+        const parsedUser = JSON.parse(storedUser)
+        // Токен короткоживущий: после истечения срока нужно войти заново
+        if (parsedUser.expiresAt && new Date(parsedUser.expiresAt) <= new Date()) {
+          localStorage.removeItem('authToken')
+          localStorage.removeItem('authUser')
+          return
+        }
+        setToken(storedToken)
+        setUser(parsedUser)
       } catch {
         setUser(null)
       }
@@ -26,6 +33,7 @@ export function AuthProvider({ children }) {
       fullName: payload.fullName,
       role: payload.role,
       divisionId: payload.divisionId,
+      expiresAt: payload.expiresAt,
     }
     setToken(nextToken)
     setUser(nextUser)
@@ -3,6 +3,7 @@ import { useParams, useNavigate } from 'react-router-dom'
 import Modal from '../components/Modal'
 import GoalForm from '../components/GoalForm'
 import TaskForm from '../components/TaskForm'
+import { fetchAllPages } from '../api/client'
 
 function BlockGoalsPage() {
   const { divisionId, blockName } = useParams()
@@ -47,22 +48,15 @@ function BlockGoalsPage() {
         const goalsData = await goalsResponse.json()
         setGoals(goalsData)
 
-        // Загружаем все задачи
-        const tasksResponse = await fetch(`http://localhost:8080/tasks`, { headers })
-        if (tasksResponse.ok) {
-          const allTasks = await tasksResponse.json()
-          
-          // Фильтруем задачи по целям этого подразделения
-          const goalIds = goalsData.map(g => g.id)
-          const divisionTasks = allTasks.filter(task => goalIds.includes(task.goalId))
-          
+        // Загружаем задачи подразделения
+        const divisionTasks = await fetchAllPages(`/tasks?divisionId=${divisionId}`, headers).catch(() => null)
+        if (divisionTasks) {
           setTasks(divisionTasks)
         }
 
         // Загружаем пользователей
-        const usersResponse = await fetch(`http://localhost:8080/users`, { headers })
-        if (usersResponse.ok) {
-          const usersData = await usersResponse.json()
+        const usersData = await fetchAllPages('/users', headers).catch(() => null)
+        if (usersData) {
           setUsers(usersData)
         }
       } catch (e) {
@@ -105,19 +99,13 @@ function BlockGoalsPage() {
       setGoals(goalsData)
 
       
-      const tasksResponse = await fetch(`http://localhost:8080/tasks`, { headers })
-      if (tasksResponse.ok) {
-        const allTasks = await tasksResponse.json()
-        
-        const goalIds = goalsData.map(g => g.id)
-        const divisionTasks = allTasks.filter(task => goalIds.includes(task.goalId))
-        
+      const divisionTasks = await fetchAllPages(`/tasks?divisionId=${divisionId}`, headers).catch(() => null)
+      if (divisionTasks) {
         setTasks(divisionTasks)
       }
 
-      const usersResponse = await fetch(`http://localhost:8080/users`, { headers })
-      if (usersResponse.ok) {
-        const usersData = await usersResponse.json()
+      const usersData = await fetchAllPages('/users', headers).catch(() => null)
+      if (usersData) {
         setUsers(usersData)
       }
     } catch (e) {
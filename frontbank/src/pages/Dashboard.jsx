@@ -1,5 +1,6 @@
 import { useEffect, useState } from 'react'
 import { useAuth } from '../context/AuthContext'
+import { fetchDashboard } from '../api/client'
 import {
   Bar,
   BarChart,
@@ -24,63 +25,31 @@ function Dashboard() {
       setLoading(true)
       setError('')
       try {
-        const token = localStorage.getItem('authToken')
-        const headers = { 'Authorization': token || '', 'Content-Type': 'application/json' }
+        // Итоги и разбивка по отделам считаются на сервере, объём ответа не зависит от числа задач
+        const dashboard = await fetchDashboard()
 
-        const [tasksRes, goalsRes, divisionsRes] = await Promise.all([
-          fetch('http://localhost:8080/tasks', { headers }),
-          fetch('http://localhost:8080/goals', { headers }),
-          fetch('http://localhost:8080/divisions', { headers })
-        ])
-
-        if (!tasksRes.ok || !goalsRes.ok || !divisionsRes.ok) throw new Error('Ошибка загрузки данных')
-
-        const tasks = await tasksRes.json()
-        const goals = await goalsRes.json()
-        const divisions = await divisionsRes.json()
-
-        const completedTasks = tasks.filter(t => t.status === 'COMPLETED').length
-        const completedGoals = goals.filter(g => g.progress === 100).length
-        
         setStats({
-          totalTasks: tasks.length,
-          completedTasks,
-          pendingTasks: tasks.length - completedTasks,
-          totalGoals: goals.length,
-          completedGoals
+          totalTasks: dashboard.totalTasks,
+          completedTasks: dashboard.completedTasks,
+          pendingTasks: dashboard.pendingTasks,
+          totalGoals: dashboard.totalGoals,
+          completedGoals: dashboard.completedGoals
         })
 
-        const goalStats = divisions.map(div => {
-          const divGoals = goals.filter(g => g.divisionId === div.id)
-          const completed = divGoals.filter(g => g.progress === 100).length
-          const inProgress = divGoals.length - completed
-          
-          return {
-            name: div.name,
-            completed,
-            inProgress,
-            total: divGoals.length
-          }
-        }).filter(stat => stat.total > 0)
-
-        setDivisionGoalStats(goalStats)
+        setDivisionGoalStats(dashboard.goalsByDivision.map(stat => ({
+          name: stat.divisionName,
+          completed: stat.completed,
+          inProgress: stat.total - stat.completed,
+          total: stat.total
+        })))
 
         // Статистика задач по отделам
-        const taskStats = divisions.map(div => {
-          const divGoalIds = goals.filter(g => g.divisionId === div.id).map(g => g.id)
-          const divTasks = tasks.filter(t => divGoalIds.includes(t.goalId))
-          const completed = divTasks.filter(t => t.status === 'COMPLETED').length
-          const pending = divTasks.length - completed
-          
-          return {
-            name: div.name,
-            completed,
-            pending,
-            total: divTasks.length
-          }
-        }).filter(stat => stat.total > 0)
-
-        setDivisionTaskStats(taskStats)
+        setDivisionTaskStats(dashboard.tasksByDivision.map(stat => ({
+          name: stat.divisionName,
+          completed: stat.completed,
+          pending: stat.total - stat.completed,
+          total: stat.total
+        })))
       } catch (e) {
         setError(e.message || 'Ошибка загрузки')
       } finally {
@@ -1,13 +1,19 @@
 import { useState } from 'react'
-import { uploadExcel } from '../api/client'
+import { fetchImportJob, uploadExcel } from '../api/client'
 import { useAuth } from '../context/AuthContext'
 
+const POLL_INTERVAL_MS = 1000
+
+const sleep = (ms) => new Promise((resolve) => setTimeout(resolve, ms))
+
 function ExcelUploadPage() {
   const { isAdmin, user } = useAuth()
   const [file, setFile] = useState(null)
   const [loading, setLoading] = useState(false)
   const [error, setError] = useState('')
   const [result, setResult] = useState(null)
+  const [job, setJob] = useState(null)
+  const [dryRun, setDryRun] = useState(false)
 
   const handleSubmit = async (event) => {
     event.preventDefault()
@@ -17,10 +23,17 @@ function ExcelUploadPage() {
     }
     setError('')
     setResult(null)
+    setJob(null)
     setLoading(true)
     try {
-      const response = await uploadExcel(file)
-      setResult(response)
+      let current = await uploadExcel(file, dryRun)
+      setJob(current)
+      while (current.status === 'QUEUED' || current.status === 'RUNNING') {
+        await sleep(POLL_INTERVAL_MS)
+        current = await fetchImportJob(current.jobId)
+        setJob(current)
+      }
+      setResult(current.result)
     } catch (e) {
       setError(e.message || 'Ошибка загрузки файла')
     } finally {
@@ -50,6 +63,17 @@ function ExcelUploadPage() {
             onChange={(event) => setFile(event.target.files?.[0] || null)}
           />
         </div>
+        <div className="form-field">
+          <label className="form-label">
+            <input
+              type="checkbox"
+              checked={dryRun}
+              onChange={(event) => setDryRun(event.target.checked)}
+              style={{ marginRight: 6 }}
+            />
+            Только проверить файл, без сохранения
+          </label>
+        </div>
         {error && <div className="form-error">{error}</div>}
         <button
           type="submit"
@@ -59,17 +83,41 @@ function ExcelUploadPage() {
         >
           {loading ? 'Загрузка...' : 'Upload'}
         </button>
+        {loading && job && (
+          <div style={{ marginTop: 16, fontSize: 13 }}>
+            Обработано строк: {job.rowsProcessed} (успешно: {job.successCount},
+            ошибок: {job.errorCount})
+          </div>
+        )}
         {result && (
           <div style={{ marginTop: 16, fontSize: 13 }}>
-            <div>Результат загрузки:</div>
+            <div>
+              {result.dryRun ? 'Результат проверки (данные не сохранены):' : 'Результат загрузки:'}
+            </div>
+            {result.alreadyImported && (
+              <div style={{ marginTop: 6 }}>
+                Этот файл уже был импортирован, изменений нет.
+              </div>
+            )}
             <ul style={{ paddingLeft: 18, marginTop: 6 }}>
               <li>
                 Всего строк: {result.totalRows != null ? result.totalRows : '—'}
               </li>
               <li>
-                Успешно импортировано задач:{' '}
+                Успешно обработано строк:{' '}
                 {result.successCount != null ? result.successCount : '—'}
               </li>
+              <li>
+                Добавлено: {result.insertedCount ?? 0}, обновлено:{' '}
+                {result.updatedCount ?? 0}, без изменений:{' '}
+                {result.unchangedCount ?? 0}
+              </li>
+              {(result.createdDivisionCount > 0 || result.createdGoalCount > 0) && (
+                <li>
+                  Новых подразделений: {result.createdDivisionCount}, новых
+                  инициатив: {result.createdGoalCount}
+                </li>
+              )}
               <li>
                 Ошибок при импорте:{' '}
                 {result.errorCount != null ? result.errorCount : '—'}
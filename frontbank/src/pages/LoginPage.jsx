@@ -17,34 +17,24 @@ function LoginPage() {
     setError('')
     setLoading(true)
     try {
-      const basicToken = `Basic ${btoa(`${username}:${password}`)}`
-
-
-      const response = await fetch(`${API_BASE_URL}/users`, {
-        headers: {
-          Authorization: basicToken,
-        },
+      const response = await fetch(`${API_BASE_URL}/auth/login`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ email: username, password }),
       })
-
       if (!response.ok) {
         throw new Error('Неверный логин или пароль')
       }
+      const session = await response.json()
 
-      const users = await response.json()
-      
-
-      const currentUser = users.find(u => u.email === username || u.name === username)
-      
-      if (!currentUser) {
-        throw new Error('Пользователь не найден')
-      }
-
+      // Пароль проверяется один раз, дальше все запросы идут с подписанным токеном
       saveAuth({
-        token: basicToken,
-        email: currentUser.email,
-        fullName: currentUser.name,
-        role: currentUser.role || 'EMPLOYEE',
-        divisionId: currentUser.divisionId,
+        token: `${session.tokenType} ${session.token}`,
+        expiresAt: session.expiresAt,
+        email: session.email,
+        fullName: session.fullName,
+        role: session.role || 'EMPLOYEE',
+        divisionId: session.divisionId,
       })
       const from = location.state?.from?.pathname || '/dashboard'
       navigate(from, { replace: true })
@@ -60,12 +50,12 @@ function LoginPage() {
       <div className="form-card">
         <div className="form-title">Вход в аналитическую платформу</div>
         <div className="form-subtitle">
-          Используйте логин и пароль, настроенные в системе безопасности
+          Используйте email и пароль, настроенные в системе безопасности
         </div>
         <form onSubmit={handleSubmit}>
           <div className="form-field">
             <label className="form-label" htmlFor="username">
-              Логин
+              Email
             </label>
             <input
               id="username"
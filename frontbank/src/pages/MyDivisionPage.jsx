@@ -1,5 +1,6 @@
 import { useEffect, useState } from 'react'
 import { useAuth } from '../context/AuthContext'
+import { fetchAllPages } from '../api/client'
 import { Bar, BarChart, ResponsiveContainer, Tooltip, XAxis, YAxis, CartesianGrid, Legend } from 'recharts'
 import Modal from '../components/Modal'
 import TaskForm from '../components/TaskForm'
@@ -29,26 +30,21 @@ function MyDivisionPage() {
       const token = localStorage.getItem('authToken')
       const headers = { 'Authorization': token || '', 'Content-Type': 'application/json' }
 
-      const [divRes, goalsRes, tasksRes, usersRes] = await Promise.all([
+      const [divRes, goalsRes, divisionTasks, usersData] = await Promise.all([
         fetch(`http://localhost:8080/divisions/${user.divisionId}`, { headers }),
         fetch(`http://localhost:8080/goals/division/${user.divisionId}`, { headers }),
-        fetch(`http://localhost:8080/tasks`, { headers }),
-        fetch(`http://localhost:8080/users`, { headers })
+        fetchAllPages(`/tasks?divisionId=${user.divisionId}`, headers).catch(() => []),
+        fetchAllPages('/users', headers).catch(() => [])
       ])
 
       if (!divRes.ok) throw new Error('Ошибка загрузки подразделения')
 
       const divData = await divRes.json()
       const goalsData = goalsRes.ok ? await goalsRes.json() : []
-      const allTasks = tasksRes.ok ? await tasksRes.json() : []
-      const usersData = usersRes.ok ? await usersRes.json() : []
 
       setDivision(divData)
       setGoals(goalsData)
       setUsers(usersData)
-
-      const goalIds = goalsData.map(g => g.id)
-      const divisionTasks = allTasks.filter(task => goalIds.includes(task.goalId))
       setTasks(divisionTasks)
     } catch (e) {
       setError(e.message || 'Ошибка загрузки данных')